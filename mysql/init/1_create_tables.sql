@@ -7,12 +7,13 @@ CREATE TABLE IF NOT EXISTS `track_channel` (
     `guild_id` BIGINT NOT NULL,
     `channel_id` BIGINT NOT NULL,
     `guild_name` VARBINARY(30) NULL,
-    `player_uuid` CHAR(36) NULL,
+    # player mc uuid in binary form
+    `player_uuid` BINARY(16) NULL,
     # discord user id of the user who created track
     `user_id` BIGINT NOT NULL,
     `expires_at` DATETIME NOT NULL,
     `guild_name_v` VARBINARY(30) AS (IF(`guild_name` IS NULL, '', `guild_name`)) VIRTUAL,
-    `player_uuid_v` CHAR(36) AS (IF(`player_uuid` IS NULL, '00000000-0000-0000-0000-000000000000', `player_uuid`)) VIRTUAL,
+    `player_uuid_v` BINARY(16) AS (IF(`player_uuid` IS NULL, X'00000000000000000000000000000000', `player_uuid`)) VIRTUAL,
     UNIQUE KEY (`type`, `guild_id`, `channel_id`, `guild_name_v`, `player_uuid_v`),
     KEY `guild_name_type_idx` (`guild_name`, `type`),
     KEY `player_uuid_type_idx` (`player_uuid`, `type`)
@@ -127,8 +128,8 @@ CREATE TABLE IF NOT EXISTS `war_log` (
 CREATE TABLE IF NOT EXISTS `war_player` (
     `war_log_id` INT NOT NULL,
     `player_name` VARCHAR(30) NOT NULL,
-    # player mc uuid with hyphens
-    `player_uuid` CHAR(36) NULL,
+    # player mc uuid in binary form, 16 bytes instead of 36 to keep uuid indexes narrow
+    `player_uuid` BINARY(16) NULL,
     # A flag indicating player left war server before the war server itself ends,
     # or that guild acquired a territory (= `ended` flag in `war_log` table)
     `exited` BOOLEAN NOT NULL,
@@ -181,7 +182,8 @@ CREATE TABLE IF NOT EXISTS `guild_war_leaderboard` (
 
 # Player war leaderboard, to be updated on `war_player` update
 CREATE TABLE IF NOT EXISTS `player_war_leaderboard` (
-    `uuid` CHAR(36) PRIMARY KEY NOT NULL,
+    # player mc uuid in binary form
+    `uuid` BINARY(16) PRIMARY KEY NOT NULL,
     `last_name` VARCHAR(30) NOT NULL,
     `total_war` INT NOT NULL,
     `success_war` INT NOT NULL,
@@ -221,6 +223,18 @@ CREATE TRIGGER IF NOT EXISTS `territory_logger`
     END; //
 DELIMITER ;
 
+# Collects ids of `territory_log` records inserted in this session into @territory_log_ids (comma separated)
+# while @collect_territory_logs is set, so that the territory updater can retrieve the generated logs without scanning the table
+DELIMITER //
+CREATE TRIGGER IF NOT EXISTS `territory_log_collector`
+    AFTER INSERT ON `territory_log` FOR EACH ROW
+    BEGIN
+        IF @collect_territory_logs THEN
+            SET @territory_log_ids = CONCAT_WS(',', @territory_log_ids, NEW.id);
+        END IF;
+    END; //
+DELIMITER ;
+
 # Selects id of the last war log for guild that is not yet associated to an territory log
 DROP FUNCTION IF EXISTS `last_unassociated_war_log_id`;
 DELIMITER //
@@ -277,7 +291,7 @@ DELIMITER ;
 
 DROP PROCEDURE IF EXISTS `update_player_war_leaderboard`;
 DELIMITER //
-CREATE PROCEDURE `update_player_war_leaderboard` (player_uuid CHAR(36), player_name VARCHAR(30))
+CREATE PROCEDURE `update_player_war_leaderboard` (player_uuid BINARY(16), player_name VARCHAR(30))
     BEGIN
         SET @total_war = (SELECT COUNT(*) FROM `war_player` p WHERE p.`player_uuid` = player_uuid);
         SET @success_war = (SELECT COUNT(*) FROM `war_player` p
@@ -405,7 +419,7 @@ DELIMITER ;
 # start is inclusive, and end is exclusive.
 DROP FUNCTION IF EXISTS `player_total_wars_between`;
 DELIMITER //
-CREATE FUNCTION `player_total_wars_between` (player_uuid CHAR(36), start INT, end INT) RETURNS INT
+CREATE FUNCTION `player_total_wars_between` (player_uuid BINARY(16), start INT, end INT) RETURNS INT
 BEGIN
     RETURN (SELECT COUNT(*) FROM `war_player` p WHERE p.`player_uuid` = player_uuid
         AND `war_log_id` >= start AND `war_log_id` < end);
@@ -416,7 +430,7 @@ DELIMITER ;
 # start is inclusive, and end is exclusive.
 DROP FUNCTION IF EXISTS `player_success_wars_between`;
 DELIMITER //
-CREATE FUNCTION `player_success_wars_between` (player_uuid CHAR(36), start INT, end INT) RETURNS INT
+CREATE FUNCTION `player_success_wars_between` (player_uuid BINARY(16), start INT, end INT) RETURNS INT
 BEGIN
     RETURN (SELECT SUM(g.territory_log_id IS NOT NULL) FROM (SELECT war_log_id FROM `war_player` p WHERE p.`player_uuid` = player_uuid AND p.`war_log_id` >= start AND p.`war_log_id` < end)
         AS t LEFT JOIN guild_war_log g ON t.war_log_id = g.war_log_id);
@@ -427,7 +441,7 @@ DELIMITER ;
 # start is inclusive, and end is exclusive.
 DROP FUNCTION IF EXISTS `player_survived_wars_between`;
 DELIMITER //
-CREATE FUNCTION `player_survived_wars_between` (player_uuid CHAR(36), start INT, end INT) RETURNS INT
+CREATE FUNCTION `player_survived_wars_between` (player_uuid BINARY(16), start INT, end INT) RETURNS INT
 BEGIN
     RETURN (SELECT SUM(g.territory_log_id IS NOT NULL) FROM (SELECT war_log_id FROM `war_player` p WHERE p.`player_uuid` = player_uuid AND NOT p.`exited` AND p.`war_log_id` >= start AND p.`war_log_id` < end)
         AS t LEFT JOIN guild_war_log g ON t.war_log_id = g.war_log_id);
@@ -500,6 +514,8 @@ CREATE TABLE IF NOT EXISTS `music_queue` (
     `url` VARCHAR(500) NOT NULL,
     `position` BIGINT NOT NULL,
     `updated_at` DATETIME DEFAULT NOW() ON UPDATE NOW(),
+    # base64 encoded track (AudioPlayerManager#encodeTrack), to restore without resolving the url
+    `track` TEXT NULL,
     UNIQUE KEY `guild_id_index_idx` (`guild_id`, `index`)
 ) ENGINE=InnoDB DEFAULT CHARSET=utf8mb4;
 
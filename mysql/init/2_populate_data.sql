@@ -2,7 +2,7 @@ DROP PROCEDURE IF EXISTS `populate_player_war_leaderboard`;
 DELIMITER //
 CREATE PROCEDURE `populate_player_war_leaderboard`()
     BEGIN
-        DECLARE cursor_ID CHAR(36);
+        DECLARE cursor_ID BINARY(16);
         DECLARE cursor_NAME VARCHAR(30);
         DECLARE done INT DEFAULT FALSE;
         DECLARE cursor_i CURSOR FOR SELECT DISTINCT `player_uuid` FROM `war_player` WHERE `player_uuid` IS NOT NULL;
@@ -0,0 +1,15 @@
+# Migration for databases created before `territory_log_collector` was introduced or guarded.
+# Fresh databases get the same trigger from `mysql/init/1_create_tables.sql`.
+
+# Collects ids of `territory_log` records inserted in this session into @territory_log_ids (comma separated)
+# while @collect_territory_logs is set, so that the territory updater can retrieve the generated logs without scanning the table
+DROP TRIGGER IF EXISTS `territory_log_collector`;
+DELIMITER //
+CREATE TRIGGER `territory_log_collector`
+    AFTER INSERT ON `territory_log` FOR EACH ROW
+    BEGIN
+        IF @collect_territory_logs THEN
+            SET @territory_log_ids = CONCAT_WS(',', @territory_log_ids, NEW.id);
+        END IF;
+    END; //
+DELIMITER ;
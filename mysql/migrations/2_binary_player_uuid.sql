@@ -0,0 +1,146 @@
+# Migration converting player uuid columns from CHAR(36) (with hyphens) to BINARY(16),
+# for databases created before the uuid columns were changed.
+# Fresh databases get the same tables and routines from `mysql/init`.
+# Stop the bot before executing this.
+
+# Triggers on `war_player` are re-created at the end with the new routines,
+# so that converting the rows does not update the leaderboard for every row
+DROP TRIGGER IF EXISTS `player_war_leaderboard_updater_1`;
+DROP TRIGGER IF EXISTS `player_war_leaderboard_updater_2`;
+
+### ----- Tables ----
+
+ALTER TABLE `war_player` ADD COLUMN `player_uuid_b` BINARY(16) NULL AFTER `player_uuid`;
+UPDATE `war_player` SET `player_uuid_b` = UNHEX(REPLACE(`player_uuid`, '-', '')) WHERE `player_uuid` IS NOT NULL;
+ALTER TABLE `war_player`
+    DROP KEY `uuid_id_idx`,
+    DROP KEY `uuid_exited_id_idx`,
+    DROP COLUMN `player_uuid`,
+    CHANGE COLUMN `player_uuid_b` `player_uuid` BINARY(16) NULL,
+    ADD KEY `uuid_id_idx` (`player_uuid`, `war_log_id`),
+    ADD KEY `uuid_exited_id_idx` (`player_uuid`, `exited`, `war_log_id`);
+
+ALTER TABLE `track_channel` ADD COLUMN `player_uuid_b` BINARY(16) NULL AFTER `player_uuid`;
+UPDATE `track_channel` SET `player_uuid_b` = UNHEX(REPLACE(`player_uuid`, '-', '')) WHERE `player_uuid` IS NOT NULL;
+# the unique key was created without a name, and is named after its first column
+ALTER TABLE `track_channel`
+    DROP KEY `type`,
+    DROP KEY `player_uuid_type_idx`,
+    DROP COLUMN `player_uuid_v`,
+    DROP COLUMN `player_uuid`,
+    CHANGE COLUMN `player_uuid_b` `player_uuid` BINARY(16) NULL;
+ALTER TABLE `track_channel`
+    ADD COLUMN `player_uuid_v` BINARY(16) AS (IF(`player_uuid` IS NULL, X'00000000000000000000000000000000', `player_uuid`)) VIRTUAL AFTER `guild_name_v`,
+    ADD UNIQUE KEY (`type`, `guild_id`, `channel_id`, `guild_name_v`, `player_uuid_v`),
+    ADD KEY `player_uuid_type_idx` (`player_uuid`, `type`);
+
+ALTER TABLE `player_war_leaderboard` ADD COLUMN `uuid_b` BINARY(16) NULL AFTER `uuid`;
+UPDATE `player_war_leaderboard` SET `uuid_b` = UNHEX(REPLACE(`uuid`, '-', ''));
+ALTER TABLE `player_war_leaderboard`
+    DROP PRIMARY KEY,
+    DROP KEY `total_uuid_idx`,
+    DROP KEY `success_uuid_idx`,
+    DROP KEY `survived_uuid_idx`,
+    DROP KEY `success_rate_uuid_idx`,
+    DROP KEY `survived_rate_uuid_idx`,
+    DROP COLUMN `uuid`,
+    CHANGE COLUMN `uuid_b` `uuid` BINARY(16) NOT NULL,
+    ADD PRIMARY KEY (`uuid`),
+    ADD KEY `total_uuid_idx` (`total_war`, `uuid`),
+    ADD KEY `success_uuid_idx` (`success_war`, `uuid`),
+    ADD KEY `survived_uuid_idx` (`survived_war`, `uuid`),
+    ADD KEY `success_rate_uuid_idx` (`success_rate`, `uuid`),
+    ADD KEY `survived_rate_uuid_idx` (`survived_rate`, `uuid`);
+
+### ----- Routines taking player uuid ----
+
+DROP PROCEDURE IF EXISTS `update_player_war_leaderboard`;
+DELIMITER //
+CREATE PROCEDURE `update_player_war_leaderboard` (player_uuid BINARY(16), player_name VARCHAR(30))
+    BEGIN
+        SET @total_war = (SELECT COUNT(*) FROM `war_player` p WHERE p.`player_uuid` = player_uuid);
+        SET @success_war = (SELECT COUNT(*) FROM `war_player` p
+                                JOIN `guild_war_log` g ON p.`player_uuid` = player_uuid
+                                AND p.war_log_id = g.war_log_id AND g.territory_log_id IS NOT NULL);
+        SET @survived_war = (SELECT COUNT(*) FROM `war_player` p
+                                JOIN `guild_war_log` g ON p.`player_uuid` = player_uuid AND NOT p.exited
+                                AND p.war_log_id = g.war_log_id AND g.territory_log_id IS NOT NULL);
+
+        INSERT INTO `player_war_leaderboard` (uuid, last_name, total_war, success_war, survived_war) VALUES
+            (player_uuid, player_name, @total_war, @success_war, @survived_war)
+            ON DUPLICATE KEY UPDATE
+                last_name = player_name,
+                total_war = @total_war,
+                success_war = @success_war,
+                survived_war = @survived_war;
+    END; //
+DELIMITER ;
+
+DELIMITER //
+CREATE TRIGGER IF NOT EXISTS `player_war_leaderboard_updater_1`
+    AFTER INSERT ON `war_player` FOR EACH ROW
+    BEGIN
+        IF NEW.player_uuid IS NOT NULL THEN
+            CALL update_player_war_leaderboard(NEW.player_uuid, NEW.player_name);
+        END IF;
+    END; //
+DELIMITER ;
+
+DELIMITER //
+CREATE TRIGGER IF NOT EXISTS `player_war_leaderboard_updater_2`
+    AFTER UPDATE ON `war_player` FOR EACH ROW
+    BEGIN
+        IF NEW.player_uuid IS NOT NULL THEN
+            CALL update_player_war_leaderboard(NEW.player_uuid, NEW.player_name);
+        END IF;
+    END; //
+DELIMITER ;
+
+DROP FUNCTION IF EXISTS `player_total_wars_between`;
+DELIMITER //
+CREATE FUNCTION `player_total_wars_between` (player_uuid BINARY(16), start INT, end INT) RETURNS INT
+BEGIN
+    RETURN (SELECT COUNT(*) FROM `war_player` p WHERE p.`player_uuid` = player_uuid
+        AND `war_log_id` >= start AND `war_log_id` < end);
+END; //
+DELIMITER ;
+
+DROP FUNCTION IF EXISTS `player_success_wars_between`;
+DELIMITER //
+CREATE FUNCTION `player_success_wars_between` (player_uuid BINARY(16), start INT, end INT) RETURNS INT
+BEGIN
+    RETURN (SELECT SUM(g.territory_log_id IS NOT NULL) FROM (SELECT war_log_id FROM `war_player` p WHERE p.`player_uuid` = player_uuid AND p.`war_log_id` >= start AND p.`war_log_id` < end)
+        AS t LEFT JOIN guild_war_log g ON t.war_log_id = g.war_log_id);
+END; //
+DELIMITER ;
+
+DROP FUNCTION IF EXISTS `player_survived_wars_between`;
+DELIMITER //
+CREATE FUNCTION `player_survived_wars_between` (player_uuid BINARY(16), start INT, end INT) RETURNS INT
+BEGIN
+    RETURN (SELECT SUM(g.territory_log_id IS NOT NULL) FROM (SELECT war_log_id FROM `war_player` p WHERE p.`player_uuid` = player_uuid AND NOT p.`exited` AND p.`war_log_id` >= start AND p.`war_log_id` < end)
+        AS t LEFT JOIN guild_war_log g ON t.war_log_id = g.war_log_id);
+END; //
+DELIMITER ;
+
+DROP PROCEDURE IF EXISTS `populate_player_war_leaderboard`;
+DELIMITER //
+CREATE PROCEDURE `populate_player_war_leaderboard`()
+    BEGIN
+        DECLARE cursor_ID BINARY(16);
+        DECLARE cursor_NAME VARCHAR(30);
+        DECLARE done INT DEFAULT FALSE;
+        DECLARE cursor_i CURSOR FOR SELECT DISTINCT `player_uuid` FROM `war_player` WHERE `player_uuid` IS NOT NULL;
+        DECLARE CONTINUE HANDLER FOR NOT FOUND SET done = TRUE;
+        OPEN cursor_i;
+        read_loop: LOOP
+            FETCH cursor_i INTO cursor_ID;
+            SELECT `player_name` INTO cursor_NAME FROM `war_player` WHERE `player_uuid` = cursor_ID ORDER BY `war_log_id` DESC LIMIT 1;
+            IF done THEN
+                LEAVE read_loop;
+            END IF;
+            CALL update_player_war_leaderboard(cursor_ID, cursor_NAME);
+        END LOOP;
+        CLOSE cursor_i;
+    END; //
+DELIMITER ;
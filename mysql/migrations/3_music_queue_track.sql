@@ -0,0 +1,5 @@
+# Migration for databases created before `music_queue`.`track` was introduced.
+# Fresh databases get the same column from `mysql/init/1_create_tables.sql`.
+
+# base64 encoded track (AudioPlayerManager#encodeTrack), to restore without resolving the url
+ALTER TABLE `music_queue` ADD COLUMN IF NOT EXISTS `track` TEXT NULL AFTER `updated_at`;
@@ -6,13 +6,14 @@ import com.fasterxml.jackson.databind.ObjectMapper;
 import log.Logger;
 import utils.HttpUtils;
 import utils.UUID;
+import utils.cache.CacheSnapshot;
 import utils.cache.DataCache;
 import utils.cache.HashMapDataCache;
 import utils.rateLimit.RateLimiter;
 
 import javax.annotation.Nullable;
 import java.util.*;
-import java.util.concurrent.TimeUnit;
+import java.util.concurrent.*;
 import java.util.stream.Collectors;
 
 class CurrentUUIDs {
@@ -21,16 +22,48 @@ class CurrentUUIDs {
     private static final int NAME_TO_UUID_PLAYERS_PER_REQUEST = 10;
     private static final String NAME_TO_UUID_URL = "https://api.mojang.com/profiles/minecraft";
 
+    // Max chunk requests in flight, no more than the rate limiter allows at once
+    private static final int MAX_CONCURRENT_REQUESTS = 5;
+    private static final ExecutorService requestExecutor = Executors.newFixedThreadPool(MAX_CONCURRENT_REQUESTS, r -> {
+        Thread t = new Thread(r, "mojang-uuid-request");
+        t.setDaemon(true);
+        return t;
+    });
+
     private static final DataCache<String, NullableUUID> nameToUUIDCache = new HashMapDataCache<>(
             100, TimeUnit.MINUTES.toMillis(10), TimeUnit.MINUTES.toMillis(10)
     );
 
     private final RateLimiter rateLimiter;
     private final Logger logger;
+    private final String url;
 
     CurrentUUIDs(RateLimiter rateLimiter, Logger logger) {
+        this(rateLimiter, logger, NAME_TO_UUID_URL);
+    }
+
+    CurrentUUIDs(RateLimiter rateLimiter, Logger logger, String url) {
         this.rateLimiter = rateLimiter;
         this.logger = logger;
+        this.url = url;
+    }
+
+    /**
+     * Returns snapshot section of the name to UUID cache.
+     * @return Snapshot section.
+     */
+    static CacheSnapshot.Section getSnapshotSection() {
+        return CacheSnapshot.cacheSection("mojang-name-to-uuid", nameToUUIDCache,
+                (out, value) -> {
+                    UUID uuid = value.getUuid();
+                    out.writeBoolean(uuid != null);
+                    if (uuid != null) {
+                        out.writeLong(uuid.getMostSignificantBits());
+                        out.writeLong(uuid.getLeastSignificantBits());
+                    }
+                },
+                in -> new NullableUUID(in.readBoolean() ? new UUID(in.readLong(), in.readLong()) : null),
+                nameToUUIDCache::add);
     }
 
     @Nullable
@@ -61,7 +94,7 @@ class CurrentUUIDs {
                     "[%s]",
                     names.stream().map(n -> "\"" + n + "\"").collect(Collectors.joining(","))
             );
-            String data = HttpUtils.postJson(NAME_TO_UUID_URL, postBody);
+            String data = HttpUtils.postJson(this.url, postBody);
             long end = System.nanoTime();
 
             this.logger.debug(String.format("Mojang API: Requested names -> UUID for %s players, took %s ms",
@@ -92,6 +125,12 @@ class CurrentUUIDs {
         }
     }
 
+    /**
+     * Requests UUIDs of the names, sending chunk requests concurrently.
+     * Each chunk result is stored in the cache as soon as it completes.
+     * @param names Player names.
+     * @return Map of player names to UUIDs. null if something went wrong.
+     */
     @Nullable
     Map<String, NullableUUID> getUUIDsIterative(List<String> names) {
         Map<String, NullableUUID> ret = new HashMap<>();
@@ -109,18 +148,42 @@ class CurrentUUIDs {
             return ret;
         }
 
-        int count = ((namesToRequest.size() - 1) / 10) + 1;
+        int count = ((namesToRequest.size() - 1) / NAME_TO_UUID_PLAYERS_PER_REQUEST) + 1;
+        if (count == 1) {
+            Map<String, NullableUUID> res = getUUIDs(namesToRequest);
+            if (res == null) {
+                return null;
+            }
+            ret.putAll(res);
+            return ret;
+        }
+
+        List<Future<Map<String, NullableUUID>>> futures = new ArrayList<>(count);
         for (int i = 0; i < count; i++) {
             int start = i * NAME_TO_UUID_PLAYERS_PER_REQUEST;
             int end = Math.min((i + 1) * NAME_TO_UUID_PLAYERS_PER_REQUEST, namesToRequest.size());
+            List<String> chunk = namesToRequest.subList(start, end);
+            futures.add(requestExecutor.submit(() -> getUUIDs(chunk)));
+        }
 
-            Map<String, NullableUUID> res = getUUIDs(namesToRequest.subList(start, end));
-            if (res == null) {
-                return null;
+        boolean failed = false;
+        for (Future<Map<String, NullableUUID>> f : futures) {
+            if (failed) {
+                f.cancel(false);
+                continue;
+            }
+            try {
+                Map<String, NullableUUID> res = f.get();
+                if (res == null) {
+                    failed = true;
+                    continue;
+                }
+                ret.putAll(res);
+            } catch (InterruptedException | ExecutionException e) {
+                this.logger.logException("Something went wrong while requesting Mojang API", e);
+                failed = true;
             }
-
-            ret.putAll(res);
         }
-        return ret;
+        return failed ? null : ret;
     }
 }
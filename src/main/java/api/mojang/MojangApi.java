@@ -4,10 +4,12 @@ import api.mojang.structs.NameHistory;
 import api.mojang.structs.NullableUUID;
 import log.Logger;
 import utils.UUID;
+import utils.cache.CacheSnapshot;
 import utils.rateLimit.RateLimiter;
 import utils.rateLimit.WaitableRateLimiter;
 
 import javax.annotation.Nullable;
+import java.util.Arrays;
 import java.util.List;
 import java.util.Map;
 import java.util.concurrent.TimeUnit;
@@ -29,6 +31,18 @@ public class MojangApi {
         rateLimiter = new WaitableRateLimiter("Mojang", waitBetweenRequests, maxRequestStacks);
     }
 
+    /**
+     * Returns cache snapshot sections of the caches shared by all instances.
+     * @return Snapshot sections.
+     */
+    public static List<CacheSnapshot.Section> getSnapshotSections() {
+        return Arrays.asList(
+                CurrentUUIDs.getSnapshotSection(),
+                UsernameToUUID.getNameHistorySnapshotSection(),
+                UsernameToUUID.getUUIDToNameHistorySnapshotSection()
+        );
+    }
+
     // ----- API instance -----
 
     private final CurrentUUIDs currentUUIDs;
@@ -7,10 +7,14 @@ import log.Logger;
 import org.jetbrains.annotations.Nullable;
 import utils.HttpUtils;
 import utils.UUID;
+import utils.cache.CacheSnapshot;
 import utils.cache.DataCache;
 import utils.cache.HashMapDataCache;
 import utils.rateLimit.RateLimiter;
 
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
 import java.util.ArrayList;
 import java.util.List;
 import java.util.concurrent.TimeUnit;
@@ -33,6 +37,44 @@ class UsernameToUUID {
     private final RateLimiter rateLimiter;
     private final Logger logger;
 
+    /**
+     * Returns snapshot section of the username to name history cache.
+     * @return Snapshot section.
+     */
+    static CacheSnapshot.Section getNameHistorySnapshotSection() {
+        return CacheSnapshot.cacheSection("mojang-name-history", nameHistoryCache,
+                UsernameToUUID::writeNameHistory, UsernameToUUID::readNameHistory, nameHistoryCache::add);
+    }
+
+    /**
+     * Returns snapshot section of the UUID to name history cache.
+     * @return Snapshot section.
+     */
+    static CacheSnapshot.Section getUUIDToNameHistorySnapshotSection() {
+        return CacheSnapshot.cacheSection("mojang-uuid-to-name-history", uuidToNameHistoryCache,
+                UsernameToUUID::writeNameHistory, UsernameToUUID::readNameHistory, uuidToNameHistoryCache::add);
+    }
+
+    private static void writeNameHistory(DataOutputStream out, NameHistory history) throws IOException {
+        out.writeLong(history.getUuid().getMostSignificantBits());
+        out.writeLong(history.getUuid().getLeastSignificantBits());
+        out.writeInt(history.getHistory().size());
+        for (NameHistory.NameHistoryEntry entry : history.getHistory()) {
+            CacheSnapshot.writeString(out, entry.getUsername());
+            out.writeLong(entry.getChangedToAt());
+        }
+    }
+
+    private static NameHistory readNameHistory(DataInputStream in) throws IOException {
+        UUID uuid = new UUID(in.readLong(), in.readLong());
+        int size = in.readInt();
+        List<NameHistory.NameHistoryEntry> history = new ArrayList<>(size);
+        for (int i = 0; i < size; i++) {
+            history.add(new NameHistory.NameHistoryEntry(CacheSnapshot.readString(in), in.readLong()));
+        }
+        return new NameHistory(uuid, history);
+    }
+
     UsernameToUUID(RateLimiter rateLimiter, Logger logger) {
         this.rateLimiter = rateLimiter;
         this.logger = logger;
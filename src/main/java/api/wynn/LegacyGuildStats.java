@@ -6,17 +6,21 @@ import com.fasterxml.jackson.databind.ObjectMapper;
 import log.Logger;
 import org.jetbrains.annotations.Nullable;
 import utils.HttpUtils;
+import utils.cache.CacheSnapshot;
 import utils.cache.DataCache;
 import utils.cache.HashMapDataCache;
+import utils.cache.ParsedBody;
 import utils.rateLimit.RateLimitException;
 import utils.rateLimit.RateLimiter;
 
+import java.nio.charset.StandardCharsets;
 import java.util.concurrent.TimeUnit;
 
 class LegacyGuildStats {
     private static final String guildStatsPath = "/public_api.php?action=guildStats&command=%s";
     private static final ObjectMapper mapper = new ObjectMapper();
-    private static final DataCache<String, WynnGuild> guildStatsCache = new HashMapDataCache<>(
+    // guild stats with their raw UTF-8 bodies, null value if the guild was not found
+    private static final DataCache<String, ParsedBody<WynnGuild>> guildStatsCache = new HashMapDataCache<>(
             100, TimeUnit.MINUTES.toMillis(10), TimeUnit.MINUTES.toMillis(10)
     );
 
@@ -32,9 +36,9 @@ class LegacyGuildStats {
 
     @Nullable
     WynnGuild mustGetGuildStats(String guildName) {
-        WynnGuild guild;
+        ParsedBody<WynnGuild> guild;
         if ((guild = guildStatsCache.get(guildName)) != null) {
-            return guild;
+            return guild.getValue();
         }
 
         this.rateLimiter.stackUpRequest();
@@ -44,7 +48,8 @@ class LegacyGuildStats {
     @Nullable
     WynnGuild getGuildStats(String guildName) throws RateLimitException {
         if (guildStatsCache.exists(guildName)) {
-            return guildStatsCache.get(guildName);
+            ParsedBody<WynnGuild> guild = guildStatsCache.get(guildName);
+            return guild != null ? guild.getValue() : null;
         }
 
         this.rateLimiter.checkRequest();
@@ -73,7 +78,7 @@ class LegacyGuildStats {
             }
 
             WynnGuild guild = mapper.readValue(body, WynnGuild.class);
-            guildStatsCache.add(guildName, guild);
+            guildStatsCache.add(guildName, new ParsedBody<>(guild, body.getBytes(StandardCharsets.UTF_8)));
             return guild;
         } catch (Exception e) {
             this.logger.logException(String.format("an exception occurred while requesting / parsing guild stats for %s",
@@ -82,4 +87,19 @@ class LegacyGuildStats {
             return null;
         }
     }
+
+    /**
+     * Returns snapshot section of the guild stats cache.
+     * Raw bodies are stored, and parsed again on restore.
+     * @return Snapshot section.
+     */
+    static CacheSnapshot.Section getSnapshotSection() {
+        return CacheSnapshot.cacheSection("wynn-guild-stats", guildStatsCache,
+                (out, guild) -> CacheSnapshot.writeBytes(out, guild.getBody()),
+                in -> {
+                    byte[] body = CacheSnapshot.readBytes(in);
+                    return new ParsedBody<>(mapper.readValue(body, WynnGuild.class), body);
+                },
+                guildStatsCache::add);
+    }
 }
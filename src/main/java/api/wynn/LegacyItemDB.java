@@ -3,16 +3,46 @@ package api.wynn;
 import api.wynn.structs.ItemDB;
 import com.fasterxml.jackson.databind.ObjectMapper;
 import log.Logger;
+import org.jetbrains.annotations.NotNull;
 import org.jetbrains.annotations.Nullable;
+import org.jetbrains.annotations.TestOnly;
 import utils.HttpUtils;
+import utils.cache.CacheSnapshot;
 import utils.rateLimit.RateLimiter;
 
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+
+/**
+ * Holds the item DB, refreshed in the background by {@link #refresh()}.
+ * The last good copy is published through a volatile reference, so that readers never block once loaded.
+ */
 class LegacyItemDB {
     private static final String ITEM_DB_PATH = "/public_api.php?action=itemDB&category=all";
     private static final ObjectMapper mapper = new ObjectMapper();
 
+    /**
+     * Immutable pair of a loaded item DB and its raw body.
+     */
+    private static class LoadedItemDB {
+        private final ItemDB db;
+        // raw UTF-8 body, kept for the cache snapshot
+        private final byte[] body;
+        private final long loadedAt;
+
+        private LoadedItemDB(ItemDB db, byte[] body, long loadedAt) {
+            this.db = db;
+            this.body = body;
+            this.loadedAt = loadedAt;
+        }
+    }
+
+    // serializes downloads, so that concurrent first callers download only once
+    private static final Object loadLock = new Object();
     @Nullable
-    private static ItemDB cache;
+    private static volatile LoadedItemDB loaded;
 
     private final String baseURL;
     private final RateLimiter rateLimiter;
@@ -24,17 +54,50 @@ class LegacyItemDB {
         this.logger = logger;
     }
 
+    /**
+     * Returns the last loaded item DB, without blocking if it has been loaded.
+     * @param forceReload If {@code true}, requests the API again.
+     * @return Item DB. null if it has never been loaded successfully.
+     */
     @Nullable
     ItemDB mustGetItemDB(boolean forceReload) {
-        if (!forceReload && cache != null) {
-            return cache;
+        LoadedItemDB current = loaded;
+        if (forceReload) {
+            this.refresh();
+            current = loaded;
+        } else if (current == null) {
+            synchronized (loadLock) {
+                current = loaded;
+                if (current == null) {
+                    current = this.requestItemDB();
+                }
+            }
         }
+        return current != null ? current.db : null;
+    }
+
+    /**
+     * Forgets the loaded item DB, so that the next call loads it again.
+     */
+    @TestOnly
+    static void reset() {
+        synchronized (loadLock) {
+            loaded = null;
+        }
+    }
 
-        return requestItemDB();
+    /**
+     * Requests the item DB and publishes it. Keeps the last good copy on failure.
+     * @return {@code true} if success.
+     */
+    boolean refresh() {
+        synchronized (loadLock) {
+            return this.requestItemDB() != null;
+        }
     }
 
     @Nullable
-    private ItemDB requestItemDB() {
+    private LoadedItemDB requestItemDB() {
         this.rateLimiter.stackUpRequest();
 
         try {
@@ -45,14 +108,60 @@ class LegacyItemDB {
 
             if (body == null) throw new Exception("returned body was null");
 
-            ItemDB db = mapper.readValue(body, ItemDB.class);
-            if (db == null) throw new Exception("an exception occurred while parsing item list");
-
-            cache = db;
+            LoadedItemDB db = parse(body.getBytes(StandardCharsets.UTF_8), System.currentTimeMillis());
+            loaded = db;
             return db;
         } catch (Exception e) {
             this.logger.logException("an exception occurred while requesting / parsing item list", e);
             return null;
         }
     }
+
+    /**
+     * Parses item DB, and builds its search index before publishing.
+     */
+    private static LoadedItemDB parse(byte[] body, long loadedAt) throws IOException {
+        ItemDB db = mapper.readValue(body, ItemDB.class);
+        if (db == null) throw new IOException("an exception occurred while parsing item list");
+        db.getIndex();
+        return new LoadedItemDB(db, body, loadedAt);
+    }
+
+    /**
+     * Returns snapshot section of the item DB.
+     * Raw body is stored, and parsed again on restore.
+     * @return Snapshot section.
+     */
+    static CacheSnapshot.Section getSnapshotSection() {
+        return new CacheSnapshot.Section() {
+            @Override
+            public @NotNull String getName() {
+                return "wynn-item-db";
+            }
+
+            @Override
+            public void write(DataOutputStream out) throws IOException {
+                LoadedItemDB current = loaded;
+                out.writeBoolean(current != null);
+                if (current != null) {
+                    out.writeLong(current.loadedAt);
+                    CacheSnapshot.writeBytes(out, current.body);
+                }
+            }
+
+            @Override
+            public void read(DataInputStream in) throws IOException {
+                if (!in.readBoolean()) return;
+                long loadedAt = in.readLong();
+                LoadedItemDB db = parse(CacheSnapshot.readBytes(in), loadedAt);
+
+                synchronized (loadLock) {
+                    // do not overwrite the one retrieved after restart
+                    if (loaded == null) {
+                        loaded = db;
+                    }
+                }
+            }
+        };
+    }
 }
@@ -1,63 +1,75 @@
 package api.wynn;
 
 import api.wynn.structs.OnlinePlayers;
+import api.wynn.structs.OnlineSnapshot;
 import log.Logger;
 import org.jetbrains.annotations.NotNull;
-import utils.HttpUtils;
+import utils.ParsedResource;
+import utils.cache.CacheSnapshot;
 import utils.rateLimit.RateLimiter;
 
 import javax.annotation.Nullable;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.util.ArrayList;
 import java.util.HashMap;
 import java.util.List;
 import java.util.Map;
+import java.util.concurrent.atomic.AtomicLong;
 
 class LegacyPlayers {
     private static final String onlinePlayersPath = "/public_api.php?action=onlinePlayers";
 
-    // Caches for the find player method
-    private static final Object onlinePlayersCacheLock = new Object();
+    // Latest snapshot of online players, replaced as a whole after each fetch
+    private static final AtomicLong snapshotVersion = new AtomicLong();
     @Nullable
-    private static OnlinePlayers onlinePlayersCache;
-    @Nullable
-    private static Map<String, String> onlinePlayersMap;
+    private static volatile OnlineSnapshot onlineSnapshot;
 
-    private final String baseURL;
     private final RateLimiter rateLimiter;
     private final Logger logger;
+    // a new snapshot version is only issued when the response has changed
+    private final ParsedResource<OnlineSnapshot> onlinePlayers;
 
     LegacyPlayers(String baseURL, RateLimiter rateLimiter, Logger logger) {
-        this.baseURL = baseURL;
         this.rateLimiter = rateLimiter;
         this.logger = logger;
+        this.onlinePlayers = new ParsedResource<>(baseURL + onlinePlayersPath,
+                body -> new OnlineSnapshot(snapshotVersion.incrementAndGet(), new OnlinePlayers(body)),
+                // "request" holds the response timestamp, which changes on every response
+                body -> ParsedResource.fingerprintExcept(body, "request"));
     }
 
     @Nullable
-    synchronized OnlinePlayers mustGetOnlinePlayers() {
+    synchronized OnlineSnapshot mustGetOnlineSnapshot() {
         this.rateLimiter.stackUpRequest();
 
         try {
             long start = System.nanoTime();
-            String body = HttpUtils.get(this.baseURL + onlinePlayersPath);
+            OnlineSnapshot snapshot = this.onlinePlayers.get();
             long end = System.nanoTime();
-            this.logger.debug(String.format("Wynn API: Requested online players list, took %s ms.", (double) (end - start) / 1_000_000d));
-
-            if (body == null) throw new Exception("returned body was null");
-
-            OnlinePlayers onlinePlayers = new OnlinePlayers(body);
+            this.logger.debug(String.format("Wynn API: Requested online players list, took %s ms. (skipped parses: %s)",
+                    (double) (end - start) / 1_000_000d, this.onlinePlayers.getSkippedParses()));
 
-            // create cache of the response
-            synchronized (onlinePlayersCacheLock) {
-                onlinePlayersCache = onlinePlayers;
-                onlinePlayersMap = null;
-            }
+            // publish the snapshot for the find player methods
+            onlineSnapshot = snapshot;
 
-            return onlinePlayers;
+            return snapshot;
         } catch (Exception e) {
             this.logger.logException("an exception occurred while requesting / parsing online players", e);
             return null;
         }
     }
 
+    /**
+     * Returns the latest published online players snapshot.
+     * @return Snapshot. null if no online players have been retrieved yet.
+     */
+    @Nullable
+    OnlineSnapshot getOnlineSnapshot() {
+        return onlineSnapshot;
+    }
+
     /**
      * Finds the world in which player is logged.
      * @param playerName Player name.
@@ -65,22 +77,66 @@ class LegacyPlayers {
      */
     @Nullable
     String mustFindPlayer(@NotNull String playerName) {
-        if (onlinePlayersCache == null) {
+        OnlineSnapshot snapshot = onlineSnapshot;
+        if (snapshot == null) {
             throw new RuntimeException("The cache is null");
         }
+        return snapshot.findWorld(playerName);
+    }
+
+    /**
+     * Returns snapshot section of the latest online players snapshot.
+     * @return Snapshot section.
+     */
+    static CacheSnapshot.Section getSnapshotSection() {
+        return new CacheSnapshot.Section() {
+            @Override
+            public @NotNull String getName() {
+                return "wynn-online-players";
+            }
 
-        synchronized (onlinePlayersCacheLock) {
-            if (onlinePlayersMap == null) {
-                onlinePlayersMap = new HashMap<>();
-                for (Map.Entry<String, List<String>> entry : onlinePlayersCache.getWorlds().entrySet()) {
-                    String world = entry.getKey();
-                    for (String player : entry.getValue()) {
-                        onlinePlayersMap.put(player, world);
+            @Override
+            public void write(DataOutputStream out) throws IOException {
+                OnlineSnapshot snapshot = onlineSnapshot;
+                out.writeBoolean(snapshot != null);
+                if (snapshot == null) return;
+
+                out.writeLong(snapshot.getVersion());
+                out.writeLong(snapshot.getTimestamp());
+                out.writeInt(snapshot.getWorlds().size());
+                for (Map.Entry<String, List<String>> e : snapshot.getWorlds().entrySet()) {
+                    CacheSnapshot.writeString(out, e.getKey());
+                    out.writeInt(e.getValue().size());
+                    for (String player : e.getValue()) {
+                        CacheSnapshot.writeString(out, player);
                     }
                 }
             }
 
-            return onlinePlayersMap.getOrDefault(playerName, null);
-        }
+            @Override
+            public void read(DataInputStream in) throws IOException {
+                if (!in.readBoolean()) return;
+
+                long version = in.readLong();
+                long timestamp = in.readLong();
+                int worldCount = in.readInt();
+                Map<String, List<String>> worlds = new HashMap<>(worldCount);
+                for (int i = 0; i < worldCount; i++) {
+                    String world = CacheSnapshot.readString(in);
+                    int playerCount = in.readInt();
+                    List<String> players = new ArrayList<>(playerCount);
+                    for (int j = 0; j < playerCount; j++) {
+                        players.add(CacheSnapshot.readString(in));
+                    }
+                    worlds.put(world, players);
+                }
+
+                // do not overwrite the one retrieved after restart
+                if (onlineSnapshot == null) {
+                    snapshotVersion.set(version);
+                    onlineSnapshot = new OnlineSnapshot(version, timestamp, worlds);
+                }
+            }
+        };
     }
 }
@@ -2,7 +2,7 @@ package api.wynn;
 
 import api.wynn.structs.TerritoryList;
 import log.Logger;
-import utils.HttpUtils;
+import utils.ParsedResource;
 import utils.rateLimit.RateLimiter;
 
 import javax.annotation.Nullable;
@@ -10,28 +10,35 @@ import javax.annotation.Nullable;
 class LegacyTerritories {
     private static final String territoryListPath = "/public_api.php?action=territoryList";
 
-    private final String baseURL;
     private final RateLimiter rateLimiter;
     private final Logger logger;
+    // territory list does not change between wars, skips parsing when it is the same
+    private final ParsedResource<TerritoryList> territoryList;
 
     LegacyTerritories(String baseURL, RateLimiter rateLimiter, Logger logger) {
-        this.baseURL = baseURL;
         this.rateLimiter = rateLimiter;
         this.logger = logger;
+        // "request" holds the response timestamp, which changes on every response
+        this.territoryList = new ParsedResource<>(baseURL + territoryListPath, TerritoryList::new,
+                body -> ParsedResource.fingerprintExcept(body, "request"));
     }
 
+    /**
+     * Requests territory list.
+     * @return Territory list. The same instance as the last call if the list has not changed.
+     */
     @Nullable
     TerritoryList mustGetTerritoryList() {
         this.rateLimiter.stackUpRequest();
 
         try {
             long start = System.nanoTime();
-            String body = HttpUtils.get(this.baseURL + territoryListPath);
+            TerritoryList territoryList = this.territoryList.get();
             long end = System.nanoTime();
-            this.logger.debug(String.format("Wynn API: Requested territory list, took %s ms.", (double) (end - start) / 1_000_000d));
+            this.logger.debug(String.format("Wynn API: Requested territory list, took %s ms. (skipped parses: %s)",
+                    (double) (end - start) / 1_000_000d, this.territoryList.getSkippedParses()));
 
-            if (body == null) throw new Exception("returned body was null");
-            return new TerritoryList(body);
+            return territoryList;
         } catch (Exception e) {
             this.logger.logException("an exception occurred while requesting / parsing territory list", e);
             return null;
@@ -4,17 +4,21 @@ import api.wynn.structs.Player;
 import log.Logger;
 import utils.HttpUtils;
 import utils.StatusCodeException;
+import utils.cache.CacheSnapshot;
 import utils.cache.DataCache;
 import utils.cache.HashMapDataCache;
+import utils.cache.ParsedBody;
 import utils.rateLimit.RateLimitException;
 import utils.rateLimit.RateLimiter;
 
 import javax.annotation.Nullable;
+import java.nio.charset.StandardCharsets;
 import java.util.concurrent.TimeUnit;
 
 class V2PlayerStats {
     private static final String playerStatisticsUrl = "https://api.wynncraft.com/v2/player/%s/stats";
-    private static final DataCache<String, Player> playerStatsCache = new HashMapDataCache<>(
+    // player stats with their raw UTF-8 bodies
+    private static final DataCache<String, ParsedBody<Player>> playerStatsCache = new HashMapDataCache<>(
             100, TimeUnit.MINUTES.toMillis(10), TimeUnit.MINUTES.toMillis(10)
     );
     private static final int PLAYER_NOT_FOUND = 400;
@@ -29,9 +33,9 @@ class V2PlayerStats {
 
     @Nullable
     Player getPlayerStats(String playerName, boolean forceReload) throws RateLimitException {
-        Player player;
+        ParsedBody<Player> player;
         if ((player = playerStatsCache.get(playerName)) != null && !forceReload) {
-            return player;
+            return player.getValue();
         }
 
         this.rateLimiter.checkRequest();
@@ -40,9 +44,9 @@ class V2PlayerStats {
 
     @Nullable
     Player mustGetPlayerStatistics(String playerName, boolean forceReload) {
-        Player player;
+        ParsedBody<Player> player;
         if ((player = playerStatsCache.get(playerName)) != null && !forceReload) {
-            return player;
+            return player.getValue();
         }
 
         this.rateLimiter.stackUpRequest();
@@ -59,7 +63,7 @@ class V2PlayerStats {
             this.logger.debug(String.format("Wynn API: Requested player stats for %s, took %s ms.", playerName, (double) (end - start) / 1_000_000d));
 
             Player player = new Player(body);
-            playerStatsCache.add(playerName, player);
+            playerStatsCache.add(playerName, new ParsedBody<>(player, body.getBytes(StandardCharsets.UTF_8)));
             return player;
         } catch (StatusCodeException e) {
             if (e.getCode() == PLAYER_NOT_FOUND) {
@@ -74,4 +78,23 @@ class V2PlayerStats {
             return null;
         }
     }
+
+    /**
+     * Returns snapshot section of the player stats cache.
+     * Raw bodies are stored, and parsed again on restore.
+     * @return Snapshot section.
+     */
+    static CacheSnapshot.Section getSnapshotSection() {
+        return CacheSnapshot.cacheSection("wynn-player-stats", playerStatsCache,
+                (out, player) -> CacheSnapshot.writeBytes(out, player.getBody()),
+                in -> {
+                    byte[] body = CacheSnapshot.readBytes(in);
+                    return new ParsedBody<>(new Player(new String(body, StandardCharsets.UTF_8)), body);
+                },
+                (playerName, player, createdAt) -> {
+                    if (player != null) {
+                        playerStatsCache.add(playerName, player, createdAt);
+                    }
+                });
+    }
 }
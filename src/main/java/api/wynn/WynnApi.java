@@ -3,12 +3,15 @@ package api.wynn;
 import api.wynn.structs.*;
 import log.Logger;
 import org.jetbrains.annotations.NotNull;
+import utils.cache.CacheSnapshot;
 import utils.rateLimit.RateLimitException;
 import utils.rateLimit.RateLimiter;
 import utils.rateLimit.WaitableRateLimiter;
 
 import javax.annotation.CheckReturnValue;
 import javax.annotation.Nullable;
+import java.util.Arrays;
+import java.util.List;
 import java.util.concurrent.TimeUnit;
 
 public class WynnApi {
@@ -27,6 +30,19 @@ public class WynnApi {
         );
     }
 
+    /**
+     * Returns cache snapshot sections of the caches shared by all instances.
+     * @return Snapshot sections.
+     */
+    public static List<CacheSnapshot.Section> getSnapshotSections() {
+        return Arrays.asList(
+                LegacyPlayers.getSnapshotSection(),
+                LegacyGuildStats.getSnapshotSection(),
+                LegacyItemDB.getSnapshotSection(),
+                V2PlayerStats.getSnapshotSection()
+        );
+    }
+
     // ----- Legacy Routes -----
     private final LegacyPlayers legacyPlayers;
     private final LegacyTerritories legacyTerritories;
@@ -56,12 +72,22 @@ public class WynnApi {
     /**
      * GET https://api.wynncraft.com/public_api.php?action=onlinePlayers
      * <br>"must" as in it does not throw {@link RateLimitException}.
-     * @return Online players struct.
+     * Publishes the result as the latest online players snapshot.
+     * @return Online players snapshot.
      */
     @Nullable
     @CheckReturnValue
-    public synchronized OnlinePlayers mustGetOnlinePlayers() {
-        return this.legacyPlayers.mustGetOnlinePlayers();
+    public synchronized OnlineSnapshot mustGetOnlineSnapshot() {
+        return this.legacyPlayers.mustGetOnlineSnapshot();
+    }
+
+    /**
+     * Returns the latest published online players snapshot, without requesting the API.
+     * @return Online players snapshot. null if online players have not been retrieved yet.
+     */
+    @Nullable
+    public OnlineSnapshot getOnlineSnapshot() {
+        return this.legacyPlayers.getOnlineSnapshot();
     }
 
     /**
@@ -155,6 +181,7 @@ public class WynnApi {
 
     /**
      * Retrieves item list.
+     * Returns the last loaded copy without blocking, unless it has never been loaded.
      * @param forceReload If {@code true}, ignores internal cache and requests the API again.
      * @return Item DB.
      */
@@ -163,6 +190,15 @@ public class WynnApi {
         return this.legacyItemDB.mustGetItemDB(forceReload);
     }
 
+    /**
+     * GET https://api.wynncraft.com/public_api.php?action=itemDB&category=all
+     * <br>Requests item list and replaces the loaded copy. Keeps the last copy on failure.
+     * @return {@code true} if success.
+     */
+    public boolean refreshItemDB() {
+        return this.legacyItemDB.refresh();
+    }
+
     // ---- V2 Routes ----
 
     /**
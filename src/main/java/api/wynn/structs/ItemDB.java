@@ -1,6 +1,7 @@
 package api.wynn.structs;
 
 import api.wynn.structs.common.Request;
+import com.fasterxml.jackson.annotation.JsonIgnore;
 
 import java.util.List;
 
@@ -8,6 +9,9 @@ public class ItemDB {
     private List<Item> items;
     private Request request;
 
+    @JsonIgnore
+    private volatile ItemIndex index;
+
     public List<Item> getItems() {
         return items;
     }
@@ -15,4 +19,22 @@ public class ItemDB {
     public Request getRequest() {
         return request;
     }
+
+    /**
+     * Returns search index of the items. Built once on the first call.
+     * @return Item index.
+     */
+    public ItemIndex getIndex() {
+        ItemIndex index = this.index;
+        if (index == null) {
+            synchronized (this) {
+                index = this.index;
+                if (index == null) {
+                    index = new ItemIndex(this.items);
+                    this.index = index;
+                }
+            }
+        }
+        return index;
+    }
 }
@@ -0,0 +1,218 @@
+package api.wynn.structs;
+
+import org.jetbrains.annotations.NotNull;
+import org.jetbrains.annotations.Nullable;
+
+import java.util.*;
+
+/**
+ * Immutable search index over item names, to be built once per item DB.
+ * Supports exact, prefix and substring (trigram) lookup, case insensitive.
+ */
+public class ItemIndex {
+    private static final int GRAM = 3;
+
+    private final Item[] items;
+    // lower-cased item names, same order as items
+    private final String[] names;
+    // lower-cased name -> first item index with the name
+    private final Map<String, Integer> exact;
+    // item indices sorted by lower-cased names
+    private final int[] sorted;
+    // trigram -> ascending item indices containing it, open addressing
+    private final long[] gramKeys;
+    private final int[][] gramPostings;
+
+    public ItemIndex(@NotNull List<Item> items) {
+        int n = items.size();
+        this.items = items.toArray(new Item[0]);
+        this.names = new String[n];
+        this.exact = new HashMap<>();
+        for (int i = 0; i < n; i++) {
+            this.names[i] = this.items[i].getName().toLowerCase();
+            this.exact.putIfAbsent(this.names[i], i);
+        }
+
+        this.sorted = Arrays.stream(indices(n)).boxed()
+                .sorted(Comparator.comparing(i -> this.names[i]))
+                .mapToInt(i -> i).toArray();
+
+        Map<Long, List<Integer>> grams = new HashMap<>();
+        for (int i = 0; i < n; i++) {
+            String name = this.names[i];
+            for (int j = 0; j + GRAM <= name.length(); j++) {
+                List<Integer> postings = grams.computeIfAbsent(gram(name, j), k -> new ArrayList<>());
+                if (postings.isEmpty() || postings.get(postings.size() - 1) != i) {
+                    postings.add(i);
+                }
+            }
+        }
+        int capacity = Integer.highestOneBit(Math.max(grams.size(), 1) * 2) * 2;
+        this.gramKeys = new long[capacity];
+        Arrays.fill(this.gramKeys, -1L);
+        this.gramPostings = new int[capacity][];
+        for (Map.Entry<Long, List<Integer>> e : grams.entrySet()) {
+            int slot = slot(e.getKey());
+            while (this.gramKeys[slot] != -1L) {
+                slot = (slot + 1) & (capacity - 1);
+            }
+            this.gramKeys[slot] = e.getKey();
+            this.gramPostings[slot] = e.getValue().stream().mapToInt(i -> i).toArray();
+        }
+    }
+
+    private static int[] indices(int n) {
+        int[] ret = new int[n];
+        for (int i = 0; i < n; i++) {
+            ret[i] = i;
+        }
+        return ret;
+    }
+
+    private static long gram(String s, int start) {
+        return ((long) s.charAt(start) << 32) | ((long) s.charAt(start + 1) << 16) | s.charAt(start + 2);
+    }
+
+    private int slot(long key) {
+        long h = key * 0x9E3779B97F4A7C15L;
+        return (int) (h >>> 40) & (this.gramKeys.length - 1);
+    }
+
+    private int[] postings(long key) {
+        int slot = slot(key);
+        while (this.gramKeys[slot] != -1L) {
+            if (this.gramKeys[slot] == key) {
+                return this.gramPostings[slot];
+            }
+            slot = (slot + 1) & (this.gramKeys.length - 1);
+        }
+        return null;
+    }
+
+    /**
+     * Returns the item whose name exactly matches the input, case insensitive.
+     * @param input Item name.
+     * @return Item if found.
+     */
+    @Nullable
+    public Item exact(@NotNull String input) {
+        Integer i = this.exact.get(input.toLowerCase());
+        return i != null ? this.items[i] : null;
+    }
+
+    /**
+     * Searches items by name, the same way the item commands always did.
+     * If an exact match exists, returns only that item. Else, returns all prefix matches if any,
+     * or all substring matches.
+     * @param input Partial or full item name.
+     * @return Matched items.
+     */
+    @NotNull
+    public List<Item> search(@NotNull String input) {
+        String lower = input.toLowerCase();
+        Integer i = this.exact.get(lower);
+        if (i != null) {
+            return new ArrayList<>(Collections.singletonList(this.items[i]));
+        }
+        int[] prefix = prefixIndices(lower);
+        if (prefix.length > 0) {
+            return toItems(prefix);
+        }
+        return toItems(substringIndices(lower));
+    }
+
+    /**
+     * Returns candidates ranked exact match first, then prefix matches, then other substring matches.
+     * Used to list the closest items first when the input matched multiple items.
+     * @param input Partial or full item name.
+     * @param limit Max number of candidates to return.
+     * @return Ranked candidates.
+     */
+    @NotNull
+    public List<Item> candidates(@NotNull String input, int limit) {
+        String lower = input.toLowerCase();
+        Set<Integer> ranked = new LinkedHashSet<>();
+        Integer exactMatch = this.exact.get(lower);
+        if (exactMatch != null) {
+            ranked.add(exactMatch);
+        }
+        for (int i : prefixIndices(lower)) {
+            ranked.add(i);
+        }
+        for (int i : substringIndices(lower)) {
+            ranked.add(i);
+        }
+        List<Item> ret = new ArrayList<>(Math.min(ranked.size(), limit));
+        for (int i : ranked) {
+            if (ret.size() >= limit) break;
+            ret.add(this.items[i]);
+        }
+        return ret;
+    }
+
+    private int[] prefixIndices(String lower) {
+        // lower bound of the names >= lower
+        int left = 0, right = this.sorted.length;
+        while (left < right) {
+            int mid = (left + right) >>> 1;
+            if (this.names[this.sorted[mid]].compareTo(lower) < 0) {
+                left = mid + 1;
+            } else {
+                right = mid;
+            }
+        }
+        int end = left;
+        while (end < this.sorted.length && this.names[this.sorted[end]].startsWith(lower)) {
+            end++;
+        }
+        int[] ret = Arrays.copyOfRange(this.sorted, left, end);
+        Arrays.sort(ret);
+        return ret;
+    }
+
+    private int[] substringIndices(String lower) {
+        if (lower.length() < GRAM) {
+            return scan(lower);
+        }
+
+        // pick the rarest trigram of the input as candidates
+        int[] candidates = null;
+        for (int j = 0; j + GRAM <= lower.length(); j++) {
+            int[] postings = postings(gram(lower, j));
+            if (postings == null) {
+                return new int[0];
+            }
+            if (candidates == null || postings.length < candidates.length) {
+                candidates = postings;
+            }
+        }
+
+        int[] ret = new int[candidates.length];
+        int size = 0;
+        for (int i : candidates) {
+            if (this.names[i].contains(lower)) {
+                ret[size++] = i;
+            }
+        }
+        return Arrays.copyOf(ret, size);
+    }
+
+    private int[] scan(String lower) {
+        int[] ret = new int[this.names.length];
+        int size = 0;
+        for (int i = 0; i < this.names.length; i++) {
+            if (this.names[i].contains(lower)) {
+                ret[size++] = i;
+            }
+        }
+        return Arrays.copyOf(ret, size);
+    }
+
+    private List<Item> toItems(int[] indices) {
+        List<Item> ret = new ArrayList<>(indices.length);
+        for (int i : indices) {
+            ret.add(this.items[i]);
+        }
+        return ret;
+    }
+}
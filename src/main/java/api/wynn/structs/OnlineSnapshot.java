@@ -0,0 +1,88 @@
+package api.wynn.structs;
+
+import org.jetbrains.annotations.NotNull;
+import org.jetbrains.annotations.Nullable;
+
+import java.util.*;
+
+/**
+ * Immutable view of one online players response.
+ * Holds both world -> players and player -> world maps, so that readers can share O(1) lookups.
+ */
+public class OnlineSnapshot {
+    private final long version;
+    private final long timestamp;
+    private final Map<String, List<String>> worlds;
+    private final Map<String, String> playerWorlds;
+    private final int playerCount;
+
+    /**
+     * Builds a snapshot from the retrieved online players.
+     * @param version Version of this snapshot, incremented on each publish.
+     * @param onlinePlayers Retrieved online players.
+     */
+    public OnlineSnapshot(long version, @NotNull OnlinePlayers onlinePlayers) {
+        this(version, onlinePlayers.getRequest().getTimestamp(), onlinePlayers.getWorlds());
+    }
+
+    /**
+     * Builds a snapshot from world -> players map, such as one restored from a cache snapshot.
+     * @param version Version of this snapshot.
+     * @param timestamp Timestamp of the API response in seconds.
+     * @param onlineWorlds World name to online player names.
+     */
+    public OnlineSnapshot(long version, long timestamp, @NotNull Map<String, List<String>> onlineWorlds) {
+        this.version = version;
+        this.timestamp = timestamp;
+
+        Map<String, List<String>> worlds = new HashMap<>();
+        Map<String, String> playerWorlds = new HashMap<>();
+        int playerCount = 0;
+        for (Map.Entry<String, List<String>> entry : onlineWorlds.entrySet()) {
+            String world = entry.getKey();
+            List<String> players = entry.getValue();
+            worlds.put(world, Collections.unmodifiableList(new ArrayList<>(players)));
+            for (String player : players) {
+                playerWorlds.put(player, world);
+            }
+            playerCount += players.size();
+        }
+        this.worlds = Collections.unmodifiableMap(worlds);
+        this.playerWorlds = Collections.unmodifiableMap(playerWorlds);
+        this.playerCount = playerCount;
+    }
+
+    public long getVersion() {
+        return version;
+    }
+
+    /**
+     * Returns the timestamp of the API response.
+     * @return Timestamp in seconds.
+     */
+    public long getTimestamp() {
+        return timestamp;
+    }
+
+    /**
+     * Returns an unmodifiable map of world name to online player names.
+     * @return Worlds.
+     */
+    public Map<String, List<String>> getWorlds() {
+        return worlds;
+    }
+
+    public int getPlayerCount() {
+        return playerCount;
+    }
+
+    /**
+     * Finds the world in which player is logged.
+     * @param playerName Player name.
+     * @return World name. null if the player was not online.
+     */
+    @Nullable
+    public String findWorld(@NotNull String playerName) {
+        return this.playerWorlds.get(playerName);
+    }
+}
@@ -1,7 +1,10 @@
 package app;
 
+import api.mojang.MojangApi;
+import api.wynn.WynnApi;
 import db.Database;
-import db.model.world.World;
+import db.WorldCache;
+import db.model.world.WorldSnapshot;
 import db.repository.mariadb.DatabaseMariaImpl;
 import heartbeat.HeartBeat;
 import log.ConsoleLogger;
@@ -18,9 +21,12 @@ import update.UpdaterFactory;
 import update.reaction.ReactionManager;
 import update.response.ResponseManager;
 import utils.FormatUtils;
+import utils.HttpUtils;
 import utils.StoppableThread;
+import utils.cache.CacheSnapshot;
 
 import javax.security.auth.login.LoginException;
+import java.nio.file.Paths;
 import java.util.Date;
 import java.util.List;
 
@@ -37,6 +43,10 @@ public class App implements Runnable, Bot {
 
     private final ResponseManager responseManager;
 
+    private final CacheSnapshot cacheSnapshot;
+
+    private final WorldCache worldCache;
+
     private final StoppableThread heartBeat;
 
     private final boolean[] connected;
@@ -71,6 +81,16 @@ public class App implements Runnable, Bot {
         return this.responseManager;
     }
 
+    @Override
+    public CacheSnapshot getCacheSnapshot() {
+        return this.cacheSnapshot;
+    }
+
+    @Override
+    public WorldCache getWorldCache() {
+        return this.worldCache;
+    }
+
     @Override
     public int getShardId(JDA jda) {
         List<JDA> shards = this.manager.getShards();
@@ -121,6 +141,7 @@ public class App implements Runnable, Bot {
     public App(Properties properties, UpdaterFactory updaterFactory) throws LoginException {
         this.properties = properties;
         this.logger = new ConsoleLogger(this.properties.logTimeZone);
+        HttpUtils.configure(this.properties.httpConfig);
         this.reactionManager = updaterFactory.getReactionManager();
         this.responseManager = updaterFactory.getResponseManager();
         this.connected = new boolean[this.properties.shards];
@@ -144,6 +165,13 @@ public class App implements Runnable, Bot {
         this.logger = new DiscordLogger(this, this.properties.logTimeZone);
 
         this.database = new DatabaseMariaImpl(this.logger);
+        this.worldCache = new WorldCache(this.database.getWorldRepository());
+
+        // Warm up API caches before starting trackers
+        this.cacheSnapshot = new CacheSnapshot(Paths.get(this.properties.cacheSnapshotPath), this.logger);
+        WynnApi.getSnapshotSections().forEach(this.cacheSnapshot::register);
+        MojangApi.getSnapshotSections().forEach(this.cacheSnapshot::register);
+        this.cacheSnapshot.load();
 
         this.heartBeat = new HeartBeat(this);
         this.heartBeat.setName("moto-bot heartbeat");
@@ -175,12 +203,12 @@ public class App implements Runnable, Bot {
     }
 
     private void sendReadyMessage() {
-        List<World> worlds = this.database.getWorldRepository().findAll();
+        WorldSnapshot worlds = this.worldCache.get();
+        Date lastPlayerTracker = worlds != null ? worlds.getUpdatedAt() : null;
         String downtime;
-        if (worlds == null || worlds.size() == 0) {
+        if (lastPlayerTracker == null) {
             downtime = "(Failed to retrieve downtime)";
         } else {
-            Date lastPlayerTracker = worlds.get(0).getUpdatedAt();
             long seconds = (new Date().getTime() - lastPlayerTracker.getTime()) / 1000L;
             downtime = FormatUtils.formatReadableTime(seconds, false, "s");
         }
@@ -208,7 +236,13 @@ public class App implements Runnable, Bot {
 
     public void onShutDown() {
         this.logger.log(0, "Bot shutting down...");
+        Logger prevLogger = this.logger;
         this.logger = new ConsoleLogger(this.properties.logTimeZone);
+        if (prevLogger instanceof DiscordLogger) {
+            // write remaining logs
+            ((DiscordLogger) prevLogger).close();
+        }
         this.heartBeat.terminate();
+        this.cacheSnapshot.save();
     }
 }
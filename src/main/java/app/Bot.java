@@ -1,11 +1,13 @@
 package app;
 
 import db.Database;
+import db.WorldCache;
 import log.Logger;
 import net.dv8tion.jda.api.JDA;
 import net.dv8tion.jda.api.sharding.ShardManager;
 import update.reaction.ReactionManager;
 import update.response.ResponseManager;
+import utils.cache.CacheSnapshot;
 
 public interface Bot {
     ShardManager getManager();
@@ -14,6 +16,8 @@ public interface Bot {
     Logger getLogger();
     ReactionManager getReactionManager();
     ResponseManager getResponseManager();
+    CacheSnapshot getCacheSnapshot();
+    WorldCache getWorldCache();
 
     int getShardId(JDA jda);
     void setConnected(int shardId, boolean connected);
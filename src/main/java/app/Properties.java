@@ -1,11 +1,14 @@
 package app;
 
+import utils.HttpUtils;
+
 import java.awt.*;
 import java.io.IOException;
 import java.util.Date;
 import java.util.HashMap;
 import java.util.Map;
 import java.util.TimeZone;
+import java.util.concurrent.TimeUnit;
 
 public class Properties {
     private final java.util.Properties properties;
@@ -35,6 +38,10 @@ public class Properties {
 
     final TimeZone logTimeZone;
 
+    final String cacheSnapshotPath;
+
+    final HttpUtils.Config httpConfig;
+
     public Properties() throws IOException {
         this.properties = new java.util.Properties();
         this.properties.load(this.getClass().getClassLoader().getResourceAsStream("project.properties"));
@@ -72,6 +79,36 @@ public class Properties {
         this.guildBannerUrl = getProperty("guildBannerUrl");
 
         this.logTimeZone = TimeZone.getTimeZone(getProperty("logTimeZone"));
+
+        this.cacheSnapshotPath = getProperty("cacheSnapshotPath");
+
+        this.httpConfig = new HttpUtils.Config(
+                getPropertyInt("httpMaxConnectionsPerHost"),
+                getPropertyInt("httpMaxConnectionsTotal"),
+                parseHostMaxConnections(getProperty("httpHostMaxConnections")),
+                getPropertyInt("httpConnectTimeoutMillis"),
+                getPropertyInt("httpSocketTimeoutMillis"),
+                getPropertyInt("httpConnectionRequestTimeoutMillis"),
+                TimeUnit.SECONDS.toMillis(getPropertyInt("httpIdleConnectionTimeoutSeconds")),
+                TimeUnit.SECONDS.toMillis(getPropertyInt("httpKeepAliveSeconds"))
+        );
+    }
+
+    /**
+     * Parses per-host connection limits, in the format of "host1:max1,host2:max2".
+     * @param value Property value.
+     * @return Map from host name to max connections.
+     */
+    private static Map<String, Integer> parseHostMaxConnections(String value) {
+        Map<String, Integer> ret = new HashMap<>();
+        if (value == null || value.isEmpty()) {
+            return ret;
+        }
+        for (String entry : value.split(",")) {
+            String[] split = entry.trim().split(":");
+            ret.put(split[0], Integer.parseInt(split[1]));
+        }
+        return ret;
     }
 
     private String getEnv(String name) {
@@ -3,6 +3,7 @@ package commands;
 import api.wynn.WynnApi;
 import api.wynn.structs.Item;
 import api.wynn.structs.ItemDB;
+import api.wynn.structs.ItemIndex;
 import app.Bot;
 import commands.base.GenericCommand;
 import net.dv8tion.jda.api.EmbedBuilder;
@@ -85,15 +86,18 @@ public class IdentifyItem extends GenericCommand {
         ArgumentParser parser = new ArgumentParser(Arrays.copyOfRange(args, 1, args.length));
 
         String input = parser.getNormalArgument();
-        List<Item> matched = searchItem(input, db.getItems());
+        ItemIndex index = db.getIndex();
+        List<Item> matched = index.search(input);
 
         if (matched.size() == 0) {
             respond(event, String.format("No items matched with input `%s`.", input));
             return;
         } else if (matched.size() > 1) {
+            // list prefix matches first, then the other items containing the input
+            List<Item> candidates = index.candidates(input, Integer.MAX_VALUE);
             respond(event, String.format("Multiple items (%s items) matched with input `%s`.\nMatched items: %s",
-                    matched.size(), input,
-                    matched.stream().limit(50).map(i -> "`" + i.getName() + "`")
+                    candidates.size(), input,
+                    candidates.stream().limit(50).map(i -> "`" + i.getName() + "`")
                             .collect(Collectors.joining(", "))));
             return;
         }
@@ -3,6 +3,7 @@ package commands;
 import api.wynn.WynnApi;
 import api.wynn.structs.Item;
 import api.wynn.structs.ItemDB;
+import api.wynn.structs.ItemIndex;
 import app.Bot;
 import commands.base.GenericCommand;
 import net.dv8tion.jda.api.EmbedBuilder;
@@ -73,15 +74,18 @@ public class ItemView extends GenericCommand {
         }
 
         String input = String.join(" ", Arrays.copyOfRange(args, 1, args.length));
-        List<Item> matched = searchItem(input, db.getItems());
+        ItemIndex index = db.getIndex();
+        List<Item> matched = index.search(input);
 
         if (matched.size() == 0) {
             respond(event, String.format("No items matched with input `%s`.", input));
             return;
         } else if (matched.size() > 1) {
+            // list prefix matches first, then the other items containing the input
+            List<Item> candidates = index.candidates(input, Integer.MAX_VALUE);
             respond(event, String.format("Multiple items (%s items) matched with input `%s`.\nMatched items: %s",
-                    matched.size(), input,
-                    matched.stream().limit(50).map(i -> "`" + i.getName() + "`")
+                    candidates.size(), input,
+                    candidates.stream().limit(50).map(i -> "`" + i.getName() + "`")
                             .collect(Collectors.joining(", "))));
             return;
         }
@@ -91,38 +95,6 @@ public class ItemView extends GenericCommand {
         respond(event, formatItemInfo(item, this.imageURLBase));
     }
 
-    static List<Item> searchItem(String input, List<Item> items) {
-        // case insensitive search
-        input = input.toLowerCase();
-
-        List<Item> prefixMatch = new ArrayList<>();
-        List<Item> partialMatch = new ArrayList<>();
-        for (Item item : items) {
-            String itemName = item.getName().toLowerCase();
-            // Exact match
-            if (input.equals(itemName)) {
-                return new ArrayList<>(Collections.singletonList(item));
-            }
-            // Prefix match
-            if (itemName.startsWith(input)) {
-                prefixMatch.add(item);
-                partialMatch.add(item);
-            } else if (itemName.contains(input)) {
-                // Partial match
-                partialMatch.add(item);
-            }
-        }
-
-        if (prefixMatch.size() == 1) {
-            return prefixMatch;
-        }
-        if (prefixMatch.size() > 1) {
-            return prefixMatch;
-        }
-        // No prefix match
-        return partialMatch;
-    }
-
     private static Message formatItemInfo(Item item, String imageURLBase) {
         return new MessageBuilder(
                 "```ml\n" +
@@ -76,10 +76,8 @@ public class NameHistoryCmd extends GenericCommand {
         }
 
         String playerName = args[1];
-        UUID uuid;
-        if (UUID.isUUID(playerName)) {
-            uuid = new UUID(playerName);
-        } else {
+        UUID uuid = UUID.parse(playerName);
+        if (uuid == null) {
             uuid = this.mojangApi.mustGetUUIDAtTime(playerName, System.currentTimeMillis());
             if (uuid == null) {
                 respond(event, String.format("Failed to retrieve player UUID for `%s`. " +
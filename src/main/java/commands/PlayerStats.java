@@ -85,15 +85,16 @@ public class PlayerStats extends GenericCommand {
         }
 
         String specified = args[1];
-        if (!UUID.isUUID(specified) && !InputChecker.isValidMinecraftUsername(specified)) {
+        UUID uuid = UUID.parse(specified);
+        if (uuid == null && !InputChecker.isValidMinecraftUsername(specified)) {
             respond(event, String.format("Given name `%s` doesn't seem to be a valid Minecraft username or a UUID...",
                             specified));
             return;
         }
 
-        if (UUID.isUUID(specified)) {
+        if (uuid != null) {
             // Wynncraft API only accepts UUIDs with hyphens
-            specified = new UUID(specified).toStringWithHyphens();
+            specified = uuid.toStringWithHyphens();
         }
 
         Player player;
@@ -2,11 +2,12 @@ package commands;
 
 import app.Bot;
 import commands.base.GenericCommand;
+import db.WorldCache;
 import db.model.timezone.CustomTimeZone;
 import db.model.world.World;
+import db.model.world.WorldSnapshot;
 import db.repository.base.DateFormatRepository;
 import db.repository.base.TimeZoneRepository;
-import db.repository.base.WorldRepository;
 import net.dv8tion.jda.api.EmbedBuilder;
 import net.dv8tion.jda.api.MessageBuilder;
 import net.dv8tion.jda.api.entities.Message;
@@ -33,14 +34,14 @@ public class ServerList extends GenericCommand {
     private static final int WORLDS_PER_PAGE_DEFAULT = 20;
     private static final int WORLDS_PER_PAGE_MAX = 50;
 
-    private final WorldRepository repo;
+    private final WorldCache worldCache;
     private final ReactionManager reactionManager;
 
     private final TimeZoneRepository timeZoneRepository;
     private final DateFormatRepository dateFormatRepository;
 
     public ServerList(Bot bot) {
-        this.repo = bot.getDatabase().getWorldRepository();
+        this.worldCache = bot.getWorldCache();
         this.reactionManager = bot.getReactionManager();
         this.timeZoneRepository = bot.getDatabase().getTimeZoneRepository();
         this.dateFormatRepository = bot.getDatabase().getDateFormatRepository();
@@ -95,14 +96,14 @@ public class ServerList extends GenericCommand {
      */
     @Nullable
     private List<World> getWorlds(boolean getAll) {
+        WorldSnapshot snapshot = this.worldCache.get();
+        if (snapshot == null) {
+            return null;
+        }
         if (getAll) {
-            List<World> allWorlds = repo.findAll();
-            if (allWorlds == null) {
-                return null;
-            }
-            return allWorlds.stream().filter(w -> !w.getName().startsWith("WAR")).collect(Collectors.toList());
+            return snapshot.getWorlds().stream().filter(w -> !WorldSnapshot.isWarWorld(w.getName())).collect(Collectors.toList());
         }
-        return repo.findAllMainWorlds();
+        return new ArrayList<>(snapshot.getMainWorlds());
     }
 
     @Override
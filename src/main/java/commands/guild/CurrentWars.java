@@ -2,14 +2,15 @@ package commands.guild;
 
 import app.Bot;
 import commands.base.GenericCommand;
+import db.WorldCache;
 import db.model.dateFormat.CustomDateFormat;
 import db.model.timezone.CustomTimeZone;
 import db.model.warLog.WarLog;
 import db.model.world.World;
+import db.model.world.WorldSnapshot;
 import db.repository.base.DateFormatRepository;
 import db.repository.base.TimeZoneRepository;
 import db.repository.base.WarLogRepository;
-import db.repository.base.WorldRepository;
 import net.dv8tion.jda.api.EmbedBuilder;
 import net.dv8tion.jda.api.MessageBuilder;
 import net.dv8tion.jda.api.entities.Message;
@@ -30,7 +31,7 @@ import static utils.TableFormatter.Justify.Left;
 import static utils.TableFormatter.Justify.Right;
 
 public class CurrentWars extends GenericCommand {
-    private final WorldRepository worldRepository;
+    private final WorldCache worldCache;
     private final WarLogRepository warLogRepository;
 
     private final TimeZoneRepository timeZoneRepository;
@@ -39,7 +40,7 @@ public class CurrentWars extends GenericCommand {
     private final ReactionManager reactionManager;
 
     public CurrentWars(Bot bot) {
-        this.worldRepository = bot.getDatabase().getWorldRepository();
+        this.worldCache = bot.getWorldCache();
         this.warLogRepository = bot.getDatabase().getWarLogRepository();
         this.timeZoneRepository = bot.getDatabase().getTimeZoneRepository();
         this.dateFormatRepository = bot.getDatabase().getDateFormatRepository();
@@ -79,15 +80,15 @@ public class CurrentWars extends GenericCommand {
     @Override
     public void process(@NotNull MessageReceivedEvent event, @NotNull String[] args) {
         List<WarLog> wars = this.warLogRepository.findAllNotEnded();
-        List<World> notYetStartedWars = this.worldRepository.findAllWarWorlds();
+        WorldSnapshot worlds = this.worldCache.get();
 
-        if (wars == null || notYetStartedWars == null) {
+        if (wars == null || worlds == null) {
             respondError(event, "Something went wrong while retrieving data...");
             return;
         }
 
         Set<String> startedWars = wars.stream().map(WarLog::getServerName).collect(Collectors.toSet());
-        notYetStartedWars = notYetStartedWars.stream().filter(w -> !startedWars.contains(w.getName())).collect(Collectors.toList());
+        List<World> notYetStartedWars = worlds.getWarWorlds().stream().filter(w -> !startedWars.contains(w.getName())).collect(Collectors.toList());
 
         if (wars.isEmpty() && notYetStartedWars.isEmpty()) {
             respond(event, "There doesn't seem to be any guild wars going on.");
@@ -129,10 +129,18 @@ public class GainedXpRank extends GenericCommand {
 
         xpLeaderboard.sort(Comparator.comparingLong(GuildXpLeaderboard::getXpDiff).reversed());
 
+        Map<String, Integer> territories = this.territoryRepository.countGuildTerritories(
+                xpLeaderboard.stream().map(GuildXpLeaderboard::getName).collect(Collectors.toList())
+        );
+        if (territories == null) {
+            respondError(event, "Something went wrong while retrieving data...");
+            return;
+        }
+
         CustomDateFormat customDateFormat = this.dateFormatRepository.getDateFormat(event);
         CustomTimeZone customTimeZone = this.timeZoneRepository.getTimeZone(event);
 
-        Function<Integer, Message> pageSupplier = page -> getPage(page, xpLeaderboard, customDateFormat, customTimeZone);
+        Function<Integer, Message> pageSupplier = page -> getPage(page, xpLeaderboard, territories, customDateFormat, customTimeZone);
         if (maxPage(xpLeaderboard) == 0) {
             respond(event, pageSupplier.apply(0));
             return;
@@ -171,7 +179,7 @@ public class GainedXpRank extends GenericCommand {
         }
     }
 
-    private List<Display> createDisplays(List<GuildXpLeaderboard> leaderboard) {
+    private static List<Display> createDisplays(List<GuildXpLeaderboard> leaderboard, Map<String, Integer> territories) {
         List<Display> displays = new ArrayList<>();
         for (int i = 0; i < leaderboard.size(); i++) {
             GuildXpLeaderboard g = leaderboard.get(i);
@@ -181,17 +189,18 @@ public class GainedXpRank extends GenericCommand {
                     g.getLevel(),
                     FormatUtils.truncateNumber(new BigDecimal(g.getXp())),
                     FormatUtils.truncateNumber(new BigDecimal(g.getXpDiff())),
-                    this.territoryRepository.countGuildTerritories(g.getName())
+                    territories.getOrDefault(g.getName(), 0)
             ));
         }
         return displays;
     }
 
-    private Message getPage(int page,
-                            @NotNull List<GuildXpLeaderboard> leaderboard,
-                            @NotNull CustomDateFormat customDateFormat,
-                            @NotNull CustomTimeZone customTimeZone) {
-        List<Display> displays = createDisplays(leaderboard);
+    private static Message getPage(int page,
+                                   @NotNull List<GuildXpLeaderboard> leaderboard,
+                                   @NotNull Map<String, Integer> territories,
+                                   @NotNull CustomDateFormat customDateFormat,
+                                   @NotNull CustomTimeZone customTimeZone) {
+        List<Display> displays = createDisplays(leaderboard, territories);
 
         long total = leaderboard.stream().mapToLong(GuildXpLeaderboard::getXpDiff).sum();
         String totalGained = FormatUtils.truncateNumber(new BigDecimal(total));
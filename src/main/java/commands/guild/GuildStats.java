@@ -1,21 +1,24 @@
 package commands.guild;
 
 import api.wynn.WynnApi;
+import api.wynn.structs.OnlineSnapshot;
 import api.wynn.structs.WynnGuild;
 import app.Bot;
 import commands.base.GenericCommand;
+import db.WorldCache;
 import db.model.dateFormat.CustomDateFormat;
 import db.model.guildLeaderboard.GuildLeaderboard;
 import db.model.guildLeaderboard.GuildLeaderboardId;
 import db.model.guildXpLeaderboard.GuildXpLeaderboard;
 import db.model.timezone.CustomTimeZone;
-import db.model.world.World;
+import db.model.world.WorldSnapshot;
 import db.repository.base.*;
 import net.dv8tion.jda.api.EmbedBuilder;
 import net.dv8tion.jda.api.MessageBuilder;
 import net.dv8tion.jda.api.entities.Message;
 import net.dv8tion.jda.api.events.message.MessageReceivedEvent;
 import org.jetbrains.annotations.NotNull;
+import org.jetbrains.annotations.Nullable;
 import update.multipage.MultipageHandler;
 import update.reaction.ReactionManager;
 import utils.FormatUtils;
@@ -93,7 +96,7 @@ public class GuildStats extends GenericCommand {
         private final GuildNameResolver guildNameResolver;
         private final DateFormatRepository dateFormatRepository;
         private final TimeZoneRepository timeZoneRepository;
-        private final WorldRepository worldRepository;
+        private final WorldCache worldCache;
         private final TerritoryRepository territoryRepository;
         private final GuildLeaderboardRepository guildLeaderboardRepository;
         private final GuildXpLeaderboardRepository guildXpLeaderboardRepository;
@@ -108,7 +111,7 @@ public class GuildStats extends GenericCommand {
             );
             this.dateFormatRepository = bot.getDatabase().getDateFormatRepository();
             this.timeZoneRepository = bot.getDatabase().getTimeZoneRepository();
-            this.worldRepository = bot.getDatabase().getWorldRepository();
+            this.worldCache = bot.getWorldCache();
             this.territoryRepository = bot.getDatabase().getTerritoryRepository();
             this.guildLeaderboardRepository = bot.getDatabase().getGuildLeaderboardRepository();
             this.guildXpLeaderboardRepository = bot.getDatabase().getGuildXpLeaderboardRepository();
@@ -330,14 +333,22 @@ public class GuildStats extends GenericCommand {
             );
         }
 
+        /**
+         * Finds the world in which player is logged, from the given snapshot.
+         * @param online Online players snapshot, possibly not retrieved yet.
+         * @param playerName Player name.
+         * @return World name. null if the player was not online, or the snapshot is null.
+         */
+        @Nullable
+        private static String findWorld(@Nullable OnlineSnapshot online, @NotNull String playerName) {
+            return online != null ? online.findWorld(playerName) : null;
+        }
+
         @NotNull
         private Date getLastOnlinePlayerUpdate() {
-            List<World> worlds = this.worldRepository.findAll();
-            if (worlds == null || worlds.size() == 0) {
-                return new Date();
-            } else {
-                return worlds.get(0).getUpdatedAt();
-            }
+            WorldSnapshot worlds = this.worldCache.get();
+            Date updatedAt = worlds != null ? worlds.getUpdatedAt() : null;
+            return updatedAt != null ? updatedAt : new Date();
         }
 
         private void getFirstPage(@NotNull StringBuilder sb,
@@ -348,8 +359,9 @@ public class GuildStats extends GenericCommand {
             sb.append("\n");
             sb.append("Owner: ").append(guild.getOwnerName()).append("\n");
 
+            OnlineSnapshot online = this.wynnApi.getOnlineSnapshot();
             long onlineMembers = guild.getMembers().stream()
-                    .filter(m -> this.wynnApi.findPlayer(m.getName()) != null).count();
+                    .filter(m -> findWorld(online, m.getName()) != null).count();
             sb.append(String.format(
                     "Members: %s (Online: %s)\n",
                     guild.getMembers().size(),
@@ -386,8 +398,9 @@ public class GuildStats extends GenericCommand {
                 }
             }
 
+            OnlineSnapshot online = this.wynnApi.getOnlineSnapshot();
             List<Member> onlineMembers = guild.getMembers().stream()
-                    .map(m -> new Member(m.getName(), Rank.valueOf(m.getRank()), this.wynnApi.findPlayer(m.getName())))
+                    .map(m -> new Member(m.getName(), Rank.valueOf(m.getRank()), findWorld(online, m.getName())))
                     .filter(m -> m.server != null)
                     .sorted((m1, m2) -> m2.rank.rank - m1.rank.rank).collect(Collectors.toList());
 
@@ -425,9 +438,10 @@ public class GuildStats extends GenericCommand {
                     this.server = server;
                 }
             }
+            OnlineSnapshot online = this.wynnApi.getOnlineSnapshot();
             List<Member> members = guild.getMembers().stream()
                     .filter(m -> m.getRank().equals(rank.name()))
-                    .map(m -> new Member(m.getName(), this.wynnApi.findPlayer(m.getName())))
+                    .map(m -> new Member(m.getName(), findWorld(online, m.getName())))
                     .sorted(Comparator.comparing(m -> m.name))
                     .collect(Collectors.toList());
 
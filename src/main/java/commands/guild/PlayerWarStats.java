@@ -138,10 +138,9 @@ public class PlayerWarStats extends GenericCommand {
         }
 
         String specified = args[2];
-        UUID uuid;
+        UUID uuid = UUID.parse(specified);
         String playerName;
-        if (UUID.isUUID(specified)) {
-            uuid = new UUID(specified);
+        if (uuid != null) {
             playerName = null;
         } else {
             playerName = specified;
@@ -0,0 +1,56 @@
+package db;
+
+import db.model.world.World;
+import db.model.world.WorldSnapshot;
+import db.repository.base.WorldRepository;
+import org.jetbrains.annotations.NotNull;
+import org.jetbrains.annotations.Nullable;
+
+import java.util.List;
+
+/**
+ * Holds the latest world snapshot published by the player tracker.
+ * Readers use the snapshot instead of querying the world table,
+ * which is only kept to persist the worlds across restarts.
+ */
+public class WorldCache {
+    private final WorldRepository worldRepository;
+
+    @Nullable
+    private volatile WorldSnapshot snapshot;
+
+    public WorldCache(WorldRepository worldRepository) {
+        this.worldRepository = worldRepository;
+    }
+
+    /**
+     * Returns the latest snapshot.
+     * Loads the worlds stored in the DB if nothing has been published since the start.
+     * @return Latest snapshot. null if something went wrong while loading from the DB.
+     */
+    @Nullable
+    public WorldSnapshot get() {
+        WorldSnapshot snapshot = this.snapshot;
+        if (snapshot != null) {
+            return snapshot;
+        }
+        synchronized (this) {
+            if (this.snapshot == null) {
+                List<World> worlds = this.worldRepository.findAll();
+                if (worlds == null) {
+                    return null;
+                }
+                this.snapshot = new WorldSnapshot(worlds);
+            }
+            return this.snapshot;
+        }
+    }
+
+    /**
+     * Replaces the snapshot with the newly retrieved one.
+     * @param snapshot New snapshot.
+     */
+    public synchronized void publish(@NotNull WorldSnapshot snapshot) {
+        this.snapshot = snapshot;
+    }
+}
@@ -2,37 +2,91 @@ package db.model.dateFormat;
 
 import java.text.DateFormat;
 import java.text.SimpleDateFormat;
+import java.time.Instant;
+import java.time.ZoneId;
+import java.time.format.DateTimeFormatter;
+import java.util.Date;
+import java.util.TimeZone;
 
 public enum CustomFormat {
     TWELVE_HOUR(
             "12h",
-            new SimpleDateFormat("yyyy/MM/dd a h:mm"),
-            new SimpleDateFormat("yyyy/MM/dd a h:mm:ss")
+            "yyyy/MM/dd a h:mm",
+            "yyyy/MM/dd a h:mm:ss"
     ),
     TWENTY_FOUR_HOUR(
             "24h",
-            new SimpleDateFormat("yyyy/MM/dd HH:mm"),
-            new SimpleDateFormat("yyyy/MM/dd HH:mm:ss")
+            "yyyy/MM/dd HH:mm",
+            "yyyy/MM/dd HH:mm:ss"
     );
 
     private final String shortName;
     // minute-wise format
-    private final DateFormat minuteFormat;
+    private final String minutePattern;
+    private final DateTimeFormatter minuteFormatter;
     // second-wise format
-    private final DateFormat secondFormat;
+    private final String secondPattern;
+    private final DateTimeFormatter secondFormatter;
 
-    CustomFormat(String shortName, DateFormat minuteFormat, DateFormat secondFormat) {
+    CustomFormat(String shortName, String minutePattern, String secondPattern) {
         this.shortName = shortName;
-        this.minuteFormat = minuteFormat;
-        this.secondFormat = secondFormat;
+        this.minutePattern = minutePattern;
+        this.minuteFormatter = DateTimeFormatter.ofPattern(minutePattern);
+        this.secondPattern = secondPattern;
+        this.secondFormatter = DateTimeFormatter.ofPattern(secondPattern);
     }
 
+    /**
+     * Returns a new minute-wise date format.
+     * {@link DateFormat} is mutable and not thread-safe, so a new instance is created on each call.
+     * Prefer {@link #formatMinute(Date, TimeZone)} if the format is used only once.
+     * @return Minute-wise format.
+     */
     public DateFormat getMinuteFormat() {
-        return minuteFormat;
+        return new SimpleDateFormat(this.minutePattern);
     }
 
+    /**
+     * Returns a new second-wise date format.
+     * {@link DateFormat} is mutable and not thread-safe, so a new instance is created on each call.
+     * Prefer {@link #formatSecond(Date, TimeZone)} if the format is used only once.
+     * @return Second-wise format.
+     */
     public DateFormat getSecondFormat() {
-        return secondFormat;
+        return new SimpleDateFormat(this.secondPattern);
+    }
+
+    public DateTimeFormatter getMinuteFormatter() {
+        return minuteFormatter;
+    }
+
+    public DateTimeFormatter getSecondFormatter() {
+        return secondFormatter;
+    }
+
+    /**
+     * Formats the date minute-wise in the given time zone.
+     * @param date Date.
+     * @param timeZone Time zone.
+     * @return Formatted date.
+     */
+    public String formatMinute(Date date, TimeZone timeZone) {
+        return format(this.minuteFormatter, date, timeZone.toZoneId());
+    }
+
+    /**
+     * Formats the date second-wise in the given time zone.
+     * @param date Date.
+     * @param timeZone Time zone.
+     * @return Formatted date.
+     */
+    public String formatSecond(Date date, TimeZone timeZone) {
+        return format(this.secondFormatter, date, timeZone.toZoneId());
+    }
+
+    private static String format(DateTimeFormatter formatter, Date date, ZoneId zone) {
+        // Date#toInstant is not supported by java.sql.Date
+        return formatter.format(Instant.ofEpochMilli(date.getTime()).atZone(zone));
     }
 
     @Override
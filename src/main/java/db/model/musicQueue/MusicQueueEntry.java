@@ -1,5 +1,6 @@
 package db.model.musicQueue;
 
+import javax.annotation.Nullable;
 import java.util.Date;
 
 public class MusicQueueEntry implements MusicQueueEntryId {
@@ -9,14 +10,22 @@ public class MusicQueueEntry implements MusicQueueEntryId {
     private final String url;
     private final long position;
     private final Date updatedAt;
+    @Nullable
+    private final String track;
 
     public MusicQueueEntry(long guildId, int index, long userId, String url, long position, Date updatedAt) {
+        this(guildId, index, userId, url, position, updatedAt, null);
+    }
+
+    public MusicQueueEntry(long guildId, int index, long userId, String url, long position, Date updatedAt,
+                           @Nullable String track) {
         this.guildId = guildId;
         this.index = index;
         this.userId = userId;
         this.url = url;
         this.position = position;
         this.updatedAt = updatedAt;
+        this.track = track;
     }
 
     @Override
@@ -44,4 +53,13 @@ public class MusicQueueEntry implements MusicQueueEntryId {
     public Date getUpdatedAt() {
         return updatedAt;
     }
+
+    /**
+     * Returns the encoded track, used to restore the track without resolving the URL.
+     * @return Base64 encoded track. null if not saved.
+     */
+    @Nullable
+    public String getTrack() {
+        return track;
+    }
 }
@@ -0,0 +1,49 @@
+package db.model.warPlayer;
+
+import org.jetbrains.annotations.NotNull;
+import utils.UUID;
+
+import java.util.Date;
+
+/**
+ * Player UUID to set to war player entries of the player name, logged between the dates.
+ */
+public class PlayerUUIDRange {
+    @NotNull
+    private final String playerName;
+    @NotNull
+    private final UUID uuid;
+    // inclusive
+    @NotNull
+    private final Date start;
+    // exclusive
+    @NotNull
+    private final Date end;
+
+    public PlayerUUIDRange(@NotNull String playerName, @NotNull UUID uuid, @NotNull Date start, @NotNull Date end) {
+        this.playerName = playerName;
+        this.uuid = uuid;
+        this.start = start;
+        this.end = end;
+    }
+
+    @NotNull
+    public String getPlayerName() {
+        return playerName;
+    }
+
+    @NotNull
+    public UUID getUuid() {
+        return uuid;
+    }
+
+    @NotNull
+    public Date getStart() {
+        return start;
+    }
+
+    @NotNull
+    public Date getEnd() {
+        return end;
+    }
+}
@@ -0,0 +1,36 @@
+package db.model.warPlayer;
+
+import org.jetbrains.annotations.NotNull;
+
+import java.util.Date;
+
+/**
+ * Player name whose logged UUID is null, with the first war the name was logged in.
+ */
+public class UUIDNullPlayer {
+    @NotNull
+    private final String playerName;
+    private final int firstWarLogId;
+    @NotNull
+    private final Date firstWarAt;
+
+    public UUIDNullPlayer(@NotNull String playerName, int firstWarLogId, @NotNull Date firstWarAt) {
+        this.playerName = playerName;
+        this.firstWarLogId = firstWarLogId;
+        this.firstWarAt = firstWarAt;
+    }
+
+    @NotNull
+    public String getPlayerName() {
+        return playerName;
+    }
+
+    public int getFirstWarLogId() {
+        return firstWarLogId;
+    }
+
+    @NotNull
+    public Date getFirstWarAt() {
+        return firstWarAt;
+    }
+}
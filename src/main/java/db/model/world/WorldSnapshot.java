@@ -0,0 +1,88 @@
+package db.model.world;
+
+import org.jetbrains.annotations.NotNull;
+import org.jetbrains.annotations.Nullable;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.Date;
+import java.util.List;
+
+/**
+ * Immutable list of worlds at a point of time, with main and war worlds partitioned beforehand.
+ */
+public class WorldSnapshot {
+    private final List<World> worlds;
+    private final List<World> mainWorlds;
+    private final List<World> warWorlds;
+
+    public WorldSnapshot(@NotNull Collection<World> worlds) {
+        List<World> mainWorlds = new ArrayList<>();
+        List<World> warWorlds = new ArrayList<>();
+        for (World world : worlds) {
+            if (isMainWorld(world.getName())) {
+                mainWorlds.add(world);
+            } else if (isWarWorld(world.getName())) {
+                warWorlds.add(world);
+            }
+        }
+        this.worlds = Collections.unmodifiableList(new ArrayList<>(worlds));
+        this.mainWorlds = Collections.unmodifiableList(mainWorlds);
+        this.warWorlds = Collections.unmodifiableList(warWorlds);
+    }
+
+    /**
+     * Checks if the world is a main world (WC.* or EU.*).
+     * @param name World name.
+     * @return {@code true} if main world.
+     */
+    public static boolean isMainWorld(@NotNull String name) {
+        return name.startsWith("WC") || name.startsWith("EU");
+    }
+
+    /**
+     * Checks if the world is a war world (WAR.*).
+     * @param name World name.
+     * @return {@code true} if war world.
+     */
+    public static boolean isWarWorld(@NotNull String name) {
+        return name.startsWith("WAR");
+    }
+
+    /**
+     * Returns all worlds. The returned list is unmodifiable.
+     * @return List of all worlds.
+     */
+    @NotNull
+    public List<World> getWorlds() {
+        return worlds;
+    }
+
+    /**
+     * Returns all main worlds (WC.* or EU.*). The returned list is unmodifiable.
+     * @return List of main worlds.
+     */
+    @NotNull
+    public List<World> getMainWorlds() {
+        return mainWorlds;
+    }
+
+    /**
+     * Returns all war worlds (WAR.*). The returned list is unmodifiable.
+     * @return List of war worlds.
+     */
+    @NotNull
+    public List<World> getWarWorlds() {
+        return warWorlds;
+    }
+
+    /**
+     * Returns when the worlds were last retrieved from the API.
+     * @return Last update time. null if there are no worlds.
+     */
+    @Nullable
+    public Date getUpdatedAt() {
+        return worlds.isEmpty() ? null : worlds.get(0).getUpdatedAt();
+    }
+}
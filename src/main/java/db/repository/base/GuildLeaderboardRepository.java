@@ -24,6 +24,22 @@ public interface GuildLeaderboardRepository extends Repository<GuildLeaderboard,
     @Nullable
     List<GuildLeaderboard> getLatestLeaderboard();
 
+    /**
+     * Retrieves the oldest and the newest entry of each guild in one query.
+     * A guild with only one entry in the table is returned once.
+     * @return List of entries, sorted by guild name and ascending 'updated at'. null if something went wrong.
+     */
+    @Nullable
+    List<GuildLeaderboard> findOldestAndNewestOfEachGuild();
+
+    /**
+     * Retrieves all entries of the guild.
+     * @param guildName Guild name.
+     * @return List of entries, sorted by ascending 'updated at'. null if something went wrong.
+     */
+    @Nullable
+    List<GuildLeaderboard> findAllOfGuild(@NotNull String guildName);
+
     /**
      * Get the newest 'updated at' field.
      * @return Newest date. null if something went wrong, or there are no entries.
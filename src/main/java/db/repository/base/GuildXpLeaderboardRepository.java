@@ -23,8 +23,11 @@ public interface GuildXpLeaderboardRepository extends Repository<GuildXpLeaderbo
     int getXPRank(@NotNull String guildName);
 
     /**
-     * Truncates table and deletes all data.
-     * @return true if success.
+     * Replaces all data in the table with the given list.
+     * The new data is built in a separate table and swapped in atomically,
+     * so readers never see an empty or partially built leaderboard.
+     * @param list List of entries.
+     * @return {@code true} if success.
      */
-    boolean truncateTable();
+    boolean replaceAll(@NotNull List<GuildXpLeaderboard> list);
 }
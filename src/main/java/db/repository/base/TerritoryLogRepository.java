@@ -17,15 +17,6 @@ public interface TerritoryLogRepository extends Repository<TerritoryLog, Territo
      */
     int lastInsertId();
 
-    /**
-     * Finds all territory logs with id from old id (exclusive) and new id (inclusive).
-     * @param oldId Old last id (exclusive).
-     * @param newId New last id (inclusive).
-     * @return List of logs. null if something went wrong.
-     */
-    @Nullable
-    List<TerritoryLog> findAllInRange(int oldId, int newId);
-
     /**
      * Finds all logs that is contained in the given list of IDs.
      * @param ids List of IDs.
@@ -3,13 +3,16 @@ package db.repository.base;
 import db.model.territory.Territory;
 import db.model.territory.TerritoryId;
 import db.model.territory.TerritoryRank;
+import db.model.territoryLog.TerritoryLog;
 import db.repository.Repository;
 import org.jetbrains.annotations.NotNull;
 
 import javax.annotation.CheckReturnValue;
 import javax.annotation.Nullable;
+import java.util.Collection;
 import java.util.Date;
 import java.util.List;
+import java.util.Map;
 
 public interface TerritoryRepository extends Repository<Territory, TerritoryId> {
     /**
@@ -19,6 +22,15 @@ public interface TerritoryRepository extends Repository<Territory, TerritoryId>
      */
     int countGuildTerritories(@NotNull String guildName);
 
+    /**
+     * Counts number of territories each of the given guilds possesses, in one query.
+     * @param guildNames Guild names.
+     * @return Map of guild names to territory counts. Guilds with no territories are not included.
+     * null if something went wrong.
+     */
+    @Nullable
+    Map<String, Integer> countGuildTerritories(@NotNull Collection<String> guildNames);
+
     /**
      * Returns a list of territories the guild possesses.
      * @param guildName Guild name.
@@ -56,6 +68,15 @@ public interface TerritoryRepository extends Repository<Territory, TerritoryId>
     @CheckReturnValue
     boolean updateAll(@NotNull List<Territory> territories);
 
+    /**
+     * Updates the whole table to the new given territories list,
+     * and returns the territory logs generated by this update.
+     * @param territories New territories list retrieved from the Wynn API.
+     * @return List of generated logs, in the order of id. null if something went wrong.
+     */
+    @Nullable
+    List<TerritoryLog> updateAllAndGetLogs(@NotNull List<Territory> territories);
+
     /**
      * Retrieves all territory names that begins with the given prefix. Case insensitive.
      * @param prefix Prefix.
@@ -1,5 +1,7 @@
 package db.repository.base;
 
+import db.model.warPlayer.PlayerUUIDRange;
+import db.model.warPlayer.UUIDNullPlayer;
 import db.model.warPlayer.WarPlayer;
 import db.model.warPlayer.WarPlayerId;
 import db.repository.Repository;
@@ -85,11 +87,20 @@ public interface WarPlayerRepository extends Repository<WarPlayer, WarPlayerId>
     List<WarPlayer> getLogsOfPlayer(UUID playerUUID, String guildName, int limit, int offset);
 
     /**
-     * Retrieves single player whose logged UUID is null.
-     * @return War player entry. null if something went wrong or not found.
+     * Retrieves the first war log id after the given id, of entries whose logged UUID is null.
+     * @param afterWarLogId War log id (exclusive).
+     * @return War log id. 0 if there are none, -1 if something went wrong.
+     */
+    int getNextUUIDNullWarLogId(int afterWarLogId);
+
+    /**
+     * Retrieves distinct player names whose logged UUID is null, in the war log id range.
+     * @param afterWarLogId Start war log id (exclusive).
+     * @param toWarLogId End war log id (inclusive).
+     * @return List of players, with the first war in the range. null if something went wrong.
      */
     @Nullable
-    WarPlayer getUUIDNullPlayer(int offset);
+    List<UUIDNullPlayer> getUUIDNullPlayers(int afterWarLogId, int toWarLogId);
 
     /**
      * Updates list of war player entries of player name between the given dates, to given player uuid.
@@ -100,4 +111,11 @@ public interface WarPlayerRepository extends Repository<WarPlayer, WarPlayerId>
      * @return {@code true} if success.
      */
     boolean updatePlayerUUIDBetween(String playerName, UUID uuid, Date start, Date end);
+
+    /**
+     * Updates war player entries of each player name between the dates, to the player uuid, in a single transaction.
+     * @param ranges List of player names, uuids and date ranges.
+     * @return {@code true} if success.
+     */
+    boolean updatePlayerUUIDsBetween(List<PlayerUUIDRange> ranges);
 }
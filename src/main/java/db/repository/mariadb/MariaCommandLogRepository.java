@@ -10,13 +10,9 @@ import org.jetbrains.annotations.NotNull;
 import javax.annotation.Nullable;
 import java.sql.ResultSet;
 import java.sql.SQLException;
-import java.text.DateFormat;
-import java.text.SimpleDateFormat;
 import java.util.List;
 
 class MariaCommandLogRepository extends MariaRepository<CommandLog> implements CommandLogRepository {
-    private static final DateFormat dbFormat = new SimpleDateFormat("yyyy-MM-dd HH:mm:ss");
-
     MariaCommandLogRepository(ConnectionPool db, Logger logger) {
         super(db, logger);
     }
@@ -37,7 +33,7 @@ class MariaCommandLogRepository extends MariaRepository<CommandLog> implements C
                 entity.getGuildId(),
                 entity.getChannelId(),
                 entity.getUserId(),
-                dbFormat.format(entity.getCreatedAt())
+                entity.getCreatedAt()
         );
     }
 
@@ -115,7 +111,7 @@ class MariaCommandLogRepository extends MariaRepository<CommandLog> implements C
                 entity.getGuildId(),
                 entity.getChannelId(),
                 entity.getUserId(),
-                dbFormat.format(entity.getCreatedAt()),
+                entity.getCreatedAt(),
                 entity.getId()
         );
     }
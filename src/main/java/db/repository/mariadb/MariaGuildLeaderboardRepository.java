@@ -10,16 +10,12 @@ import org.jetbrains.annotations.NotNull;
 import javax.annotation.Nullable;
 import java.sql.ResultSet;
 import java.sql.SQLException;
-import java.text.DateFormat;
-import java.text.SimpleDateFormat;
 import java.util.Arrays;
 import java.util.Date;
 import java.util.List;
 import java.util.stream.Collectors;
 
 class MariaGuildLeaderboardRepository extends MariaRepository<GuildLeaderboard> implements GuildLeaderboardRepository {
-    private static final DateFormat dbFormat = new SimpleDateFormat("yyyy-MM-dd HH:mm:ss");
-
     MariaGuildLeaderboardRepository(ConnectionPool db, Logger logger) {
         super(db, logger);
     }
@@ -42,7 +38,7 @@ class MariaGuildLeaderboardRepository extends MariaRepository<GuildLeaderboard>
                 entity.getNum(),
                 entity.getTerritories(),
                 entity.getMemberCount(),
-                dbFormat.format(entity.getUpdatedAt())
+                entity.getUpdatedAt()
         );
     }
 
@@ -60,7 +56,7 @@ class MariaGuildLeaderboardRepository extends MariaRepository<GuildLeaderboard>
                         g.getNum(),
                         g.getTerritories(),
                         g.getMemberCount(),
-                        dbFormat.format(g.getUpdatedAt())
+                        g.getUpdatedAt()
                 })
                 .flatMap(Arrays::stream).toArray();
         return this.execute(
@@ -73,7 +69,7 @@ class MariaGuildLeaderboardRepository extends MariaRepository<GuildLeaderboard>
     public boolean exists(@NotNull GuildLeaderboardId guildLeaderboardId) {
         ResultSet res = this.executeQuery(
                 "SELECT COUNT(*) FROM `guild_leaderboard` WHERE `updated_at` = ? AND `name` = ?",
-                dbFormat.format(guildLeaderboardId.getUpdatedAt()),
+                guildLeaderboardId.getUpdatedAt(),
                 guildLeaderboardId.getName()
         );
 
@@ -114,7 +110,7 @@ class MariaGuildLeaderboardRepository extends MariaRepository<GuildLeaderboard>
     public GuildLeaderboard findOne(@NotNull GuildLeaderboardId guildLeaderboardId) {
         ResultSet res = this.executeQuery(
                 "SELECT * FROM `guild_leaderboard` WHERE `updated_at` = ? AND `name` = ?",
-                dbFormat.format(guildLeaderboardId.getUpdatedAt()),
+                guildLeaderboardId.getUpdatedAt(),
                 guildLeaderboardId.getName()
         );
 
@@ -149,6 +145,49 @@ class MariaGuildLeaderboardRepository extends MariaRepository<GuildLeaderboard>
         }
     }
 
+    @Nullable
+    @Override
+    public List<GuildLeaderboard> findOldestAndNewestOfEachGuild() {
+        // MIN / MAX per guild can be resolved by `name_idx` alone, without reading the whole history
+        ResultSet res = this.executeQuery(
+                "SELECT g.* FROM `guild_leaderboard` g JOIN " +
+                        "(SELECT `name`, MIN(`updated_at`) AS `oldest`, MAX(`updated_at`) AS `newest` FROM `guild_leaderboard` GROUP BY `name`) AS t " +
+                        "ON g.`name` = t.`name` AND (g.`updated_at` = t.`oldest` OR g.`updated_at` = t.`newest`) " +
+                        "ORDER BY g.`name`, g.`updated_at`"
+        );
+
+        if (res == null) {
+            return null;
+        }
+
+        try {
+            return bindAll(res);
+        } catch (SQLException e) {
+            this.logResponseException(e);
+            return null;
+        }
+    }
+
+    @Nullable
+    @Override
+    public List<GuildLeaderboard> findAllOfGuild(@NotNull String guildName) {
+        ResultSet res = this.executeQuery(
+                "SELECT * FROM `guild_leaderboard` WHERE `name` = ? ORDER BY `updated_at`",
+                guildName
+        );
+
+        if (res == null) {
+            return null;
+        }
+
+        try {
+            return bindAll(res);
+        } catch (SQLException e) {
+            this.logResponseException(e);
+            return null;
+        }
+    }
+
     @Nullable
     public Date getNewestDate() {
         ResultSet res = this.executeQuery(
@@ -191,8 +230,8 @@ class MariaGuildLeaderboardRepository extends MariaRepository<GuildLeaderboard>
     public Date getNewestDateBetween(@NotNull Date old, @NotNull Date newer) {
         ResultSet res = this.executeQuery(
                 "SELECT MAX(`updated_at`) FROM `guild_leaderboard` WHERE `updated_at` > ? AND `updated_at` < ?",
-                dbFormat.format(old),
-                dbFormat.format(newer)
+                old,
+                newer
         );
 
         if (res == null) {
@@ -290,7 +329,7 @@ class MariaGuildLeaderboardRepository extends MariaRepository<GuildLeaderboard>
                 entity.getNum(),
                 entity.getTerritories(),
                 entity.getMemberCount(),
-                dbFormat.format(entity.getUpdatedAt()),
+                entity.getUpdatedAt(),
                 entity.getName()
         );
     }
@@ -299,7 +338,7 @@ class MariaGuildLeaderboardRepository extends MariaRepository<GuildLeaderboard>
     public boolean delete(@NotNull GuildLeaderboardId guildLeaderboardId) {
         return this.execute(
                 "DELETE FROM `guild_leaderboard` WHERE `updated_at` = ? AND `name` = ?",
-                dbFormat.format(guildLeaderboardId.getUpdatedAt()),
+                guildLeaderboardId.getUpdatedAt(),
                 guildLeaderboardId.getName()
         );
     }
@@ -307,7 +346,7 @@ class MariaGuildLeaderboardRepository extends MariaRepository<GuildLeaderboard>
     public boolean deleteAllOlderThan(@NotNull Date date) {
         return this.execute(
                 "DELETE FROM `guild_leaderboard` WHERE `updated_at` < ?",
-                dbFormat.format(date)
+                date
         );
     }
 }
@@ -10,15 +10,11 @@ import org.jetbrains.annotations.NotNull;
 import javax.annotation.Nullable;
 import java.sql.ResultSet;
 import java.sql.SQLException;
-import java.text.DateFormat;
-import java.text.SimpleDateFormat;
 import java.util.Arrays;
 import java.util.List;
 import java.util.stream.Collectors;
 
 class MariaGuildRepository extends MariaRepository<Guild> implements GuildRepository {
-    private static final DateFormat dbFormat = new SimpleDateFormat("yyyy-MM-dd HH:mm:ss");
-
     MariaGuildRepository(ConnectionPool db, Logger logger) {
         super(db, logger);
     }
@@ -34,7 +30,7 @@ class MariaGuildRepository extends MariaRepository<Guild> implements GuildReposi
                 "INSERT INTO `guild` (name, prefix, created_at) VALUES (?, ?, ?)",
                 entity.getName(),
                 entity.getPrefix(),
-                dbFormat.format(entity.getCreatedAt())
+                entity.getCreatedAt()
         );
     }
 
@@ -194,7 +190,7 @@ class MariaGuildRepository extends MariaRepository<Guild> implements GuildReposi
         return this.execute(
                 "UPDATE `guild` SET `prefix` = ?, `created_at` = ? WHERE `name` = ?",
                 entity.getPrefix(),
-                dbFormat.format(entity.getCreatedAt()),
+                entity.getCreatedAt(),
                 entity.getName()
         );
     }
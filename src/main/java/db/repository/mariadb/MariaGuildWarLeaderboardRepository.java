@@ -10,14 +10,10 @@ import org.jetbrains.annotations.NotNull;
 import javax.annotation.Nullable;
 import java.sql.ResultSet;
 import java.sql.SQLException;
-import java.text.DateFormat;
-import java.text.SimpleDateFormat;
 import java.util.Date;
 import java.util.List;
 
 public class MariaGuildWarLeaderboardRepository extends MariaRepository<GuildWarLeaderboard> implements GuildWarLeaderboardRepository {
-    private static final DateFormat dbFormat = new SimpleDateFormat("yyyy-MM-dd HH:mm:ss");
-
     MariaGuildWarLeaderboardRepository(ConnectionPool db, Logger logger) {
         super(db, logger);
     }
@@ -160,7 +156,7 @@ public class MariaGuildWarLeaderboardRepository extends MariaRepository<GuildWar
     private int getFirstWarLogIdAfter(@NotNull Date date) {
         ResultSet res = this.executeQuery(
                 "SELECT first_war_log_id_after(?)",
-                dbFormat.format(date)
+                date
         );
 
         if (res == null) {
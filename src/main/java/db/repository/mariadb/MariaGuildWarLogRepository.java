@@ -10,16 +10,12 @@ import org.jetbrains.annotations.NotNull;
 import javax.annotation.Nullable;
 import java.sql.ResultSet;
 import java.sql.SQLException;
-import java.text.DateFormat;
-import java.text.SimpleDateFormat;
 import java.util.ArrayList;
 import java.util.Date;
 import java.util.List;
 import java.util.stream.Collectors;
 
 class MariaGuildWarLogRepository extends MariaRepository<GuildWarLog> implements GuildWarLogRepository {
-    private static final DateFormat dbFormat = new SimpleDateFormat("yyyy-MM-dd HH:mm:ss");
-
     MariaGuildWarLogRepository(ConnectionPool db, Logger logger) {
         super(db, logger);
     }
@@ -266,7 +262,7 @@ class MariaGuildWarLogRepository extends MariaRepository<GuildWarLog> implements
     private int getFirstWarLogIdAfter(@NotNull Date date) {
         ResultSet res = this.executeQuery(
                 "SELECT first_war_log_id_after(?)",
-                dbFormat.format(date)
+                date
         );
 
         if (res == null) {
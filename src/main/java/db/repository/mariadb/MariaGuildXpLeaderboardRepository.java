@@ -8,17 +8,14 @@ import log.Logger;
 import org.jetbrains.annotations.NotNull;
 
 import javax.annotation.Nullable;
+import java.sql.Connection;
 import java.sql.ResultSet;
 import java.sql.SQLException;
-import java.text.DateFormat;
-import java.text.SimpleDateFormat;
 import java.util.Arrays;
 import java.util.List;
 import java.util.stream.Collectors;
 
 class MariaGuildXpLeaderboardRepository extends MariaRepository<GuildXpLeaderboard> implements GuildXpLeaderboardRepository {
-    private static final DateFormat dbFormat = new SimpleDateFormat("yyyy-MM-dd HH:mm:ss");
-
     MariaGuildXpLeaderboardRepository(ConnectionPool db, Logger logger) {
         super(db, logger);
     }
@@ -41,14 +38,34 @@ class MariaGuildXpLeaderboardRepository extends MariaRepository<GuildXpLeaderboa
                 entity.getLevel(),
                 entity.getXp(),
                 entity.getXpDiff(),
-                dbFormat.format(entity.getFrom()),
-                dbFormat.format(entity.getTo())
+                entity.getFrom(),
+                entity.getTo()
         );
     }
 
     public boolean createAll(@NotNull List<GuildXpLeaderboard> list) {
         if (list.size() == 0) return true;
 
+        Connection connection = this.db.getConnection();
+        if (connection == null) {
+            return false;
+        }
+
+        try {
+            return this.insertAll(connection, "guild_xp_leaderboard", list);
+        } finally {
+            this.db.releaseConnection(connection);
+        }
+    }
+
+    /**
+     * Inserts all entries into the given table, using the given connection.
+     * @param connection Connection to use.
+     * @param table Table name, either `guild_xp_leaderboard` or its shadow table.
+     * @param list List of entries. Should not be empty.
+     * @return {@code true} if success.
+     */
+    private boolean insertAll(@NotNull Connection connection, @NotNull String table, @NotNull List<GuildXpLeaderboard> list) {
         String singlePlaceHolder = "(?, ?, ?, ?, ?, ?, ?)";
         String placeHolders = list.stream().map(g -> singlePlaceHolder).collect(Collectors.joining(", "));
         Object[] objects = list.stream()
@@ -58,16 +75,35 @@ class MariaGuildXpLeaderboardRepository extends MariaRepository<GuildXpLeaderboa
                         g.getLevel(),
                         g.getXp(),
                         g.getXpDiff(),
-                        dbFormat.format(g.getFrom()),
-                        dbFormat.format(g.getTo())
+                        g.getFrom(),
+                        g.getTo()
                 })
                 .flatMap(Arrays::stream).toArray();
-        return this.execute(
-                "INSERT INTO `guild_xp_leaderboard` (name, prefix, level, xp, xp_diff, `from`, `to`) VALUES " + placeHolders,
+        return this.execute(connection,
+                "INSERT INTO `" + table + "` (name, prefix, level, xp, xp_diff, `from`, `to`) VALUES " + placeHolders,
                 objects
         );
     }
 
+    public boolean replaceAll(@NotNull List<GuildXpLeaderboard> list) {
+        Connection connection = this.db.getConnection();
+        if (connection == null) {
+            return false;
+        }
+
+        try {
+            // Build the new leaderboard in a shadow table, then swap the two tables in one atomic RENAME
+            return this.execute(connection, "DROP TABLE IF EXISTS `guild_xp_leaderboard_new`, `guild_xp_leaderboard_old`") &&
+                    this.execute(connection, "CREATE TABLE `guild_xp_leaderboard_new` LIKE `guild_xp_leaderboard`") &&
+                    (list.isEmpty() || this.insertAll(connection, "guild_xp_leaderboard_new", list)) &&
+                    this.execute(connection, "RENAME TABLE `guild_xp_leaderboard` TO `guild_xp_leaderboard_old`, " +
+                            "`guild_xp_leaderboard_new` TO `guild_xp_leaderboard`") &&
+                    this.execute(connection, "DROP TABLE `guild_xp_leaderboard_old`");
+        } finally {
+            this.db.releaseConnection(connection);
+        }
+    }
+
     @Override
     public int getXPRank(@NotNull String guildName) {
         ResultSet res = this.executeQuery(
@@ -175,8 +211,8 @@ class MariaGuildXpLeaderboardRepository extends MariaRepository<GuildXpLeaderboa
                 entity.getLevel(),
                 entity.getXp(),
                 entity.getXpDiff(),
-                dbFormat.format(entity.getFrom()),
-                dbFormat.format(entity.getTo()),
+                entity.getFrom(),
+                entity.getTo(),
                 entity.getName()
         );
     }
@@ -188,10 +224,4 @@ class MariaGuildXpLeaderboardRepository extends MariaRepository<GuildXpLeaderboa
                 guildXpLeaderboardId.getName()
         );
     }
-
-    public boolean truncateTable() {
-        return this.execute(
-                "TRUNCATE TABLE `guild_xp_leaderboard`"
-        );
-    }
 }
@@ -10,16 +10,12 @@ import org.jetbrains.annotations.NotNull;
 import javax.annotation.Nullable;
 import java.sql.ResultSet;
 import java.sql.SQLException;
-import java.text.DateFormat;
-import java.text.SimpleDateFormat;
 import java.util.Collections;
 import java.util.Date;
 import java.util.List;
 import java.util.stream.Stream;
 
 class MariaMusicQueueRepository extends MariaRepository<MusicQueueEntry> implements MusicQueueRepository {
-    private static final DateFormat dbFormat = new SimpleDateFormat("yyyy-MM-dd HH:mm:ss");
-
     MariaMusicQueueRepository(ConnectionPool db, Logger logger) {
         super(db, logger);
     }
@@ -32,20 +28,22 @@ class MariaMusicQueueRepository extends MariaRepository<MusicQueueEntry> impleme
                 res.getLong(3),
                 res.getString(4),
                 res.getInt(5),
-                res.getTimestamp(6)
+                res.getTimestamp(6),
+                res.getString(7)
         );
     }
 
     @Override
     public <S extends MusicQueueEntry> boolean create(@NotNull S entity) {
         return this.execute(
-                "INSERT INTO `music_queue` (guild_id, `index`, user_id, url, position, updated_at) VALUES (?, ?, ?, ?, ?, ?)",
+                "INSERT INTO `music_queue` (guild_id, `index`, user_id, url, position, updated_at, track) VALUES (?, ?, ?, ?, ?, ?, ?)",
                 entity.getGuildId(),
                 entity.getIndex(),
                 entity.getUserId(),
                 entity.getUrl(),
                 entity.getPosition(),
-                dbFormat.format(entity.getUpdatedAt())
+                entity.getUpdatedAt(),
+                entity.getTrack()
         );
     }
 
@@ -144,9 +142,9 @@ class MariaMusicQueueRepository extends MariaRepository<MusicQueueEntry> impleme
             return true;
         }
 
-        String placeHolder = "(?, ?, ?, ?, ?, ?)";
+        String placeHolder = "(?, ?, ?, ?, ?, ?, ?)";
         return this.execute(
-                "INSERT INTO `music_queue` (guild_id, `index`, user_id, url, position, updated_at) VALUES " +
+                "INSERT INTO `music_queue` (guild_id, `index`, user_id, url, position, updated_at, track) VALUES " +
                         String.join(", ", Collections.nCopies(queue.size(), placeHolder)),
                 queue.stream().flatMap(q -> Stream.of(
                         q.getGuildId(),
@@ -154,7 +152,8 @@ class MariaMusicQueueRepository extends MariaRepository<MusicQueueEntry> impleme
                         q.getUserId(),
                         q.getUrl(),
                         q.getPosition(),
-                        dbFormat.format(q.getUpdatedAt())
+                        q.getUpdatedAt(),
+                        q.getTrack()
                 )).toArray()
         );
     }
@@ -183,18 +182,19 @@ class MariaMusicQueueRepository extends MariaRepository<MusicQueueEntry> impleme
     public boolean deleteAllOlderThan(Date threshold) {
         return this.execute(
                 "DELETE FROM `music_queue` WHERE `updated_at` < ?",
-                dbFormat.format(threshold)
+                threshold
         );
     }
 
     @Override
     public boolean update(@NotNull MusicQueueEntry entity) {
         return this.execute(
-                "UPDATE `music_queue` SET `user_id` = ?, `url` = ?, `position` = ?, `updated_at` = ? WHERE `guild_id` = ? AND `index` = ?",
+                "UPDATE `music_queue` SET `user_id` = ?, `url` = ?, `position` = ?, `updated_at` = ?, `track` = ? WHERE `guild_id` = ? AND `index` = ?",
                 entity.getUserId(),
                 entity.getUrl(),
                 entity.getPosition(),
-                dbFormat.format(entity.getUpdatedAt()),
+                entity.getUpdatedAt(),
+                entity.getTrack(),
                 entity.getGuildId(),
                 entity.getIndex()
         );
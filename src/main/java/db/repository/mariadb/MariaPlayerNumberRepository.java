@@ -10,14 +10,10 @@ import org.jetbrains.annotations.NotNull;
 import javax.annotation.Nullable;
 import java.sql.ResultSet;
 import java.sql.SQLException;
-import java.text.DateFormat;
-import java.text.SimpleDateFormat;
 import java.util.Date;
 import java.util.List;
 
 class MariaPlayerNumberRepository extends MariaRepository<PlayerNumber> implements PlayerNumberRepository {
-    private static final DateFormat dbFormat = new SimpleDateFormat("yyyy-MM-dd HH:mm:ss");
-
     MariaPlayerNumberRepository(ConnectionPool db, Logger logger) {
         super(db, logger);
     }
@@ -31,7 +27,7 @@ class MariaPlayerNumberRepository extends MariaRepository<PlayerNumber> implemen
     public <S extends PlayerNumber> boolean create(@NotNull S entity) {
         return this.execute(
                 "INSERT INTO `player_number` (date_time, player_num) VALUES (?, ?)",
-                dbFormat.format(entity.getDateTime()),
+                entity.getDateTime(),
                 entity.getPlayerNum()
         );
     }
@@ -40,7 +36,7 @@ class MariaPlayerNumberRepository extends MariaRepository<PlayerNumber> implemen
     public boolean exists(@NotNull PlayerNumberId playerNumberId) {
         ResultSet res = this.executeQuery(
                 "SELECT COUNT(*) FROM `player_number` WHERE `date_time` = ?",
-                dbFormat.format(playerNumberId.getDateTime())
+                playerNumberId.getDateTime()
         );
 
         if (res == null) {
@@ -80,7 +76,7 @@ class MariaPlayerNumberRepository extends MariaRepository<PlayerNumber> implemen
     public PlayerNumber findOne(@NotNull PlayerNumberId playerNumberId) {
         ResultSet res = this.executeQuery(
                 "SELECT * FROM `player_number` WHERE `date_time` = ?",
-                dbFormat.format(playerNumberId.getDateTime())
+                playerNumberId.getDateTime()
         );
 
         if (res == null) {
@@ -119,7 +115,7 @@ class MariaPlayerNumberRepository extends MariaRepository<PlayerNumber> implemen
     public boolean update(@NotNull PlayerNumber entity) {
         return this.execute(
                 "UPDATE `player_number` SET `player_num` = ? WHERE `date_time` = ?",
-                dbFormat.format(entity.getDateTime())
+                entity.getDateTime()
         );
     }
 
@@ -127,7 +123,7 @@ class MariaPlayerNumberRepository extends MariaRepository<PlayerNumber> implemen
     public boolean delete(@NotNull PlayerNumberId playerNumberId) {
         return this.execute(
                 "DELETE FROM `player_number` WHERE `date_time` = ?",
-                dbFormat.format(playerNumberId.getDateTime())
+                playerNumberId.getDateTime()
         );
     }
 
@@ -11,22 +11,18 @@ import utils.UUID;
 import javax.annotation.Nullable;
 import java.sql.ResultSet;
 import java.sql.SQLException;
-import java.text.DateFormat;
-import java.text.SimpleDateFormat;
 import java.util.Date;
 import java.util.List;
 import java.util.stream.Collectors;
 
 class MariaPlayerWarLeaderboardRepository extends MariaRepository<PlayerWarLeaderboard> implements PlayerWarLeaderboardRepository {
-    private static final DateFormat dbFormat = new SimpleDateFormat("yyyy-MM-dd HH:mm:ss");
-
     MariaPlayerWarLeaderboardRepository(ConnectionPool db, Logger logger) {
         super(db, logger);
     }
 
     @Override
     protected PlayerWarLeaderboard bind(@NotNull ResultSet res) throws SQLException {
-        return new PlayerWarLeaderboard(res.getString(1), res.getString(2),
+        return new PlayerWarLeaderboard(getUUID(res, 1), res.getString(2),
                 res.getInt(3), res.getInt(4), res.getInt(5),
                 res.getMetaData().getColumnCount() > 5 ? res.getBigDecimal(6) : null,
                 res.getMetaData().getColumnCount() > 6 ? res.getBigDecimal(7): null);
@@ -36,7 +32,7 @@ class MariaPlayerWarLeaderboardRepository extends MariaRepository<PlayerWarLeade
     public <S extends PlayerWarLeaderboard> boolean create(@NotNull S entity) {
         return this.execute(
                 "INSERT INTO `player_war_leaderboard` (uuid, last_name, total_war, success_war, survived_war) VALUES (?, ?, ?, ? ,?)",
-                entity.getUUID(),
+                toBinaryUUID(entity.getUUID()),
                 entity.getLastName(),
                 entity.getTotalWar(),
                 entity.getSuccessWar(),
@@ -48,7 +44,7 @@ class MariaPlayerWarLeaderboardRepository extends MariaRepository<PlayerWarLeade
     public boolean exists(@NotNull PlayerWarLeaderboardId playerWarLeaderboardId) {
         ResultSet res = this.executeQuery(
                 "SELECT COUNT(*) FROM `player_war_leaderboard` WHERE `uuid` = ?",
-                playerWarLeaderboardId.getUUID()
+                toBinaryUUID(playerWarLeaderboardId.getUUID())
         );
 
         if (res == null) {
@@ -88,7 +84,7 @@ class MariaPlayerWarLeaderboardRepository extends MariaRepository<PlayerWarLeade
     public PlayerWarLeaderboard findOne(@NotNull PlayerWarLeaderboardId playerWarLeaderboardId) {
         ResultSet res = this.executeQuery(
                 "SELECT * FROM `player_war_leaderboard` WHERE `uuid` = ?",
-                playerWarLeaderboardId.getUUID()
+                toBinaryUUID(playerWarLeaderboardId.getUUID())
         );
 
         if (res == null) {
@@ -192,7 +188,7 @@ class MariaPlayerWarLeaderboardRepository extends MariaRepository<PlayerWarLeade
                 "SELECT * FROM `player_war_leaderboard` WHERE `uuid` IN ("
                         + playerUUIDs.stream().map(p -> placeHolder).collect(Collectors.joining(", "))
                         + ")",
-                playerUUIDs.stream().map(UUID::toStringWithHyphens).toArray()
+                playerUUIDs.stream().map(UUID::toBytes).toArray()
         );
 
         if (res == null) {
@@ -241,7 +237,7 @@ class MariaPlayerWarLeaderboardRepository extends MariaRepository<PlayerWarLeade
     private int getFirstWarLogIdAfter(@NotNull Date date) {
         ResultSet res = this.executeQuery(
                 "SELECT first_war_log_id_after(?)",
-                dbFormat.format(date)
+                date
         );
 
         if (res == null) {
@@ -375,7 +371,8 @@ class MariaPlayerWarLeaderboardRepository extends MariaRepository<PlayerWarLeade
             return null;
         }
 
-        String UUIDs = playerUUIDs.stream().map(p -> "\"" + p.toStringWithHyphens() + "\"").collect(Collectors.joining(", "));
+        // hex literals of binary UUIDs
+        String UUIDs = playerUUIDs.stream().map(p -> "X'" + p + "'").collect(Collectors.joining(", "));
 
         ResultSet res = this.executeQuery(
                 "SELECT *, " +
@@ -468,7 +465,7 @@ class MariaPlayerWarLeaderboardRepository extends MariaRepository<PlayerWarLeade
                 entity.getTotalWar(),
                 entity.getSuccessWar(),
                 entity.getSurvivedWar(),
-                entity.getUUID()
+                toBinaryUUID(entity.getUUID())
         );
     }
 
@@ -476,7 +473,7 @@ class MariaPlayerWarLeaderboardRepository extends MariaRepository<PlayerWarLeade
     public boolean delete(@NotNull PlayerWarLeaderboardId playerWarLeaderboardId) {
         return this.execute(
                 "DELETE FROM `player_war_leaderboard` WHERE `uuid` = ?",
-                playerWarLeaderboardId.getUUID()
+                toBinaryUUID(playerWarLeaderboardId.getUUID())
         );
     }
 }
@@ -4,6 +4,7 @@ import db.ConnectionPool;
 import log.Logger;
 import org.intellij.lang.annotations.Language;
 import org.jetbrains.annotations.NotNull;
+import utils.UUID;
 
 import javax.annotation.CheckReturnValue;
 import javax.annotation.Nullable;
@@ -11,8 +12,11 @@ import java.sql.Connection;
 import java.sql.PreparedStatement;
 import java.sql.ResultSet;
 import java.sql.SQLException;
+import java.sql.Timestamp;
+import java.time.Instant;
 import java.util.ArrayList;
 import java.util.Arrays;
+import java.util.Date;
 import java.util.List;
 
 abstract class MariaRepository<T> {
@@ -32,6 +36,12 @@ abstract class MariaRepository<T> {
         for (int i = 0; i < objects.length; i++) {
             if (objects[i] == null) {
                 ps.setObject(i + 1, objects[i]);
+            } else if (objects[i] instanceof byte[]) {
+                ps.setBytes(i + 1, (byte[]) objects[i]);
+            } else if (objects[i] instanceof Date) {
+                ps.setTimestamp(i + 1, toTimestamp(((Date) objects[i]).getTime()));
+            } else if (objects[i] instanceof Instant) {
+                ps.setTimestamp(i + 1, toTimestamp(((Instant) objects[i]).toEpochMilli()));
             } else {
                 ps.setString(i + 1, objects[i].toString());
             }
@@ -39,6 +49,17 @@ abstract class MariaRepository<T> {
         return ps;
     }
 
+    /**
+     * Converts epoch millis to timestamp to bind to {@code DATETIME} columns.
+     * Truncated to seconds, as the columns do not store fractional seconds
+     * and comparisons with them should not see the dropped part.
+     * @param epochMillis Epoch millis.
+     * @return Timestamp.
+     */
+    static Timestamp toTimestamp(long epochMillis) {
+        return new Timestamp(Math.floorDiv(epochMillis, 1000L) * 1000L);
+    }
+
     /**
      * Executes sql statement and handles exceptions.
      * Automatically handles connections.
@@ -120,6 +141,29 @@ abstract class MariaRepository<T> {
         }
     }
 
+    /**
+     * Converts UUID to the binary form, to bind to {@code BINARY(16)} columns.
+     * @param uuid UUID with or without hyphens.
+     * @return Binary form. null if the given UUID is null.
+     */
+    @Nullable
+    protected static byte[] toBinaryUUID(@Nullable String uuid) {
+        return uuid == null ? null : new UUID(uuid).toBytes();
+    }
+
+    /**
+     * Reads UUID from a {@code BINARY(16)} column.
+     * @param res Result set.
+     * @param columnIndex Column index.
+     * @return UUID with hyphens. null if the column was null.
+     * @throws SQLException on read exception.
+     */
+    @Nullable
+    protected static String getUUID(@NotNull ResultSet res, int columnIndex) throws SQLException {
+        byte[] data = res.getBytes(columnIndex);
+        return data == null ? null : new UUID(data).toStringWithHyphens();
+    }
+
     protected void logResponseException(SQLException e) {
         this.logger.logException("an exception occurred while reading from db response", e);
     }
@@ -11,22 +11,22 @@ import org.jetbrains.annotations.NotNull;
 import javax.annotation.Nullable;
 import java.sql.ResultSet;
 import java.sql.SQLException;
-import java.text.DateFormat;
-import java.text.SimpleDateFormat;
 import java.util.ArrayList;
 import java.util.Date;
 import java.util.List;
 import java.util.stream.Collectors;
 
 public class MariaTerritoryLogRepository extends MariaRepository<TerritoryLog> implements TerritoryLogRepository {
-    private static final DateFormat dbFormat = new SimpleDateFormat("yyyy-MM-dd HH:mm:ss");
-
     MariaTerritoryLogRepository(ConnectionPool db, Logger logger) {
         super(db, logger);
     }
 
     @Override
     protected TerritoryLog bind(@NotNull ResultSet res) throws SQLException {
+        return bindLog(res);
+    }
+
+    static TerritoryLog bindLog(@NotNull ResultSet res) throws SQLException {
         return new TerritoryLog(res.getInt(1), res.getString(2), res.getString(3), res.getString(4),
                 res.getInt(5), res.getInt(6), res.getTimestamp(7), res.getLong(8));
     }
@@ -105,26 +105,6 @@ public class MariaTerritoryLogRepository extends MariaRepository<TerritoryLog> i
         return -1;
     }
 
-    @Nullable
-    public List<TerritoryLog> findAllInRange(int oldId, int newId) {
-        ResultSet res = this.executeQuery(
-                "SELECT * FROM `territory_log` WHERE `id` > ? AND `id` <= ?",
-                oldId,
-                newId
-        );
-
-        if (res == null) {
-            return null;
-        }
-
-        try {
-            return bindAll(res);
-        } catch (SQLException e) {
-            this.logResponseException(e);
-            return null;
-        }
-    }
-
     @Nullable
     @Override
     public TerritoryLog findOne(@NotNull TerritoryLogId territoryLogId) {
@@ -237,8 +217,8 @@ public class MariaTerritoryLogRepository extends MariaRepository<TerritoryLog> i
         ResultSet res = this.executeQuery(
                 "SELECT `territory_name`, COUNT(*) FROM `territory_log`" +
                         " WHERE `acquired` >= ? AND `acquired` < ? GROUP BY `territory_name`",
-                dbFormat.format(start),
-                dbFormat.format(end)
+                start,
+                end
         );
 
         if (res == null) {
@@ -4,26 +4,21 @@ import db.ConnectionPool;
 import db.model.territory.Territory;
 import db.model.territory.TerritoryId;
 import db.model.territory.TerritoryRank;
+import db.model.territoryLog.TerritoryLog;
 import db.repository.base.TerritoryRepository;
 import log.Logger;
 import org.jetbrains.annotations.NotNull;
 
 import javax.annotation.CheckReturnValue;
 import javax.annotation.Nullable;
+import java.sql.Connection;
 import java.sql.ResultSet;
 import java.sql.SQLException;
-import java.text.DateFormat;
-import java.text.SimpleDateFormat;
-import java.util.ArrayList;
-import java.util.Collections;
-import java.util.Date;
-import java.util.List;
+import java.util.*;
 import java.util.stream.Collectors;
 import java.util.stream.Stream;
 
 class MariaTerritoryRepository extends MariaRepository<Territory> implements TerritoryRepository {
-    private static final DateFormat dbFormat = new SimpleDateFormat("yyyy-MM-dd HH:mm:ss");
-
     MariaTerritoryRepository(ConnectionPool db, Logger logger) {
         super(db, logger);
     }
@@ -42,7 +37,7 @@ class MariaTerritoryRepository extends MariaRepository<Territory> implements Ter
                         "(?, ?, ?, ?, ?, ?, ?, ?)",
                 entity.getName(),
                 entity.getGuild(),
-                dbFormat.format(entity.getAcquired()),
+                entity.getAcquired(),
                 entity.getAttacker(),
                 location.getStartX(),
                 location.getStartZ(),
@@ -109,6 +104,37 @@ class MariaTerritoryRepository extends MariaRepository<Territory> implements Ter
         return -1;
     }
 
+    @Nullable
+    @Override
+    public Map<String, Integer> countGuildTerritories(@NotNull Collection<String> guildNames) {
+        if (guildNames.isEmpty()) {
+            return new HashMap<>();
+        }
+
+        String placeHolder = "?";
+        ResultSet res = this.executeQuery(
+                "SELECT `guild_name`, COUNT(*) FROM `territory` WHERE `guild_name` IN (" +
+                        guildNames.stream().map(g -> placeHolder).collect(Collectors.joining(", ")) +
+                        ") GROUP BY `guild_name`",
+                guildNames.toArray()
+        );
+
+        if (res == null) {
+            return null;
+        }
+
+        try {
+            Map<String, Integer> ret = new HashMap<>();
+            while (res.next()) {
+                ret.put(res.getString(1), res.getInt(2));
+            }
+            return ret;
+        } catch (SQLException e) {
+            this.logResponseException(e);
+        }
+        return null;
+    }
+
     @Nullable
     @Override
     public List<Territory> getGuildTerritories(@NotNull String guildName) {
@@ -244,7 +270,7 @@ class MariaTerritoryRepository extends MariaRepository<Territory> implements Ter
         return this.execute(
                 "UPDATE `territory` SET `guild_name` = ?, `acquired` = ?, `attacker` = ?, `start_x` = ?, `start_z` = ?, `end_x` = ?, `end_z` = ? WHERE `name` = ?",
                 entity.getGuild(),
-                dbFormat.format(entity.getAcquired()),
+                entity.getAcquired(),
                 entity.getAttacker(),
                 location.getStartX(),
                 location.getStartZ(),
@@ -256,6 +282,92 @@ class MariaTerritoryRepository extends MariaRepository<Territory> implements Ter
 
     @CheckReturnValue
     public boolean updateAll(@NotNull List<Territory> territories) {
+        Connection connection = this.db.getConnection();
+        if (connection == null) {
+            return false;
+        }
+
+        try {
+            return this.updateAll(connection, territories);
+        } finally {
+            this.db.releaseConnection(connection);
+        }
+    }
+
+    @Nullable
+    @Override
+    public List<TerritoryLog> updateAllAndGetLogs(@NotNull List<Territory> territories) {
+        Connection connection = this.db.getConnection();
+        if (connection == null) {
+            return null;
+        }
+
+        try {
+            // ids of the logs inserted by the triggers are collected to this session variable while the flag is set
+            if (!this.execute(connection, "SET @territory_log_ids = NULL, @collect_territory_logs = TRUE")) {
+                return null;
+            }
+            if (!this.updateAll(connection, territories)) {
+                return null;
+            }
+
+            List<Integer> ids = this.getCollectedLogIds(connection);
+            if (ids == null) {
+                return null;
+            }
+            if (ids.isEmpty()) {
+                return new ArrayList<>();
+            }
+
+            ResultSet res = this.executeQuery(
+                    connection,
+                    "SELECT * FROM `territory_log` WHERE `id` IN (" +
+                            ids.stream().map(i -> "?").collect(Collectors.joining(", ")) +
+                            ") ORDER BY `id`",
+                    ids.toArray()
+            );
+            if (res == null) {
+                return null;
+            }
+
+            List<TerritoryLog> ret = new ArrayList<>();
+            while (res.next()) {
+                ret.add(MariaTerritoryLogRepository.bindLog(res));
+            }
+            return ret;
+        } catch (SQLException e) {
+            this.logResponseException(e);
+            return null;
+        } finally {
+            // stop collecting before the connection is returned to the pool
+            if (!this.execute(connection, "SET @territory_log_ids = NULL, @collect_territory_logs = NULL")) {
+                this.logger.log(0, "Failed to stop collecting territory log ids");
+            }
+            this.db.releaseConnection(connection);
+        }
+    }
+
+    @Nullable
+    private List<Integer> getCollectedLogIds(@NotNull Connection connection) throws SQLException {
+        ResultSet res = this.executeQuery(connection, "SELECT @territory_log_ids");
+        if (res == null) {
+            return null;
+        }
+
+        List<Integer> ids = new ArrayList<>();
+        if (res.next()) {
+            String collected = res.getString(1);
+            if (collected != null && !collected.isEmpty()) {
+                for (String id : collected.split(",")) {
+                    ids.add(Integer.parseInt(id));
+                }
+            }
+        }
+        return ids;
+    }
+
+    @CheckReturnValue
+    private boolean updateAll(@NotNull Connection connection, @NotNull List<Territory> territories) {
         // assume no territory deletion
         if (territories.isEmpty()) {
             return true;
@@ -263,6 +375,7 @@ class MariaTerritoryRepository extends MariaRepository<Territory> implements Ter
 
         String placeHolder = "(?, ?, ?, ?, ?, ?, ?, ?)";
         return this.execute(
+                connection,
                 "INSERT INTO `territory` (`name`, `guild_name`, `acquired`, `attacker`, `start_x`, `start_z`, `end_x`, `end_z`) " +
                         "VALUES " + String.join(", ", Collections.nCopies(territories.size(), placeHolder)) +
                         " ON DUPLICATE KEY UPDATE `guild_name` = VALUES(`guild_name`), `acquired` = VALUES(`acquired`), `attacker` = VALUES(`attacker`), " +
@@ -272,7 +385,7 @@ class MariaTerritoryRepository extends MariaRepository<Territory> implements Ter
                     return Stream.of(
                             t.getName(),
                             t.getGuild(),
-                            dbFormat.format(t.getAcquired()),
+                            t.getAcquired(),
                             t.getAttacker(),
                             location.getStartX(),
                             location.getStartZ(),
@@ -11,13 +11,9 @@ import org.jetbrains.annotations.Nullable;
 
 import java.sql.ResultSet;
 import java.sql.SQLException;
-import java.text.DateFormat;
-import java.text.SimpleDateFormat;
 import java.util.List;
 
 class MariaTrackChannelRepository extends MariaRepository<TrackChannel> implements TrackChannelRepository {
-    private static final DateFormat dbFormat = new SimpleDateFormat("yyyy-MM-dd HH:mm:ss");
-
     MariaTrackChannelRepository(ConnectionPool db, Logger logger) {
         super(db, logger);
     }
@@ -28,7 +24,7 @@ class MariaTrackChannelRepository extends MariaRepository<TrackChannel> implemen
                 res.getLong(6), res.getTimestamp(7)
         );
         instance.setGuildName(res.getString(4));
-        instance.setPlayerUUID(res.getString(5));
+        instance.setPlayerUUID(getUUID(res, 5));
         return instance;
     }
 
@@ -40,9 +36,9 @@ class MariaTrackChannelRepository extends MariaRepository<TrackChannel> implemen
                 entity.getGuildId(),
                 entity.getChannelId(),
                 entity.getGuildName(),
-                entity.getPlayerUUID(),
+                toBinaryUUID(entity.getPlayerUUID()),
                 entity.getUserId(),
-                dbFormat.format(entity.getExpiresAt())
+                entity.getExpiresAt()
         );
     }
 
@@ -54,7 +50,7 @@ class MariaTrackChannelRepository extends MariaRepository<TrackChannel> implemen
                 id.getGuildId(),
                 id.getChannelId(),
                 id.getGuildName(),
-                id.getPlayerUUID()
+                toBinaryUUID(id.getPlayerUUID())
         );
         if (res == null) return false;
 
@@ -89,7 +85,7 @@ class MariaTrackChannelRepository extends MariaRepository<TrackChannel> implemen
                 id.getGuildId(),
                 id.getChannelId(),
                 id.getGuildName(),
-                id.getPlayerUUID()
+                toBinaryUUID(id.getPlayerUUID())
         );
         if (res == null) return null;
 
@@ -143,7 +139,7 @@ class MariaTrackChannelRepository extends MariaRepository<TrackChannel> implemen
     public @Nullable List<TrackChannel> findAllOfPlayerUUIDAndType(String playerUUID, TrackType type) {
         ResultSet res = this.executeQuery(
                 "SELECT * FROM `track_channel` WHERE `player_uuid` = ? AND `type` = ?",
-                playerUUID,
+                toBinaryUUID(playerUUID),
                 type
         );
 
@@ -195,12 +191,12 @@ class MariaTrackChannelRepository extends MariaRepository<TrackChannel> implemen
         return this.execute(
                 "UPDATE `track_channel` SET `user_id` = ?, `expires_at` = ? WHERE `type` = ? AND `guild_id` = ? AND `channel_id` = ? AND `guild_name` <=> ? AND `player_uuid` <=> ?",
                 entity.getUserId(),
-                dbFormat.format(entity.getExpiresAt()),
+                entity.getExpiresAt(),
                 entity.getType(),
                 entity.getGuildId(),
                 entity.getChannelId(),
                 entity.getGuildName(),
-                entity.getPlayerUUID()
+                toBinaryUUID(entity.getPlayerUUID())
         );
     }
 
@@ -212,7 +208,7 @@ class MariaTrackChannelRepository extends MariaRepository<TrackChannel> implemen
                 id.getGuildId(),
                 id.getChannelId(),
                 id.getGuildName(),
-                id.getPlayerUUID()
+                toBinaryUUID(id.getPlayerUUID())
         );
     }
 
@@ -12,15 +12,11 @@ import javax.annotation.Nullable;
 import java.sql.Connection;
 import java.sql.ResultSet;
 import java.sql.SQLException;
-import java.text.DateFormat;
-import java.text.SimpleDateFormat;
 import java.util.ArrayList;
 import java.util.List;
 import java.util.stream.Collectors;
 
 class MariaWarLogRepository extends MariaRepository<WarLog> implements WarLogRepository {
-    private static final DateFormat dbFormat = new SimpleDateFormat("yyyy-MM-dd HH:mm:ss");
-
     private final MariaWarPlayerRepository warPlayerRepository;
 
     MariaWarLogRepository(ConnectionPool db, Logger logger, MariaWarPlayerRepository warPlayerRepository) {
@@ -59,8 +55,8 @@ class MariaWarLogRepository extends MariaRepository<WarLog> implements WarLogRep
                     "INSERT INTO `war_log` (server_name, guild_name, created_at, last_up, ended, log_ended) VALUES (?, ?, ?, ?, ?, ?)",
                     entity.getServerName(),
                     entity.getGuildName(),
-                    dbFormat.format(entity.getCreatedAt()),
-                    dbFormat.format(entity.getLastUp()),
+                    entity.getCreatedAt(),
+                    entity.getLastUp(),
                     entity.isEnded() ? 1 : 0,
                     entity.isLogEnded() ? 1 : 0
             );
@@ -265,8 +261,8 @@ class MariaWarLogRepository extends MariaRepository<WarLog> implements WarLogRep
                     "UPDATE `war_log` SET `server_name` = ?, `guild_name` = ?, `created_at` = ?, `last_up` = ?, `ended` = ?, `log_ended` = ? WHERE `id` = ?",
                     entity.getServerName(),
                     entity.getGuildName(),
-                    dbFormat.format(entity.getCreatedAt()),
-                    dbFormat.format(entity.getLastUp()),
+                    entity.getCreatedAt(),
+                    entity.getLastUp(),
                     entity.isEnded() ? 1 : 0,
                     entity.isLogEnded() ? 1 : 0,
                     entity.getId()
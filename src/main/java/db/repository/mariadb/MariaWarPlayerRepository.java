@@ -1,6 +1,8 @@
 package db.repository.mariadb;
 
 import db.ConnectionPool;
+import db.model.warPlayer.PlayerUUIDRange;
+import db.model.warPlayer.UUIDNullPlayer;
 import db.model.warPlayer.WarPlayer;
 import db.model.warPlayer.WarPlayerId;
 import db.repository.base.WarPlayerRepository;
@@ -12,21 +14,20 @@ import javax.annotation.Nullable;
 import java.sql.Connection;
 import java.sql.ResultSet;
 import java.sql.SQLException;
-import java.text.DateFormat;
-import java.text.SimpleDateFormat;
+import java.util.ArrayList;
+import java.util.Collections;
 import java.util.Date;
 import java.util.List;
+import java.util.stream.Stream;
 
 class MariaWarPlayerRepository extends MariaRepository<WarPlayer> implements WarPlayerRepository {
-    private static final DateFormat dbFormat = new SimpleDateFormat("yyyy-MM-dd HH:mm:ss");
-
     MariaWarPlayerRepository(ConnectionPool db, Logger logger) {
         super(db, logger);
     }
 
     @Override
     protected WarPlayer bind(@NotNull ResultSet res) throws SQLException {
-        return new WarPlayer(res.getInt(1), res.getString(2), res.getString(3), res.getBoolean(4));
+        return new WarPlayer(res.getInt(1), res.getString(2), getUUID(res, 3), res.getBoolean(4));
     }
 
     @Override
@@ -35,7 +36,7 @@ class MariaWarPlayerRepository extends MariaRepository<WarPlayer> implements War
                 "INSERT INTO `war_player` (war_log_id, player_name, player_uuid, exited) VALUES (?, ?, ?, ?)",
                 entity.getWarLogId(),
                 entity.getPlayerName(),
-                entity.getPlayerUUID(),
+                toBinaryUUID(entity.getPlayerUUID()),
                 entity.hasExited() ? 1 : 0
         );
     }
@@ -49,7 +50,7 @@ class MariaWarPlayerRepository extends MariaRepository<WarPlayer> implements War
                 "INSERT INTO `war_player` (war_log_id, player_name, player_uuid, exited) VALUES (?, ?, ?, ?)",
                 entity.getWarLogId(),
                 entity.getPlayerName(),
-                entity.getPlayerUUID(),
+                toBinaryUUID(entity.getPlayerUUID()),
                 entity.hasExited() ? 1 : 0
         );
     }
@@ -144,7 +145,7 @@ class MariaWarPlayerRepository extends MariaRepository<WarPlayer> implements War
     public int countOfPlayer(UUID playerUUID) {
         ResultSet res = this.executeQuery(
                 "SELECT COUNT(*) FROM `war_player` WHERE `player_uuid` = ?",
-                playerUUID.toStringWithHyphens()
+                playerUUID.toBytes()
         );
 
         if (res == null) {
@@ -169,7 +170,7 @@ class MariaWarPlayerRepository extends MariaRepository<WarPlayer> implements War
                         "AND g.war_log_id = wp.war_log_id " +
                         "AND wp.player_uuid = ?",
                 guildName,
-                playerUUID.toStringWithHyphens()
+                playerUUID.toBytes()
         );
 
         if (res == null) {
@@ -189,7 +190,7 @@ class MariaWarPlayerRepository extends MariaRepository<WarPlayer> implements War
         ResultSet res = this.executeQuery(
                 "SELECT COUNT(*) FROM `war_player` p JOIN `guild_war_log` gwl ON p.player_uuid = ?" +
                         " AND p.war_log_id = gwl.war_log_id WHERE gwl.territory_log_id IS NOT NULL",
-                playerUUID.toStringWithHyphens()
+                playerUUID.toBytes()
         );
 
         if (res == null) {
@@ -214,7 +215,7 @@ class MariaWarPlayerRepository extends MariaRepository<WarPlayer> implements War
                         "AND g.war_log_id = wp.war_log_id " +
                         "AND wp.player_uuid = ?",
                 guildName,
-                playerUUID.toStringWithHyphens()
+                playerUUID.toBytes()
         );
 
         if (res == null) {
@@ -234,7 +235,7 @@ class MariaWarPlayerRepository extends MariaRepository<WarPlayer> implements War
         ResultSet res = this.executeQuery(
                 "SELECT COUNT(*) FROM `war_player` p JOIN `guild_war_log` gwl ON p.player_uuid = ?" +
                         " AND p.exited = 0 AND p.war_log_id = gwl.war_log_id WHERE gwl.territory_log_id IS NOT NULL",
-                playerUUID.toStringWithHyphens()
+                playerUUID.toBytes()
         );
 
         if (res == null) {
@@ -259,7 +260,7 @@ class MariaWarPlayerRepository extends MariaRepository<WarPlayer> implements War
                         "AND g.war_log_id = wp.war_log_id " +
                         "AND wp.player_uuid = ?",
                 guildName,
-                playerUUID.toStringWithHyphens()
+                playerUUID.toBytes()
         );
 
         if (res == null) {
@@ -279,7 +280,7 @@ class MariaWarPlayerRepository extends MariaRepository<WarPlayer> implements War
     public List<WarPlayer> getLogsOfPlayer(UUID playerUUID, int limit, int offset) {
         ResultSet res = this.executeQuery(
                 "SELECT * FROM `war_player` WHERE `player_uuid` = ? ORDER BY `war_log_id` DESC LIMIT " + limit + " OFFSET " + offset,
-                playerUUID.toStringWithHyphens()
+                playerUUID.toBytes()
         );
 
         if (res == null) {
@@ -305,7 +306,7 @@ class MariaWarPlayerRepository extends MariaRepository<WarPlayer> implements War
                         "AND wp.player_uuid = ? " +
                         "ORDER BY g.id DESC LIMIT " + limit + " OFFSET " + offset,
                 guildName,
-                playerUUID.toStringWithHyphens()
+                playerUUID.toBytes()
         );
 
         if (res == null) {
@@ -320,11 +321,35 @@ class MariaWarPlayerRepository extends MariaRepository<WarPlayer> implements War
         }
     }
 
+    @Override
+    public int getNextUUIDNullWarLogId(int afterWarLogId) {
+        ResultSet res = this.executeQuery(
+                "SELECT MIN(`war_log_id`) FROM `war_player` WHERE `player_uuid` IS NULL AND `war_log_id` > ?",
+                afterWarLogId
+        );
+
+        if (res == null) {
+            return -1;
+        }
+
+        try {
+            if (res.next())
+                return res.getInt(1);
+        } catch (SQLException e) {
+            this.logResponseException(e);
+        }
+        return -1;
+    }
+
     @Nullable
     @Override
-    public WarPlayer getUUIDNullPlayer(int offset) {
+    public List<UUIDNullPlayer> getUUIDNullPlayers(int afterWarLogId, int toWarLogId) {
         ResultSet res = this.executeQuery(
-                "SELECT * FROM `war_player` WHERE `player_uuid` IS NULL ORDER BY `war_log_id` LIMIT 1 OFFSET " + offset
+                "SELECT p.`player_name`, MIN(p.`war_log_id`), MIN(l.`created_at`) FROM `war_player` p " +
+                        "JOIN `war_log` l ON l.`id` = p.`war_log_id` " +
+                        "WHERE p.`player_uuid` IS NULL AND p.`war_log_id` > ? AND p.`war_log_id` <= ? " +
+                        "GROUP BY p.`player_name`",
+                afterWarLogId, toWarLogId
         );
 
         if (res == null) {
@@ -332,18 +357,21 @@ class MariaWarPlayerRepository extends MariaRepository<WarPlayer> implements War
         }
 
         try {
-            if (res.next())
-                return bind(res);
+            List<UUIDNullPlayer> ret = new ArrayList<>();
+            while (res.next()) {
+                ret.add(new UUIDNullPlayer(res.getString(1), res.getInt(2), res.getTimestamp(3)));
+            }
+            return ret;
         } catch (SQLException e) {
             this.logResponseException(e);
+            return null;
         }
-        return null;
     }
 
     private int getFirstWarLogIdAfter(@NotNull Date date) {
         ResultSet res = this.executeQuery(
                 "SELECT first_war_log_id_after(?)",
-                dbFormat.format(date)
+                date
         );
 
         if (res == null) {
@@ -369,15 +397,73 @@ class MariaWarPlayerRepository extends MariaRepository<WarPlayer> implements War
 
         return this.execute(
                 "UPDATE `war_player` SET `player_uuid` = ? WHERE `player_name` = ? AND `war_log_id` >= ? AND `war_log_id` < ?",
-                uuid.toStringWithHyphens(), playerName, first, last
+                uuid.toBytes(), playerName, first, last
         );
     }
 
+    @Override
+    public boolean updatePlayerUUIDsBetween(List<PlayerUUIDRange> ranges) {
+        if (ranges.isEmpty()) {
+            return true;
+        }
+
+        Connection connection = this.db.getConnection();
+        if (connection == null) {
+            return false;
+        }
+
+        try {
+            connection.setAutoCommit(false);
+
+            // Resolve all war log id boundaries at once
+            ResultSet res = this.executeQuery(connection,
+                    "SELECT " + String.join(", ", Collections.nCopies(ranges.size() * 2, "first_war_log_id_after(?)")),
+                    ranges.stream().flatMap(r -> Stream.of(
+                            r.getStart(),
+                            r.getEnd()
+                    )).toArray()
+            );
+            if (res == null || !res.next()) {
+                throw new SQLException("Failed to get first war log ids");
+            }
+
+            for (int i = 0; i < ranges.size(); i++) {
+                PlayerUUIDRange range = ranges.get(i);
+                int first = res.getInt(2 * i + 1);
+                int last = res.getInt(2 * i + 2);
+                boolean updated = this.execute(connection,
+                        "UPDATE `war_player` SET `player_uuid` = ? WHERE `player_name` = ? AND `war_log_id` >= ? AND `war_log_id` < ?",
+                        range.getUuid().toBytes(), range.getPlayerName(), first, last
+                );
+                if (!updated) {
+                    throw new SQLException("Failed to update war_player");
+                }
+            }
+            return true;
+        } catch (SQLException e) {
+            this.logResponseException(e);
+            try {
+                connection.rollback();
+            } catch (SQLException ex) {
+                this.logger.logException("Something went wrong while rolling back changes", ex);
+            }
+            return false;
+        } finally {
+            try {
+                connection.setAutoCommit(true);
+            } catch (SQLException e) {
+                this.logger.logException("Something went wrong while setting auto commit back on", e);
+            }
+
+            this.db.releaseConnection(connection);
+        }
+    }
+
     @Override
     public boolean update(@NotNull WarPlayer entity) {
         return this.execute(
                 "UPDATE `war_player` SET `player_uuid` = ?, `exited` = ? WHERE `war_log_id` = ? AND `player_name` = ?",
-                entity.getPlayerUUID(),
+                toBinaryUUID(entity.getPlayerUUID()),
                 entity.hasExited() ? 1 : 0,
                 entity.getWarLogId(),
                 entity.getPlayerName()
@@ -391,7 +477,7 @@ class MariaWarPlayerRepository extends MariaRepository<WarPlayer> implements War
     boolean update(@NotNull Connection connection, @NotNull WarPlayer entity) {
         return this.execute(connection,
                 "UPDATE `war_player` SET `player_uuid` = ?, `exited` = ? WHERE `war_log_id` = ? AND `player_name` = ?",
-                entity.getPlayerUUID(),
+                toBinaryUUID(entity.getPlayerUUID()),
                 entity.hasExited() ? 1 : 0,
                 entity.getWarLogId(),
                 entity.getPlayerName()
@@ -11,15 +11,11 @@ import javax.annotation.CheckReturnValue;
 import javax.annotation.Nullable;
 import java.sql.ResultSet;
 import java.sql.SQLException;
-import java.text.DateFormat;
-import java.text.SimpleDateFormat;
 import java.util.*;
 import java.util.stream.Collectors;
 import java.util.stream.Stream;
 
 class MariaWorldRepository extends MariaRepository<World> implements WorldRepository {
-    private static final DateFormat dbFormat = new SimpleDateFormat("yyyy-MM-dd HH:mm:ss");
-
     MariaWorldRepository(ConnectionPool db, Logger logger) {
         super(db, logger);
     }
@@ -39,8 +35,8 @@ class MariaWorldRepository extends MariaRepository<World> implements WorldReposi
                 "INSERT INTO `world` (`name`, `players`, `created_at`, `updated_at`) VALUES (?, ?, ?, ?)",
                 entity.getName(),
                 entity.getPlayers(),
-                dbFormat.format(entity.getCreatedAt()),
-                dbFormat.format(entity.getUpdatedAt())
+                entity.getCreatedAt(),
+                entity.getUpdatedAt()
         );
     }
 
@@ -137,44 +133,13 @@ class MariaWorldRepository extends MariaRepository<World> implements WorldReposi
         }
     }
 
-    @Nullable
-    public List<World> findAllMainWorlds() {
-        ResultSet res = this.executeQuery("SELECT * FROM `world` WHERE `name` LIKE 'WC%' OR `name` LIKE 'EU%'");
-
-        if (res == null) return null;
-
-        try {
-            return bindAll(res);
-        } catch (SQLException e) {
-            this.logResponseException(e);
-        }
-        return null;
-    }
-
-    @Nullable
-    @Override
-    public List<World> findAllWarWorlds() {
-        ResultSet res = this.executeQuery("SELECT * FROM `world` WHERE `name` LIKE 'WAR%'");
-
-        if (res == null) {
-            return null;
-        }
-
-        try {
-            return bindAll(res);
-        } catch (SQLException e) {
-            this.logResponseException(e);
-        }
-        return null;
-    }
-
     @Override
     public boolean update(@NotNull World entity) {
         return this.execute(
                 "UPDATE `world` SET `players` = ?, `created_at` = ?, `updated_at` = ? WHERE `name` = ?",
                 entity.getPlayers(),
-                dbFormat.format(entity.getCreatedAt()),
-                dbFormat.format(entity.getUpdatedAt()),
+                entity.getCreatedAt(),
+                entity.getUpdatedAt(),
                 entity.getName()
         );
     }
@@ -212,8 +177,8 @@ class MariaWorldRepository extends MariaRepository<World> implements WorldReposi
                 worlds.stream().flatMap(w -> Stream.of(
                         w.getName(),
                         w.getPlayers(),
-                        dbFormat.format(w.getCreatedAt()),
-                        dbFormat.format(w.getUpdatedAt())
+                        w.getCreatedAt(),
+                        w.getUpdatedAt()
                 )).toArray()
         );
     }
@@ -26,6 +26,9 @@ public class HeartBeat extends StoppableThread {
         addTask(new GuildLeaderboardTracker(bot));
         addTask(new TrackingManager(bot));
         addTask(new PlayerUUIDRetriever(bot));
+        addTask(new ItemDBRefresher(bot));
+        addTask(new CacheSnapshotWriter(bot));
+        addTask(new HttpPoolMonitor(bot));
     }
 
     private void addTask(TaskBase task) {
@@ -0,0 +1,39 @@
+package heartbeat.tasks;
+
+import app.Bot;
+import heartbeat.base.TaskBase;
+import org.jetbrains.annotations.NotNull;
+import utils.cache.CacheSnapshot;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Periodically writes API caches to disk, so that they can be restored on the next restart.
+ */
+public class CacheSnapshotWriter implements TaskBase {
+    private final CacheSnapshot cacheSnapshot;
+
+    public CacheSnapshotWriter(Bot bot) {
+        this.cacheSnapshot = bot.getCacheSnapshot();
+    }
+
+    @Override
+    public @NotNull String getName() {
+        return "Cache Snapshot Writer";
+    }
+
+    @Override
+    public void run() {
+        this.cacheSnapshot.save();
+    }
+
+    @Override
+    public long getFirstDelay() {
+        return TimeUnit.MINUTES.toMillis(5);
+    }
+
+    @Override
+    public long getInterval() {
+        return TimeUnit.MINUTES.toMillis(5);
+    }
+}
@@ -161,88 +161,72 @@ public class GuildLeaderboardTracker implements TaskBase {
         return true;
     }
 
-    private static class GuildHistory {
-        private final Map<String, List<GuildLeaderboard>> history;
-
-        GuildHistory() {
-            this.history = new HashMap<>();
-        }
-
-        private void add(GuildLeaderboard l) {
-            if (!history.containsKey(l.getName())) {
-                history.put(l.getName(), new ArrayList<>());
-            }
-            history.get(l.getName()).add(l);
-        }
-
-        private void sortByAscendingTime() {
-            history.forEach((guild, leaderboardHistory) -> leaderboardHistory.sort(Comparator.comparingLong(l -> l.getUpdatedAt().getTime())));
-        }
-
-        private long getXpDiff(String guildName) {
-            List<GuildLeaderboard> leaderboardHistory = history.get(guildName);
-            if (leaderboardHistory == null || leaderboardHistory.isEmpty()) {
-                return 0L;
-            }
-
-            GuildLeaderboard first = leaderboardHistory.get(0);
-            GuildLeaderboard last = leaderboardHistory.get(leaderboardHistory.size() - 1);
-
-            // If the level stayed the same, simple case
-            if (first.getLevel() == last.getLevel()) {
-                return last.getXp() - first.getXp();
-            }
-            // Else, go through the history to calculate xp diff
-            long xp = 0;
-            for (int i = 0; i < leaderboardHistory.size() - 1; i++) {
-                GuildLeaderboard old = leaderboardHistory.get(i);
-                GuildLeaderboard next = leaderboardHistory.get(i + 1);
-                if (old.getLevel() == next.getLevel()) {
-                    xp += (next.getXp() - old.getXp());
-                } else if (old.getLevel() < next.getLevel()) {
-                    // On level up, we do not know the max xp for that level so just calculate from the newer xp
-                    // this is one reason the xp leaderboard is not accurate
-                    xp += next.getXp();
-                }
+    /**
+     * Calculates xp gained by a guild from its leaderboard history.
+     * @param history Leaderboard history of a guild, sorted by ascending 'updated at'.
+     * @return Gained xp.
+     */
+    private static long getXpDiff(List<GuildLeaderboard> history) {
+        long xp = 0;
+        for (int i = 0; i < history.size() - 1; i++) {
+            GuildLeaderboard old = history.get(i);
+            GuildLeaderboard next = history.get(i + 1);
+            if (old.getLevel() == next.getLevel()) {
+                xp += (next.getXp() - old.getXp());
+            } else if (old.getLevel() < next.getLevel()) {
+                // On level up, we do not know the max xp for that level so just calculate from the newer xp
+                // this is one reason the xp leaderboard is not accurate
+                xp += next.getXp();
             }
-            return xp;
         }
+        return xp;
     }
 
     /**
      * Updates `guild_xp_leaderboard` table.
      */
     private void updateXpLeaderboard() {
-        List<GuildLeaderboard> all = this.guildLeaderboardRepository.findAll();
-        if (all == null) {
+        // Only the oldest and newest entries are needed unless a guild leveled up in between
+        List<GuildLeaderboard> oldestAndNewest = this.guildLeaderboardRepository.findOldestAndNewestOfEachGuild();
+        if (oldestAndNewest == null) {
             return;
         }
 
-        GuildHistory guildHistory = new GuildHistory();
-        all.forEach(guildHistory::add);
-        guildHistory.sortByAscendingTime();
+        Map<String, List<GuildLeaderboard>> endpoints = new HashMap<>();
+        for (GuildLeaderboard l : oldestAndNewest) {
+            endpoints.computeIfAbsent(l.getName(), k -> new ArrayList<>(2)).add(l);
+        }
 
         List<GuildXpLeaderboard> xpLeaderboard = new ArrayList<>();
-        for (String guildName : guildHistory.history.keySet()) {
-            long xpDiff = guildHistory.getXpDiff(guildName);
+        for (Map.Entry<String, List<GuildLeaderboard>> e : endpoints.entrySet()) {
+            String guildName = e.getKey();
+            List<GuildLeaderboard> leaderboard = e.getValue();
+            GuildLeaderboard first = leaderboard.get(0);
+            GuildLeaderboard last = leaderboard.get(leaderboard.size() - 1);
+
+            long xpDiff;
+            if (first.getLevel() == last.getLevel()) {
+                // If the level stayed the same, simple case
+                xpDiff = last.getXp() - first.getXp();
+            } else {
+                List<GuildLeaderboard> history = this.guildLeaderboardRepository.findAllOfGuild(guildName);
+                if (history == null) {
+                    this.logger.log(0, "Guild Leaderboard Tracker: Failed to retrieve leaderboard history of " + guildName);
+                    return;
+                }
+                xpDiff = getXpDiff(history);
+            }
             if (xpDiff == 0L) {
                 continue;
             }
 
-            List<GuildLeaderboard> leaderboard = guildHistory.history.get(guildName);
-            GuildLeaderboard first = leaderboard.get(0);
-            GuildLeaderboard last = leaderboard.get(leaderboard.size() - 1);
             xpLeaderboard.add(new GuildXpLeaderboard(
                     guildName, last.getPrefix(), last.getLevel(), last.getXp(),
                     xpDiff, first.getUpdatedAt(), last.getUpdatedAt()
             ));
         }
 
-        boolean res = this.guildXpLeaderboardRepository.truncateTable();
-        if (!res) {
-            this.logger.log(0, "Guild Leaderboard Tracker: Failed to truncate guild xp leaderboard");
-        }
-        res = this.guildXpLeaderboardRepository.createAll(xpLeaderboard);
+        boolean res = this.guildXpLeaderboardRepository.replaceAll(xpLeaderboard);
         if (!res) {
             this.logger.log(0, "Guild Leaderboard Tracker: Failed to update guild xp leaderboard");
         }
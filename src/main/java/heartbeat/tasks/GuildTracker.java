@@ -4,6 +4,7 @@ import api.wynn.WynnApi;
 import api.wynn.structs.GuildList;
 import api.wynn.structs.WynnGuild;
 import app.Bot;
+import db.model.dateFormat.CustomFormat;
 import db.model.guild.Guild;
 import db.model.timezone.CustomTimeZone;
 import db.model.track.TrackChannel;
@@ -18,7 +19,6 @@ import net.dv8tion.jda.api.entities.TextChannel;
 import net.dv8tion.jda.api.sharding.ShardManager;
 import org.jetbrains.annotations.NotNull;
 
-import java.text.DateFormat;
 import java.util.HashSet;
 import java.util.List;
 import java.util.Map;
@@ -136,20 +136,20 @@ public class GuildTracker implements TaskBase {
         );
 
         for (TrackChannel trackChannel : trackChannels) {
-            DateFormat dateFormat = this.dateFormatRepository.getDateFormat(
+            CustomFormat customFormat = this.dateFormatRepository.getDateFormat(
                     trackChannel.getGuildId(),
                     trackChannel.getChannelId()
-            ).getDateFormat().getSecondFormat();
+            ).getDateFormat();
             CustomTimeZone customTimeZone = this.timeZoneRepository.getTimeZone(
                     trackChannel.getGuildId(),
                     trackChannel.getChannelId()
             );
-            dateFormat.setTimeZone(customTimeZone.getTimeZoneInstance());
 
             String message = String.format(
                     "%s\n    Created At: `%s` (%s)\n%s",
                     messageBase1,
-                    dateFormat.format(guild.getCreated()), customTimeZone.getFormattedTime(),
+                    customFormat.formatSecond(guild.getCreated(), customTimeZone.getTimeZoneInstance()),
+                    customTimeZone.getFormattedTime(),
                     messageBase2
             );
 
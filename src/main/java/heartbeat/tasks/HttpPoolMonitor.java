@@ -0,0 +1,65 @@
+package heartbeat.tasks;
+
+import app.Bot;
+import heartbeat.base.TaskBase;
+import log.Logger;
+import org.jetbrains.annotations.NotNull;
+import utils.HttpUtils;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Periodically logs HTTP connection pool usage, and warns if requests had to wait long for a pooled connection.
+ */
+public class HttpPoolMonitor implements TaskBase {
+    private static final long WARN_AVERAGE_LEASE_WAIT = TimeUnit.MILLISECONDS.toNanos(100);
+
+    private final Logger logger;
+
+    private long lastLeases;
+    private long lastLeaseWaitNanos;
+    private long lastLeaseTimeouts;
+
+    public HttpPoolMonitor(Bot bot) {
+        this.logger = bot.getLogger();
+    }
+
+    @Override
+    public @NotNull String getName() {
+        return "HTTP Pool Monitor";
+    }
+
+    @Override
+    public void run() {
+        HttpUtils.PoolMetrics metrics = HttpUtils.getPoolMetrics();
+        long leases = metrics.getLeases() - this.lastLeases;
+        long leaseWaitNanos = metrics.getLeaseWaitNanos() - this.lastLeaseWaitNanos;
+        long leaseTimeouts = metrics.getLeaseTimeouts() - this.lastLeaseTimeouts;
+        this.lastLeases = metrics.getLeases();
+        this.lastLeaseWaitNanos = metrics.getLeaseWaitNanos();
+        this.lastLeaseTimeouts = metrics.getLeaseTimeouts();
+
+        long averageLeaseWait = leases == 0 ? 0 : leaseWaitNanos / leases;
+        String message = String.format(
+                "HTTP Pool Monitor: leased %s, available %s, pending %s, max %s / " +
+                        "%s leases, average lease wait %s ms, %s lease timeouts in the last interval",
+                metrics.getLeased(), metrics.getAvailable(), metrics.getPending(), metrics.getMax(),
+                leases, (double) averageLeaseWait / 1_000_000d, leaseTimeouts
+        );
+        if (leaseTimeouts > 0 || averageLeaseWait > WARN_AVERAGE_LEASE_WAIT) {
+            this.logger.log(0, message);
+        } else {
+            this.logger.debug(message);
+        }
+    }
+
+    @Override
+    public long getFirstDelay() {
+        return TimeUnit.MINUTES.toMillis(1);
+    }
+
+    @Override
+    public long getInterval() {
+        return TimeUnit.MINUTES.toMillis(1);
+    }
+}
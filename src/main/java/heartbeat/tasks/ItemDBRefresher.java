@@ -0,0 +1,45 @@
+package heartbeat.tasks;
+
+import api.wynn.WynnApi;
+import app.Bot;
+import heartbeat.base.TaskBase;
+import log.Logger;
+import org.jetbrains.annotations.NotNull;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Loads the item DB on startup, and refreshes it periodically,
+ * so that item commands never have to wait for the download.
+ */
+public class ItemDBRefresher implements TaskBase {
+    private final Logger logger;
+    private final WynnApi wynnApi;
+
+    public ItemDBRefresher(Bot bot) {
+        this.logger = bot.getLogger();
+        this.wynnApi = new WynnApi(bot.getLogger());
+    }
+
+    @Override
+    public @NotNull String getName() {
+        return "Item DB Refresher";
+    }
+
+    @Override
+    public void run() {
+        if (!this.wynnApi.refreshItemDB()) {
+            this.logger.log(0, "Item DB Refresher: Failed to refresh item DB, keeping the last one");
+        }
+    }
+
+    @Override
+    public long getFirstDelay() {
+        return TimeUnit.SECONDS.toMillis(5);
+    }
+
+    @Override
+    public long getInterval() {
+        return TimeUnit.HOURS.toMillis(1);
+    }
+}
@@ -3,9 +3,11 @@ package heartbeat.tasks;
 import api.mojang.MojangApi;
 import api.mojang.structs.NullableUUID;
 import api.wynn.WynnApi;
-import api.wynn.structs.OnlinePlayers;
+import api.wynn.structs.OnlineSnapshot;
 import api.wynn.structs.Player;
 import app.Bot;
+import db.WorldCache;
+import db.model.dateFormat.CustomFormat;
 import db.model.playerNumber.PlayerNumber;
 import db.model.track.TrackChannel;
 import db.model.track.TrackType;
@@ -13,6 +15,7 @@ import db.model.warLog.WarLog;
 import db.model.warPlayer.WarPlayer;
 import db.model.warTrack.WarTrack;
 import db.model.world.World;
+import db.model.world.WorldSnapshot;
 import db.repository.base.*;
 import heartbeat.base.TaskBase;
 import log.Logger;
@@ -25,8 +28,11 @@ import utils.FormatUtils;
 import utils.UUID;
 
 import java.sql.Timestamp;
-import java.text.DateFormat;
-import java.text.SimpleDateFormat;
+import java.time.Instant;
+import java.time.LocalDate;
+import java.time.ZoneId;
+import java.time.ZonedDateTime;
+import java.time.format.DateTimeFormatter;
 import java.util.*;
 import java.util.concurrent.TimeUnit;
 import java.util.regex.Pattern;
@@ -44,6 +50,7 @@ public class PlayerTracker implements TaskBase {
 
     private final long playerTrackerChannelId;
 
+    private final WorldCache worldCache;
     private final WorldRepository worldRepository;
     private final TrackChannelRepository trackChannelRepository;
     private final TimeZoneRepository timeZoneRepository;
@@ -53,6 +60,10 @@ public class PlayerTracker implements TaskBase {
     private final WarLogRepository warLogRepository;
     private final WarTrackRepository warTrackRepository;
 
+    // last processed snapshot, the API returns the same instance while the online players have not changed
+    @Nullable
+    private OnlineSnapshot lastSnapshot;
+
     public PlayerTracker(Bot bot, Object dbLock) {
         this.logger = bot.getLogger();
         this.dbLock = dbLock;
@@ -60,6 +71,7 @@ public class PlayerTracker implements TaskBase {
         this.wynnApi = new WynnApi(this.logger);
         this.mojangApi = new MojangApi(this.logger);
         this.playerTrackerChannelId = bot.getProperties().playerTrackerChannelId;
+        this.worldCache = bot.getWorldCache();
         this.worldRepository = bot.getDatabase().getWorldRepository();
         this.trackChannelRepository = bot.getDatabase().getTrackingChannelRepository();
         this.timeZoneRepository = bot.getDatabase().getTimeZoneRepository();
@@ -77,25 +89,39 @@ public class PlayerTracker implements TaskBase {
 
     @Override
     public void run() {
-        OnlinePlayers players = this.wynnApi.mustGetOnlinePlayers();
+        OnlineSnapshot players = this.wynnApi.mustGetOnlineSnapshot();
         if (players == null) {
             this.logger.log(0, "Player Tracker: Failed to retrieve online players list");
             this.manager.setActivity(Activity.playing("API Error: onlinePlayers"));
             return;
         }
+        if (players == this.lastSnapshot) {
+            // no player has moved since the last run
+            return;
+        }
 
-        List<World> prevWorldList = this.worldRepository.findAll();
-        if (prevWorldList == null) return;
+        WorldSnapshot prevSnapshot = this.worldCache.get();
+        if (prevSnapshot == null) return;
 
         // Check if retrieved timestamp is newer
-        if (!checkIntegrity(prevWorldList, players)) {
+        if (!checkIntegrity(prevSnapshot, players)) {
             this.logger.log(0, "Player Tracker failed to pass timestamp integrity check");
             return;
         }
+        this.lastSnapshot = players;
 
-        Timestamp retrievedAt = new Timestamp(players.getRequest().getTimestamp() * 1000L);
+        Map<String, World> prevWorlds = prevSnapshot.getWorlds().stream().collect(Collectors.toMap(World::getName, w -> w));
+
+        Timestamp retrievedAt = new Timestamp(players.getTimestamp() * 1000L);
         Map<String, World> currentWorlds = players.getWorlds().entrySet().stream()
-                .collect(Collectors.toMap(Map.Entry::getKey, e -> new World(e.getKey(), e.getValue().size(), retrievedAt, retrievedAt)));
+                .collect(Collectors.toMap(Map.Entry::getKey, e -> {
+                    // keep the created time of known worlds, as the DB does
+                    World prev = prevWorlds.get(e.getKey());
+                    Timestamp createdAt = prev != null ? prev.getCreatedAt() : retrievedAt;
+                    return new World(e.getKey(), e.getValue().size(), createdAt, retrievedAt);
+                }));
+        // Publish to readers first, the DB copy is only read on the next start
+        this.worldCache.publish(new WorldSnapshot(currentWorlds.values()));
         synchronized (this.dbLock) {
             // Update DB
             if (!this.worldRepository.updateAll(currentWorlds.values())) {
@@ -103,10 +129,8 @@ public class PlayerTracker implements TaskBase {
             }
         }
 
-        Map<String, World> prevWorlds = prevWorldList.stream().collect(Collectors.toMap(World::getName, w -> w));
-
-        Date apiRetrievalTime = new Date(players.getRequest().getTimestamp() * 1000L);
-        int onlinePlayers = countOnlinePlayers(currentWorlds.values());
+        Date apiRetrievalTime = new Date(players.getTimestamp() * 1000L);
+        int onlinePlayers = players.getPlayerCount();
         this.manager.setActivity(Activity.playing("Wynn " + onlinePlayers + " online"));
         this.handlePlayerNumberTracking(apiRetrievalTime, onlinePlayers);
 
@@ -129,17 +153,18 @@ public class PlayerTracker implements TaskBase {
     }
 
     /**
-     * Checks if the retrieved new data has newer timestamp than the stored previous worlds list.
-     * @param prevWorldList Stored previous worlds list.
+     * Checks if the retrieved new data has newer timestamp than the previous worlds snapshot.
+     * @param prevSnapshot Previous worlds snapshot.
      * @param newData Retrieved new worlds data.
      * @return {@code true} if ok and the new data can be processed normally.
      */
-    private static boolean checkIntegrity(@NotNull List<World> prevWorldList, OnlinePlayers newData) {
-        if (prevWorldList.isEmpty()) return true;
+    private static boolean checkIntegrity(@NotNull WorldSnapshot prevSnapshot, OnlineSnapshot newData) {
+        Date prevUpdatedAt = prevSnapshot.getUpdatedAt();
+        if (prevUpdatedAt == null) return true;
 
         // make both timestamps in seconds
-        long old = prevWorldList.get(0).getUpdatedAt().getTime() / 1000;
-        long retrieved = newData.getRequest().getTimestamp();
+        long old = prevUpdatedAt.getTime() / 1000;
+        long retrieved = newData.getTimestamp();
 
         // Process only if the timestamp is newer; do not process if the timestamp is the same as before
         return old < retrieved;
@@ -168,7 +193,7 @@ public class PlayerTracker implements TaskBase {
      * Do war tracking.
      * @param players Online players retrieved from Wynn API.
      */
-    private void handleWarTracking(OnlinePlayers players) {
+    private void handleWarTracking(OnlineSnapshot players) {
         // Handle war tracking.
         List<WarLog> knownWarLogs = this.warLogRepository.findAllLogNotEnded();
         if (knownWarLogs == null) {
@@ -181,7 +206,7 @@ public class PlayerTracker implements TaskBase {
                 .collect(Collectors.toMap(Map.Entry::getKey, Map.Entry::getValue));
         Map<String, WarLog> prevWars = knownWarLogs.stream().collect(Collectors.toMap(WarLog::getServerName, w -> w));
 
-        Date now = new Date(players.getRequest().getTimestamp() * 1000);
+        Date now = new Date(players.getTimestamp() * 1000);
         for (Map.Entry<String, List<String>> entry : currentWars.entrySet()) {
             if (!prevWars.containsKey(entry.getKey())) {
                 // New war server
@@ -200,7 +225,7 @@ public class PlayerTracker implements TaskBase {
                     endWarTrack(warLog, now);
                 } else {
                     // else, update the war server
-                    updateWarTrack(warLog, currentPlayers, now);
+                    updateWarTrack(warLog, players, currentPlayers, now);
                 }
             }
         }
@@ -237,13 +262,13 @@ public class PlayerTracker implements TaskBase {
         sendWarTracking(warLog);
     }
 
-    private void updateWarTrack(WarLog prevWarLog, List<String> currentPlayers, Date now) {
+    private void updateWarTrack(WarLog prevWarLog, OnlineSnapshot players, List<String> currentPlayers, Date now) {
         prevWarLog.setLastUp(now);
         List<WarPlayer> warPlayers = prevWarLog.getPlayers();
 
         for (WarPlayer warPlayer : warPlayers) {
             // A player left
-            if (!currentPlayers.contains(warPlayer.getPlayerName())) {
+            if (!prevWarLog.getServerName().equals(players.findWorld(warPlayer.getPlayerName()))) {
                 warPlayer.setExited(true);
             }
         }
@@ -455,25 +480,25 @@ public class PlayerTracker implements TaskBase {
     }
 
     @NotNull
-    private DateFormat getDateFormat(TrackChannel track) {
+    private CustomFormat getDateFormat(TrackChannel track) {
         return this.dateFormatRepository.getDateFormat(
                 track.getGuildId(),
                 track.getChannelId()
-        ).getDateFormat().getSecondFormat();
+        ).getDateFormat();
     }
 
     @NotNull
     private String formatWarTrackTime(WarLog warLog, TrackChannel track) {
-        DateFormat trackFormat = getDateFormat(track);
-        trackFormat.setTimeZone(getTimeZone(track));
-        String formattedTime = trackFormat.format(warLog.getCreatedAt());
+        CustomFormat trackFormat = getDateFormat(track);
+        TimeZone timeZone = getTimeZone(track);
+        String formattedTime = trackFormat.formatSecond(warLog.getCreatedAt(), timeZone);
         if (warLog.getCreatedAt().equals(warLog.getLastUp())) {
             // war just started
             formattedTime += " ~ (Just started)";
         } else if (!warLog.isEnded()) {
-            formattedTime += " ~ " + trackFormat.format(warLog.getLastUp()) + " (in fight)";
+            formattedTime += " ~ " + trackFormat.formatSecond(warLog.getLastUp(), timeZone) + " (in fight)";
         } else {
-            formattedTime += " ~ " + trackFormat.format(warLog.getLastUp());
+            formattedTime += " ~ " + trackFormat.formatSecond(warLog.getLastUp(), timeZone);
         }
         return String.format("    Time: %s", formattedTime);
     }
@@ -535,9 +560,8 @@ public class PlayerTracker implements TaskBase {
      */
     private void handlePlayerNumberTracking(Date dateTime, int onlinePlayers) {
         // Check if a new day has arrived
-        DateFormat dateFormat = new SimpleDateFormat("yyyy-MM-dd");
         Date oldest = this.playerNumberRepository.oldestDate();
-        if (oldest != null && !dateFormat.format(oldest).equals(dateFormat.format(dateTime))) {
+        if (oldest != null && !toLocalDate(oldest).equals(toLocalDate(dateTime))) {
             this.sendPlayerNumberTrack();
             boolean res = this.playerNumberRepository.deleteAll();
             if (!res) {
@@ -553,6 +577,17 @@ public class PlayerTracker implements TaskBase {
         }
     }
 
+    private static final DateTimeFormatter playerNumberDateFormat = DateTimeFormatter.ofPattern("EEE MMM d, yyyy");
+    private static final DateTimeFormatter playerNumberTimeFormat = DateTimeFormatter.ofPattern("HH:mm:ss");
+
+    private static ZonedDateTime toZonedDateTime(Date date) {
+        return Instant.ofEpochMilli(date.getTime()).atZone(ZoneId.systemDefault());
+    }
+
+    private static LocalDate toLocalDate(Date date) {
+        return toZonedDateTime(date).toLocalDate();
+    }
+
     /**
      * Sends player number track message to the #player-tracker channel.
      */
@@ -570,16 +605,14 @@ public class PlayerTracker implements TaskBase {
             return;
         }
 
-        DateFormat dateFormat = new SimpleDateFormat("EEE MMM d, yyyy");
-        DateFormat timeFormat = new SimpleDateFormat("HH:mm:ss");
         String message = String.format("```ml\n" +
                 "%s\n" +
                 "Maximum : %s players online at %s UTC\n" +
                 "Minimum : %s players online at %s UTC\n" +
                 "```",
-                dateFormat.format(max.getDateTime()),
-                max.getPlayerNum(), timeFormat.format(max.getDateTime()),
-                min.getPlayerNum(), timeFormat.format(min.getDateTime())
+                playerNumberDateFormat.format(toZonedDateTime(max.getDateTime())),
+                max.getPlayerNum(), playerNumberTimeFormat.format(toZonedDateTime(max.getDateTime())),
+                min.getPlayerNum(), playerNumberTimeFormat.format(toZonedDateTime(min.getDateTime()))
         );
 
         channel.sendMessage(message).queue();
@@ -587,12 +620,6 @@ public class PlayerTracker implements TaskBase {
 
     @NotNull
     private String formatDate(Date now, TrackChannel track) {
-        DateFormat trackFormat = getDateFormat(track);
-        trackFormat.setTimeZone(getTimeZone(track));
-        return trackFormat.format(now);
-    }
-
-    private static int countOnlinePlayers(@NotNull Collection<World> currentWorlds) {
-        return currentWorlds.stream().reduce(0, (i, w) -> i + w.getPlayers(), Integer::sum);
+        return getDateFormat(track).formatSecond(now, getTimeZone(track));
     }
 }
@@ -3,35 +3,35 @@ package heartbeat.tasks;
 import api.mojang.MojangApi;
 import api.mojang.structs.NameHistory;
 import app.Bot;
-import db.model.warLog.WarLog;
-import db.model.warPlayer.WarPlayer;
-import db.repository.base.WarLogRepository;
+import db.model.warPlayer.PlayerUUIDRange;
+import db.model.warPlayer.UUIDNullPlayer;
 import db.repository.base.WarPlayerRepository;
 import heartbeat.base.TaskBase;
 import log.Logger;
 import org.jetbrains.annotations.NotNull;
 import utils.UUID;
-import utils.cache.DataCache;
-import utils.cache.HashMapDataCache;
 
-import java.util.Date;
-import java.util.List;
-import java.util.concurrent.TimeUnit;
+import java.util.*;
+import java.util.concurrent.*;
 
 /**
  * Retrieves null player UUIDs in war player table, and fills them by requesting Mojang API.
+ * Player names are retrieved in batches of war log id ranges, and resolved in parallel.
+ * Requests are rate limited by the shared Mojang API rate limiter.
  */
 public class PlayerUUIDRetriever implements TaskBase {
+    // number of war logs to look at in each batch
+    private static final int WAR_LOG_BATCH = 200;
+    private static final int WORKERS = 4;
+
     private final MojangApi mojangApi;
     private final Logger logger;
     private final WarPlayerRepository warPlayerRepository;
-    private final WarLogRepository warLogRepository;
 
     public PlayerUUIDRetriever(Bot bot) {
         this.mojangApi = new MojangApi(bot.getLogger());
         this.logger = bot.getLogger();
         this.warPlayerRepository = bot.getDatabase().getWarPlayerRepository();
-        this.warLogRepository = bot.getDatabase().getWarLogRepository();
     }
 
     @Override
@@ -41,70 +41,108 @@ public class PlayerUUIDRetriever implements TaskBase {
 
     @Override
     public void run() {
-        // tried players and
-        DataCache<String, Long> tried = new HashMapDataCache<>(
-                100, TimeUnit.MINUTES.toMillis(30), TimeUnit.MINUTES.toMillis(30)
-        );
-        retriever:
-        while (true) {
-            // Pick one player whose logged UUID is null
-            WarPlayer warPlayer;
-            int offset = 0;
+        // names already tried in this run
+        Set<String> tried = new HashSet<>();
+        ExecutorService workers = Executors.newFixedThreadPool(WORKERS, r -> {
+            Thread t = new Thread(r, "player-uuid-retriever");
+            t.setDaemon(true);
+            return t;
+        });
+
+        try {
+            int after = 0;
             while (true) {
-                warPlayer = this.warPlayerRepository.getUUIDNullPlayer(offset);
-                if (warPlayer == null) {
-                    // finished retrieving
-                    break retriever;
+                // Skip to the next war log having null UUIDs
+                int first = this.warPlayerRepository.getNextUUIDNullWarLogId(after);
+                if (first == -1) {
+                    this.logger.log(0, "Player UUID Retriever: Failed to retrieve next war log id");
+                    return;
                 }
-                if (tried.get(warPlayer.getPlayerName()) == null) {
-                    break;
+                if (first == 0) {
+                    // finished retrieving
+                    return;
                 }
-                offset++;
-            }
-            WarLog warLog = this.warLogRepository.findOne(warPlayer::getWarLogId);
-            if (warLog == null) {
-                break;
-            }
 
-            tried.add(warPlayer.getPlayerName(), warLog.getCreatedAt().getTime());
+                int to = first - 1 + WAR_LOG_BATCH;
+                List<UUIDNullPlayer> players = this.warPlayerRepository.getUUIDNullPlayers(first - 1, to);
+                if (players == null) {
+                    this.logger.log(0, "Player UUID Retriever: Failed to retrieve players");
+                    return;
+                }
+                after = to;
 
-            UUID uuid = this.mojangApi.mustGetUUIDAtTime(warPlayer.getPlayerName(), warLog.getCreatedAt().getTime());
-            if (uuid == null) {
-                this.logger.log(0, String.format(
-                        "Player UUID Retriever: Failed to get UUID for %s at %s, skipping.",
-                        warPlayer.getPlayerName(), warLog.getCreatedAt().getTime()));
-                continue;
+                players.removeIf(p -> !tried.add(p.getPlayerName()));
+                if (!this.retrieveBatch(workers, players)) {
+                    return;
+                }
             }
+        } finally {
+            workers.shutdown();
+        }
+    }
 
-            // update this single entry
-            warPlayer.setPlayerUUID(uuid.toStringWithHyphens());
-            if (!this.warPlayerRepository.update(warPlayer)) {
-                this.logger.log(0, "Player UUID Retriever: Failed to update DB");
-                return;
-            }
+    /**
+     * Resolves UUIDs of the players in parallel, and updates them at once.
+     * @param workers Workers.
+     * @param players Players.
+     * @return {@code false} if failed to update DB.
+     */
+    private boolean retrieveBatch(ExecutorService workers, List<UUIDNullPlayer> players) {
+        List<Future<List<PlayerUUIDRange>>> futures = new ArrayList<>(players.size());
+        for (UUIDNullPlayer player : players) {
+            futures.add(workers.submit(() -> this.retrieve(player)));
+        }
 
-            // Retrieve name history for them, and fill player uuid fields
-            NameHistory history = this.mojangApi.mustGetNameHistory(uuid);
-            if (history == null) {
-                this.logger.log(0, String.format(
-                        "Player UUID Retriever: Failed to get name history for %s, skipping.",
-                        uuid.toStringWithHyphens()));
-                continue;
+        List<PlayerUUIDRange> ranges = new ArrayList<>();
+        for (Future<List<PlayerUUIDRange>> f : futures) {
+            try {
+                ranges.addAll(f.get());
+            } catch (InterruptedException | ExecutionException e) {
+                this.logger.logException("Player UUID Retriever: Failed to retrieve UUID", e);
             }
+        }
 
-            this.fillPlayerUUIDs(history);
+        if (!this.warPlayerRepository.updatePlayerUUIDsBetween(ranges)) {
+            this.logger.log(0, "Player UUID Retriever: Failed to update DB");
+            return false;
+        }
+        return true;
+    }
 
-            try {
-                Thread.sleep(TimeUnit.SECONDS.toMillis(2));
-            } catch (InterruptedException e) {
-                e.printStackTrace();
-            }
+    /**
+     * Resolves UUID of the player, and returns ranges to update.
+     * @param player Player.
+     * @return Ranges to update. Empty if failed.
+     */
+    private List<PlayerUUIDRange> retrieve(UUIDNullPlayer player) {
+        String name = player.getPlayerName();
+        long at = player.getFirstWarAt().getTime();
+
+        UUID uuid = this.mojangApi.mustGetUUIDAtTime(name, at);
+        if (uuid == null) {
+            this.logger.log(0, String.format(
+                    "Player UUID Retriever: Failed to get UUID for %s at %s, skipping.", name, at));
+            return Collections.emptyList();
         }
+
+        // Retrieve name history for them, and fill player uuid fields
+        NameHistory history = this.mojangApi.mustGetNameHistory(uuid);
+        if (history == null) {
+            this.logger.log(0, String.format(
+                    "Player UUID Retriever: Failed to get name history for %s, skipping.",
+                    uuid.toStringWithHyphens()));
+            // update the entries at the time UUID was retrieved
+            return Collections.singletonList(new PlayerUUIDRange(
+                    name, uuid, player.getFirstWarAt(), new Date(at + TimeUnit.SECONDS.toMillis(1))));
+        }
+
+        return getRanges(history);
     }
 
-    private void fillPlayerUUIDs(NameHistory nameHistory) {
+    private static List<PlayerUUIDRange> getRanges(NameHistory nameHistory) {
         List<NameHistory.NameHistoryEntry> history = nameHistory.getHistory();
         UUID uuid = nameHistory.getUuid();
+        List<PlayerUUIDRange> ranges = new ArrayList<>(history.size());
         for (int i = 0; i < history.size(); i++) {
             long start, end;
             start = history.get(i).getChangedToAt();
@@ -114,12 +152,9 @@ public class PlayerUUIDRetriever implements TaskBase {
                 end = history.get(i + 1).getChangedToAt();
             }
             String username = history.get(i).getUsername();
-
-            // update corresponding entries
-            if (!this.warPlayerRepository.updatePlayerUUIDBetween(username, uuid, new Date(start), new Date(end))) {
-                this.logger.log(0, "Player UUID Retriever: Failed to update DB");
-            }
+            ranges.add(new PlayerUUIDRange(username, uuid, new Date(start), new Date(end)));
         }
+        return ranges;
     }
 
     @Override
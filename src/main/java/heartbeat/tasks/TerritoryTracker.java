@@ -3,6 +3,7 @@ package heartbeat.tasks;
 import api.wynn.WynnApi;
 import api.wynn.structs.TerritoryList;
 import app.Bot;
+import db.model.dateFormat.CustomFormat;
 import db.model.guildWarLog.GuildWarLog;
 import db.model.territory.Territory;
 import db.model.territoryLog.TerritoryLog;
@@ -19,7 +20,6 @@ import org.jetbrains.annotations.NotNull;
 import org.jetbrains.annotations.Nullable;
 import utils.FormatUtils;
 
-import java.text.DateFormat;
 import java.text.ParseException;
 import java.util.*;
 import java.util.concurrent.TimeUnit;
@@ -31,20 +31,22 @@ public class TerritoryTracker implements TaskBase {
     private final ShardManager manager;
     private final WynnApi wynnApi;
     private final TerritoryRepository territoryRepository;
-    private final TerritoryLogRepository territoryLogRepository;
     private final WarLogRepository warLogRepository;
     private final GuildWarLogRepository guildWarLogRepository;
     private final TrackChannelRepository trackChannelRepository;
     private final TimeZoneRepository timeZoneRepository;
     private final DateFormatRepository dateFormatRepository;
 
+    // last processed territory list, the API returns the same instance while it has not changed
+    @Nullable
+    private TerritoryList lastTerritoryList;
+
     public TerritoryTracker(Bot bot, Object dbLock) {
         this.logger = bot.getLogger();
         this.dbLock = dbLock;
         this.manager = bot.getManager();
         this.wynnApi = new WynnApi(this.logger);
         this.territoryRepository = bot.getDatabase().getTerritoryRepository();
-        this.territoryLogRepository = bot.getDatabase().getTerritoryLogRepository();
         this.warLogRepository = bot.getDatabase().getWarLogRepository();
         this.guildWarLogRepository = bot.getDatabase().getGuildWarLogRepository();
         this.trackChannelRepository = bot.getDatabase().getTrackingChannelRepository();
@@ -73,6 +75,10 @@ public class TerritoryTracker implements TaskBase {
     public void run() {
         TerritoryList territoryList = this.wynnApi.mustGetTerritoryList();
         if (territoryList == null) return;
+        if (territoryList == this.lastTerritoryList) {
+            // no territory has changed hands since the last run
+            return;
+        }
 
         List<Territory> territories = new ArrayList<>();
         for (Map.Entry<String, api.wynn.structs.Territory> e : territoryList.getTerritories().entrySet()) {
@@ -91,21 +97,18 @@ public class TerritoryTracker implements TaskBase {
             return;
         }
 
-        int oldLastId;
-        int newLastId;
+        List<TerritoryLog> logs;
         synchronized (this.dbLock) {
-            oldLastId = this.territoryLogRepository.lastInsertId();
-
             // Update DB
-            if (!this.territoryRepository.updateAll(territories)) {
-                this.logger.log(0, "Territory tracker: failed to update db");
-                return;
-            }
-
-            newLastId = this.territoryLogRepository.lastInsertId();
+            logs = this.territoryRepository.updateAllAndGetLogs(territories);
         }
+        if (logs == null) {
+            this.logger.log(0, "Territory tracker: failed to update db");
+            return;
+        }
+        this.lastTerritoryList = territoryList;
 
-        this.handleTracking(oldLastId, newLastId);
+        this.handleTracking(logs);
     }
 
     private boolean checkIntegrity(List<Territory> retrieved) {
@@ -143,19 +146,10 @@ public class TerritoryTracker implements TaskBase {
     }
 
     /**
-     * Do territory tracking. Sends all territory_log from oldLastId (exclusive) to newLastId (inclusive).
-     * @param oldLastId Last max id in territory_log before db update.
-     * @param newLastId Current max id in territory_log table after db update.
+     * Do territory tracking. Sends all given territory logs.
+     * @param logs Territory logs generated by the last db update.
      */
-    private void handleTracking(int oldLastId, int newLastId) {
-        List<TerritoryLog> logs = this.territoryLogRepository.findAllInRange(oldLastId, newLastId);
-
-        if (logs == null) {
-            this.logger.log(0, "Territory tracker: failed to retrieve last log list. " +
-                    "Not sending tracking this time. old id (exclusive): " + oldLastId + ", new id (inclusive): " + newLastId);
-            return;
-        }
-
+    private void handleTracking(@NotNull List<TerritoryLog> logs) {
         if (logs.isEmpty()) {
             return;
         }
@@ -166,7 +160,8 @@ public class TerritoryTracker implements TaskBase {
         List<TrackChannel> allTerritoryTracks = this.trackChannelRepository.findAllOfType(TrackType.TERRITORY_ALL);
         if (allTerritoryTracks == null) {
             this.logger.log(0, "Territory tracker: failed to retrieve tracking channels list. " +
-                    "Not sending tracking this time. old id (exclusive): " + oldLastId + ", new id (inclusive): " + newLastId);
+                    "Not sending tracking this time. log ids: " +
+                    logs.stream().map(l -> String.valueOf(l.getId())).collect(Collectors.joining(", ")));
             return;
         }
 
@@ -221,19 +216,20 @@ public class TerritoryTracker implements TaskBase {
     }
 
     @NotNull
-    private DateFormat getDateFormat(TrackChannel track) {
+    private CustomFormat getDateFormat(TrackChannel track) {
         return this.dateFormatRepository.getDateFormat(
                 track.getGuildId(),
                 track.getChannelId()
-        ).getDateFormat().getSecondFormat();
+        ).getDateFormat();
     }
 
     private String formatAcquiredTime(TerritoryLog log, TrackChannel track) {
-        DateFormat trackFormat = getDateFormat(track);
+        CustomFormat trackFormat = getDateFormat(track);
         CustomTimeZone timeZone = getTimeZone(track);
-        trackFormat.setTimeZone(timeZone.getTimeZoneInstance());
         return String.format(
-                "    Acquired: %s (%s)", trackFormat.format(log.getAcquired()), timeZone.getFormattedTime()
+                "    Acquired: %s (%s)",
+                trackFormat.formatSecond(log.getAcquired(), timeZone.getTimeZoneInstance()),
+                timeZone.getFormattedTime()
         );
     }
 }
@@ -2,9 +2,8 @@ package log;
 
 import net.dv8tion.jda.api.events.message.MessageReceivedEvent;
 
-import java.text.DateFormat;
-import java.text.SimpleDateFormat;
-import java.util.Date;
+import java.time.Instant;
+import java.time.format.DateTimeFormatter;
 import java.util.TimeZone;
 
 import static log.DiscordLogger.createCommandLog;
@@ -13,19 +12,17 @@ import static log.DiscordLogger.createCommandLog;
  * ConsoleLogger only logs to standard output.
  */
 public class ConsoleLogger implements Logger {
-    private final DateFormat logFormat;
+    private final DateTimeFormatter logFormat;
     private final boolean debug;
 
     public ConsoleLogger(TimeZone logTimeZone) {
-        this.logFormat = new SimpleDateFormat("yyyy/MM/dd HH:mm:ss.SSS");
-        this.logFormat.setTimeZone(logTimeZone);
+        this.logFormat = DateTimeFormatter.ofPattern("yyyy/MM/dd HH:mm:ss.SSS").withZone(logTimeZone.toZoneId());
         this.debug = "1".equals(System.getenv("DEBUG"));
     }
 
     @Override
     public void log(int botLogCh, CharSequence message) {
-        Date now = new Date();
-        String msg = this.logFormat.format(now) + " " + message;
+        String msg = this.logFormat.format(Instant.now()) + " " + message;
         System.out.println(msg);
     }
 
@@ -5,36 +5,87 @@ import net.dv8tion.jda.api.entities.TextChannel;
 import net.dv8tion.jda.api.events.message.MessageReceivedEvent;
 import utils.FormatUtils;
 
-import java.text.DateFormat;
-import java.text.SimpleDateFormat;
-import java.util.Arrays;
-import java.util.Date;
-import java.util.Map;
-import java.util.TimeZone;
+import java.time.Instant;
+import java.time.format.DateTimeFormatter;
+import java.util.*;
 import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.locks.LockSupport;
 import java.util.stream.Collectors;
 
 /**
  * DiscordLogger implements Logger, discord channel logging, and checks message spams.
+ * Log records are put into a ring buffer, and a single background writer prints them to the std out,
+ * and sends them to discord channels packing many lines into each message.
  */
 public class DiscordLogger implements Logger {
+    private static final int MAX_MESSAGE_LENGTH = 2000;
+    private static final int BUFFER_CAPACITY = 8192;
+    // log lines are gathered for this duration, before being sent to discord
+    private static final long SEND_INTERVAL = TimeUnit.SECONDS.toMillis(1);
+    private static final long IDLE_WAIT = TimeUnit.MILLISECONDS.toNanos(50);
+
+    private static class Record {
+        private final int botLogCh;
+        private final String message;
+        private final boolean stdout;
+
+        private Record(int botLogCh, String message, boolean stdout) {
+            this.botLogCh = botLogCh;
+            this.message = message;
+            this.stdout = stdout;
+        }
+    }
+
     private final Bot bot;
 
     private final Map<Integer, Long> logChannels;
 
-    private final DateFormat logFormat;
+    private final DateTimeFormatter logFormat;
 
     private final boolean debug;
 
+    private final LogRingBuffer<Record> buffer;
+    private final Thread writer;
+    private volatile boolean closed;
+    // set by the writer thread when it exits, records offered after this are flushed by the caller
+    private volatile boolean writerDone;
+
     public DiscordLogger(Bot bot, TimeZone logTimeZone) {
         this.bot = bot;
         // deep copy
         this.logChannels = bot.getProperties().logChannelId
                 .entrySet().stream().collect(Collectors.toMap(Map.Entry::getKey, Map.Entry::getValue));
 
-        this.logFormat = new SimpleDateFormat("yyyy/MM/dd HH:mm:ss.SSS");
-        this.logFormat.setTimeZone(logTimeZone);
+        this.logFormat = DateTimeFormatter.ofPattern("yyyy/MM/dd HH:mm:ss.SSS").withZone(logTimeZone.toZoneId());
         this.debug = "1".equals(System.getenv("DEBUG"));
+
+        this.buffer = new LogRingBuffer<>(BUFFER_CAPACITY);
+        this.writer = new Thread(this::runWriter, "discord-logger");
+        this.writer.setDaemon(true);
+        this.writer.start();
+    }
+
+    private String now() {
+        return this.logFormat.format(Instant.now());
+    }
+
+    /**
+     * Adds a record to be written by the writer thread.
+     * After this logger was closed, prints to the std out directly.
+     */
+    private void enqueue(int botLogCh, String message, boolean stdout) {
+        if (this.closed) {
+            if (stdout) {
+                System.out.println(message);
+            }
+            return;
+        }
+        this.buffer.offer(new Record(botLogCh, message, stdout));
+        // closed concurrently, and the writer might have exited before reading this record
+        if (this.writerDone) {
+            this.flushRemaining();
+        }
     }
 
     /**
@@ -44,59 +95,165 @@ public class DiscordLogger implements Logger {
      * @param message Message to log.
      */
     public void log(int botLogCh, CharSequence message) {
-        Date now = new Date();
-        String msgTimeAppended = this.logFormat.format(now) + " " + message;
+        this.enqueue(botLogCh, this.now() + " " + message, true);
+    }
+
+    @Override
+    public void debug(CharSequence message) {
+        if (!debug) return;
+        this.enqueue(-1, this.now() + " " + message, true);
+    }
+
+    private void runWriter() {
+        // channel to lines waiting to be sent
+        Map<Integer, List<String>> pending = new HashMap<>();
+        long lastSent = System.currentTimeMillis();
+        long reportedDropped = 0;
+
+        while (true) {
+            boolean closing = this.closed;
+
+            StringBuilder out = new StringBuilder();
+            int count = this.drain(out, pending);
+
+            long dropped = this.buffer.getDropped();
+            if (dropped != reportedDropped) {
+                String message = String.format("%s Logger: dropped %s log records, buffer was full",
+                        this.now(), dropped - reportedDropped);
+                out.append(message).append('\n');
+                pending.computeIfAbsent(0, k -> new ArrayList<>()).add(message);
+                reportedDropped = dropped;
+            }
+
+            if (out.length() > 0) {
+                System.out.print(out);
+            }
+
+            long now = System.currentTimeMillis();
+            if (closing || now - lastSent >= SEND_INTERVAL) {
+                pending.forEach(this::sendToDiscord);
+                pending.clear();
+                lastSent = now;
+            }
 
-        // To standard out
-        System.out.println(msgTimeAppended);
-        // To Discord channel
-        this.logToDiscord(botLogCh, msgTimeAppended);
+            if (closing) {
+                this.writerDone = true;
+                // records offered while the last ones were being written
+                this.flushRemaining();
+                return;
+            }
+            if (count == 0) {
+                LockSupport.parkNanos(IDLE_WAIT);
+            }
+        }
+    }
+
+    /**
+     * Moves all records in the buffer to the std out lines and the pending discord lines.
+     * Must only be called from the writer thread, or from {@link #flushRemaining()} after the writer exited.
+     * @param out Lines to print to the std out.
+     * @param pending Channel to lines waiting to be sent.
+     * @return Number of records moved.
+     */
+    private int drain(StringBuilder out, Map<Integer, List<String>> pending) {
+        int count = 0;
+        for (Record r = this.buffer.poll(); r != null; r = this.buffer.poll()) {
+            if (r.stdout) {
+                out.append(r.message).append('\n');
+            }
+            if (this.logChannels.containsKey(r.botLogCh)) {
+                pending.computeIfAbsent(r.botLogCh, k -> new ArrayList<>()).add(r.message);
+            }
+            count++;
+        }
+        return count;
+    }
+
+    /**
+     * Synchronously writes the records left in the buffer after the writer thread exited.
+     */
+    private synchronized void flushRemaining() {
+        StringBuilder out = new StringBuilder();
+        Map<Integer, List<String>> pending = new HashMap<>();
+        if (this.drain(out, pending) == 0) {
+            return;
+        }
+        if (out.length() > 0) {
+            System.out.print(out);
+        }
+        pending.forEach(this::sendToDiscord);
     }
 
     /**
-     * Logs to discord channel.
+     * Sends log lines to the discord channel, packing lines into as few messages as possible.
      * @param botLogCh Channel to log.
-     * @param message Raw message.
+     * @param lines Log lines.
      */
-    private void logToDiscord(int botLogCh, String message) {
-        if (!this.logChannels.containsKey(botLogCh)) {
+    private void sendToDiscord(int botLogCh, List<String> lines) {
+        Long logChannelId = this.logChannels.get(botLogCh);
+        if (logChannelId == null) {
             return;
         }
-        long logChannelId = this.logChannels.get(botLogCh);
         TextChannel ch = this.bot.getManager().getTextChannelById(logChannelId);
         if (ch == null) {
             return;
         }
 
-        sendLongMessage(message, ch);
+        for (String message : packMessages(lines, MAX_MESSAGE_LENGTH)) {
+            try {
+                ch.sendMessage(message).queue();
+            } catch (RejectedExecutionException e) {
+                // Expected to be thrown on JDA shutdown
+                if (this.debug) {
+                    System.out.println(this.now() + " Logger: Failed to send message:\n" + e.getMessage());
+                }
+            }
+        }
     }
 
     /**
-     * Sends long message (supports string longer than 2000 chars) to text channel.
-     * Splits the message into parts to send to discord.
-     * @param message Message to send.
-     * @param ch Text channel to post on.
+     * Packs lines into messages of at most the given length, joined by new lines.
+     * Lines longer than the max length are split into parts.
+     * @param lines Lines.
+     * @param maxLength Max length of each message.
+     * @return Messages.
      */
-    private void sendLongMessage(String message, TextChannel ch) {
-        double length = message.length();
-        for (int i = 0; i < Math.ceil(length / 2000D); i++) {
-            int start = i * 2000;
-            int end = Math.min((i + 1) * 2000, (int) length);
-            try {
-                ch.sendMessage(message.substring(start, end)).queue();
-            } catch (RejectedExecutionException e) {
-                // Expected to be thrown on JDA shutdown
-                this.debug("Logger: Failed to send message:\n" + e.getMessage());
+    static List<String> packMessages(List<String> lines, int maxLength) {
+        List<String> messages = new ArrayList<>();
+        StringBuilder current = new StringBuilder();
+        for (String line : lines) {
+            for (int start = 0; start < line.length() || start == 0; start += maxLength) {
+                String part = line.substring(start, Math.min(start + maxLength, line.length()));
+                int needed = current.length() == 0 ? part.length() : current.length() + 1 + part.length();
+                if (needed > maxLength) {
+                    messages.add(current.toString());
+                    current.setLength(0);
+                }
+                if (current.length() > 0) {
+                    current.append('\n');
+                }
+                current.append(part);
             }
         }
+        if (current.length() > 0) {
+            messages.add(current.toString());
+        }
+        return messages;
     }
 
-    @Override
-    public void debug(CharSequence message) {
-        if (!debug) return;
-        Date now = new Date();
-        String msg = this.logFormat.format(now) + " " + message;
-        System.out.println(msg);
+    /**
+     * Writes all remaining log records and stops the writer thread.
+     * Log records after this call are only printed to the std out.
+     * Records logged concurrently with this call are written by the writer thread, or by the caller of the log method.
+     */
+    public void close() {
+        this.closed = true;
+        LockSupport.unpark(this.writer);
+        try {
+            this.writer.join(TimeUnit.SECONDS.toMillis(5));
+        } catch (InterruptedException e) {
+            e.printStackTrace();
+        }
     }
 
     /**
@@ -139,16 +296,15 @@ public class DiscordLogger implements Logger {
 
     @Override
     public void logException(CharSequence message, Throwable e) {
-        Date now = new Date();
         String msgTimeAppended = String.format(
                 "%s %s\n%s",
-                this.logFormat.format(now), message, e.toString()
+                this.now(), message, e.toString()
         );
         // Print short version to Discord channel 0
-        this.logToDiscord(0, msgTimeAppended);
+        this.enqueue(0, msgTimeAppended, false);
         String fullStackTrace = msgTimeAppended + "\n";
         fullStackTrace += Arrays.stream(e.getStackTrace()).map(elt -> "    at " + elt.toString()).collect(Collectors.joining("\n"));
         // Full stack trace to standard out, and to Discord channel 2
-        this.log(2, fullStackTrace);
+        this.enqueue(2, fullStackTrace, true);
     }
 }
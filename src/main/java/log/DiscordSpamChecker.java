@@ -3,46 +3,200 @@ package log;
 import net.dv8tion.jda.api.events.message.MessageReceivedEvent;
 import utils.BotUtils;
 
-import java.util.HashMap;
-import java.util.Map;
-
 public class DiscordSpamChecker {
-    // User ID to next cool-down expire time
-    private final Map<Long, Long> coolDowns;
+    private static final int STRIPES = 16;
+    // number of slots to look at for expired cool-downs, on each new cool-down registration
+    private static final int SWEEP_SLOTS = 8;
+
+    // User ID to next cool-down expire time, striped by user ID
+    private final Stripe[] stripes;
+
+    /**
+     * Open addressing hash map of user ID to cool-down expire time, with primitive long keys.
+     * Guarded by itself.
+     */
+    private static class Stripe {
+        // Discord user IDs are never 0
+        private static final long EMPTY = 0L;
+        private static final int INITIAL_CAPACITY = 64;
+
+        private long[] keys;
+        private long[] values;
+        private int size;
+        // next slot to sweep
+        private int cursor;
+
+        private Stripe() {
+            this.keys = new long[INITIAL_CAPACITY];
+            this.values = new long[INITIAL_CAPACITY];
+        }
+
+        private static int hash(long key) {
+            long h = key * 0x9E3779B97F4A7C15L;
+            return (int) (h ^ (h >>> 32));
+        }
+
+        private int find(long key) {
+            int mask = this.keys.length - 1;
+            for (int i = hash(key) & mask; ; i = (i + 1) & mask) {
+                if (this.keys[i] == key) return i;
+                if (this.keys[i] == EMPTY) return -1;
+            }
+        }
+
+        /**
+         * Returns the cool-down expire time of the user.
+         * @param key User ID.
+         * @param now Current time, expired cool-down is removed on read.
+         * @return Expire time. -1 if the user is not on cool-down.
+         */
+        private long get(long key, long now) {
+            int i = this.find(key);
+            if (i == -1) return -1L;
+            if (this.values[i] <= now) {
+                this.removeAt(i);
+                return -1L;
+            }
+            return this.values[i];
+        }
+
+        private void put(long key, long value) {
+            int i = this.find(key);
+            if (i != -1) {
+                this.values[i] = value;
+                return;
+            }
+
+            if ((this.size + 1) * 2 > this.keys.length) {
+                this.resize(this.keys.length * 2);
+            }
+            int mask = this.keys.length - 1;
+            i = hash(key) & mask;
+            while (this.keys[i] != EMPTY) {
+                i = (i + 1) & mask;
+            }
+            this.keys[i] = key;
+            this.values[i] = value;
+            this.size++;
+        }
+
+        private void resize(int capacity) {
+            long[] oldKeys = this.keys;
+            long[] oldValues = this.values;
+            this.keys = new long[capacity];
+            this.values = new long[capacity];
+            this.size = 0;
+            this.cursor = 0;
+            for (int i = 0; i < oldKeys.length; i++) {
+                if (oldKeys[i] != EMPTY) {
+                    this.put(oldKeys[i], oldValues[i]);
+                }
+            }
+        }
+
+        /**
+         * Removes the entry at the slot, and shifts back the following entries of the same probe sequence.
+         * @param i Slot.
+         */
+        private void removeAt(int i) {
+            int mask = this.keys.length - 1;
+            int hole = i;
+            for (int j = (i + 1) & mask; this.keys[j] != EMPTY; j = (j + 1) & mask) {
+                int home = hash(this.keys[j]) & mask;
+                // move the entry to the hole if the hole lies between its home slot and current slot
+                if (((j - home) & mask) >= ((j - hole) & mask)) {
+                    this.keys[hole] = this.keys[j];
+                    this.values[hole] = this.values[j];
+                    hole = j;
+                }
+            }
+            this.keys[hole] = EMPTY;
+            this.size--;
+        }
+
+        /**
+         * Removes expired cool-downs in the next few slots.
+         * @param now Current time.
+         */
+        private void sweep(long now) {
+            int mask = this.keys.length - 1;
+            for (int n = 0; n < SWEEP_SLOTS; n++) {
+                int i = this.cursor;
+                if (this.keys[i] != EMPTY && this.values[i] <= now) {
+                    // an entry may be shifted into this slot, look at it again
+                    this.removeAt(i);
+                    continue;
+                }
+                this.cursor = (i + 1) & mask;
+            }
+        }
+    }
 
     public DiscordSpamChecker() {
-        this.coolDowns = new HashMap<>();
+        this.stripes = new Stripe[STRIPES];
+        for (int i = 0; i < STRIPES; i++) {
+            this.stripes[i] = new Stripe();
+        }
     }
 
-    public synchronized boolean isSpam(MessageReceivedEvent event, long nextCoolDown) {
-        long userId = event.getAuthor().getIdLong();
-        long now = System.currentTimeMillis();
-        long lastCoolDownExpire = this.coolDowns.getOrDefault(userId, -1L);
+    private Stripe stripe(long userId) {
+        return this.stripes[stripeIndex(userId)];
+    }
 
-        // Still on cool-down
-        if (now < lastCoolDownExpire) {
-            return true;
-        }
+    static int stripeIndex(long userId) {
+        return (int) ((userId >>> 22) ^ userId) & (STRIPES - 1);
+    }
 
-        // Register next cool-down expire time
+    public boolean isSpam(MessageReceivedEvent event, long nextCoolDown) {
         long nextCoolDownExpire = BotUtils.getIdCreationTime(event.getMessageIdLong()) + nextCoolDown;
-        this.coolDowns.put(userId, nextCoolDownExpire);
+        return this.isSpam(event.getAuthor().getIdLong(), System.currentTimeMillis(), nextCoolDownExpire);
+    }
 
-        this.removeOldMessageCache(now);
-        return false;
+    boolean isSpam(long userId, long now, long nextCoolDownExpire) {
+        Stripe stripe = this.stripe(userId);
+        synchronized (stripe) {
+            // Still on cool-down
+            if (stripe.get(userId, now) != -1L) {
+                return true;
+            }
+
+            // Register next cool-down expire time
+            stripe.put(userId, nextCoolDownExpire);
+
+            // Remove already expired cool-downs, a few slots at a time
+            stripe.sweep(now);
+            return false;
+        }
     }
 
     /**
      * Returns how much time is remained until the cool-down is expired for this user, in milliseconds.
      * @param userId User ID.
-     * @return Remaining cool-down in milliseconds.
+     * @return Remaining cool-down in milliseconds. 0 if the user is not on cool-down.
      */
     public long nextCoolDownExpire(long userId) {
-        return this.coolDowns.get(userId) - System.currentTimeMillis();
+        return this.nextCoolDownExpire(userId, System.currentTimeMillis());
     }
 
-    private void removeOldMessageCache(long now) {
-        // Remove already expired cool-down
-        this.coolDowns.entrySet().removeIf((e) -> e.getValue() <= now);
+    long nextCoolDownExpire(long userId, long now) {
+        Stripe stripe = this.stripe(userId);
+        synchronized (stripe) {
+            long expire = stripe.get(userId, now);
+            return expire == -1L ? 0L : expire - now;
+        }
+    }
+
+    /**
+     * Returns the number of users currently tracked, including expired cool-downs not yet swept.
+     * @return Number of users.
+     */
+    int size() {
+        int size = 0;
+        for (Stripe stripe : this.stripes) {
+            synchronized (stripe) {
+                size += stripe.size;
+            }
+        }
+        return size;
     }
 }
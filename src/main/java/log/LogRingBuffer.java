@@ -0,0 +1,94 @@
+package log;
+
+import org.jetbrains.annotations.NotNull;
+import org.jetbrains.annotations.Nullable;
+
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicLongArray;
+import java.util.concurrent.atomic.AtomicReferenceArray;
+
+/**
+ * Lock-free bounded ring buffer for many producers and a single consumer.
+ * Each slot carries a sequence number, telling whether it is ready to be written or read in the current lap.
+ * Producers never block: when the buffer is full, the element is dropped and counted.
+ * @param <T> Element type.
+ */
+class LogRingBuffer<T> {
+    private final int mask;
+    private final AtomicReferenceArray<T> elements;
+    private final AtomicLongArray sequences;
+
+    private final AtomicLong tail;
+    // only accessed by the consumer
+    private long head;
+
+    private final AtomicLong dropped;
+
+    /**
+     * Creates a new ring buffer.
+     * @param capacity Capacity, rounded up to a power of two.
+     */
+    LogRingBuffer(int capacity) {
+        int size = Integer.highestOneBit(Math.max(capacity, 2) * 2 - 1);
+        this.mask = size - 1;
+        this.elements = new AtomicReferenceArray<>(size);
+        this.sequences = new AtomicLongArray(size);
+        for (int i = 0; i < size; i++) {
+            this.sequences.set(i, i);
+        }
+        this.tail = new AtomicLong();
+        this.dropped = new AtomicLong();
+    }
+
+    /**
+     * Adds an element. Can be called from any thread.
+     * @param element Element.
+     * @return {@code true} if added, {@code false} if the buffer was full and the element was dropped.
+     */
+    boolean offer(@NotNull T element) {
+        while (true) {
+            long pos = this.tail.get();
+            int i = (int) (pos & this.mask);
+            long diff = this.sequences.get(i) - pos;
+            if (diff == 0) {
+                if (this.tail.compareAndSet(pos, pos + 1)) {
+                    this.elements.set(i, element);
+                    // publish to the consumer
+                    this.sequences.set(i, pos + 1);
+                    return true;
+                }
+            } else if (diff < 0) {
+                // the consumer has not freed this slot yet: full
+                this.dropped.incrementAndGet();
+                return false;
+            }
+            // else another producer took this position, retry
+        }
+    }
+
+    /**
+     * Removes an element. Must only be called from the single consumer thread.
+     * @return Element, or null if the buffer is empty (or the next element is not yet published).
+     */
+    @Nullable
+    T poll() {
+        int i = (int) (this.head & this.mask);
+        if (this.sequences.get(i) != this.head + 1) {
+            return null;
+        }
+        T element = this.elements.get(i);
+        this.elements.set(i, null);
+        // free the slot for the next lap
+        this.sequences.set(i, this.head + this.mask + 1);
+        this.head++;
+        return element;
+    }
+
+    /**
+     * Returns the number of elements dropped so far because the buffer was full.
+     * @return Dropped count.
+     */
+    long getDropped() {
+        return this.dropped.get();
+    }
+}
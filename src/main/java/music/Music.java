@@ -22,16 +22,18 @@ import org.jetbrains.annotations.Nullable;
 import java.util.HashMap;
 import java.util.Map;
 import java.util.Optional;
+import java.util.concurrent.ConcurrentHashMap;
 import java.util.concurrent.TimeUnit;
 import java.util.function.BiConsumer;
 import java.util.function.Function;
 
 public class Music extends GuildCommand {
+    // guild id to music state, states are added and removed atomically per guild
     private static final Map<Long, MusicState> states;
     private static final AudioPlayerManager playerManager;
 
     static {
-        states = new HashMap<>();
+        states = new ConcurrentHashMap<>();
         playerManager = new DefaultAudioPlayerManager();
         AudioSourceManagers.registerRemoteSources(playerManager);
     }
@@ -91,10 +93,7 @@ public class Music extends GuildCommand {
      */
     private BiConsumer<MessageReceivedEvent, String[]> requireMusicState(MusicSubCommandRequireMusicState next) {
         return (event, args) -> {
-            MusicState state;
-            synchronized (states) {
-                state = states.getOrDefault(event.getGuild().getIdLong(), null);
-            }
+            MusicState state = states.get(event.getGuild().getIdLong());
             if (state == null) {
                 respond(event, "This guild doesn't seem to have a music player set up.");
                 return;
@@ -132,10 +131,7 @@ public class Music extends GuildCommand {
     private BiConsumer<MessageReceivedEvent, String[]> requireMusicSetting(MusicSettingSubCommand next) {
         return (event, args) -> {
             long guildId = event.getGuild().getIdLong();
-            MusicState state;
-            synchronized (states) {
-                state = states.getOrDefault(guildId, null);
-            }
+            MusicState state = states.get(guildId);
 
             if (state != null) {
                 // Require user to be in the same voice channel
@@ -227,13 +223,8 @@ public class Music extends GuildCommand {
                 (event, args, state) -> this.managementHandler.handlePurge(event, state)
         ));
 
-        Function<MessageReceivedEvent, @Nullable MusicState> getOptionalMusicState = event -> {
-            MusicState state;
-            synchronized (states) {
-                state = states.getOrDefault(event.getGuild().getIdLong(), null);
-            }
-            return state;
-        };
+        Function<MessageReceivedEvent, @Nullable MusicState> getOptionalMusicState =
+                event -> states.get(event.getGuild().getIdLong());
         // Setting handlers
         commands.put("v", requireMusicSetting(
                 (event, args, setting) ->
@@ -331,10 +322,7 @@ public class Music extends GuildCommand {
         // Check bound channel ID
         long guildId = event.getGuild().getIdLong();
         long channelId = event.getChannel().getIdLong();
-        MusicState state;
-        synchronized (states) {
-            state = states.getOrDefault(guildId, null);
-        }
+        MusicState state = states.get(guildId);
         if (state != null && state.getBoundChannelId() != channelId) {
             TextChannel channel = this.manager.getTextChannelById(state.getBoundChannelId());
             respond(event, String.format("Music commands are currently bound to %s!",
@@ -12,8 +12,8 @@ public class MusicState {
     private final AudioPlayer player;
     private final TrackScheduler scheduler;
     private final MusicSetting setting;
-    private long lastInteract;
-    private Runnable onStopLoadingCache;
+    private volatile long lastInteract;
+    private volatile Runnable onStopLoadingCache;
     private final long guildId;
     private final long boundChannelId;
     private final long voiceChannelId;
@@ -0,0 +1,117 @@
+package music;
+
+import org.jetbrains.annotations.NotNull;
+
+import javax.annotation.Nullable;
+import java.util.*;
+
+/**
+ * Track queue keeping the count of each track URL and the total duration in sync with the entries,
+ * so that duplicate checks and length retrieval don't scan the whole queue.
+ */
+class TrackQueue {
+    private final Deque<QueueEntry> entries;
+    // track URL to number of entries with the URL
+    private final Map<String, Integer> urlCounts;
+    private long totalDuration;
+
+    TrackQueue() {
+        this.entries = new ArrayDeque<>();
+        this.urlCounts = new HashMap<>();
+    }
+
+    private static String getUrl(QueueEntry entry) {
+        return entry.getTrack().getInfo().uri;
+    }
+
+    private void onAdded(QueueEntry entry) {
+        this.urlCounts.merge(getUrl(entry), 1, Integer::sum);
+        this.totalDuration += entry.getTrack().getDuration();
+    }
+
+    private void onRemoved(QueueEntry entry) {
+        this.urlCounts.computeIfPresent(getUrl(entry), (k, v) -> v == 1 ? null : v - 1);
+        this.totalDuration -= entry.getTrack().getDuration();
+    }
+
+    void add(@NotNull QueueEntry entry) {
+        this.entries.add(entry);
+        this.onAdded(entry);
+    }
+
+    void addFirst(@NotNull QueueEntry entry) {
+        this.entries.addFirst(entry);
+        this.onAdded(entry);
+    }
+
+    @Nullable
+    QueueEntry poll() {
+        QueueEntry entry = this.entries.poll();
+        if (entry != null) {
+            this.onRemoved(entry);
+        }
+        return entry;
+    }
+
+    @Nullable
+    QueueEntry peek() {
+        return this.entries.peek();
+    }
+
+    void clear() {
+        this.entries.clear();
+        this.urlCounts.clear();
+        this.totalDuration = 0L;
+    }
+
+    /**
+     * Shuffles the queue, retaining the first element.
+     * URLs and the total duration are unchanged.
+     */
+    void shuffleExceptFirst() {
+        QueueEntry first = this.entries.poll();
+        if (first == null) {
+            return;
+        }
+        List<QueueEntry> others = new ArrayList<>(this.entries);
+        Collections.shuffle(others);
+        this.entries.clear();
+        this.entries.add(first);
+        this.entries.addAll(others);
+    }
+
+    /**
+     * Removes all elements except the first.
+     */
+    void retainFirst() {
+        QueueEntry first = this.poll();
+        this.clear();
+        if (first != null) {
+            this.add(first);
+        }
+    }
+
+    boolean containsUrl(String url) {
+        return this.urlCounts.containsKey(url);
+    }
+
+    int size() {
+        return this.entries.size();
+    }
+
+    boolean isEmpty() {
+        return this.entries.isEmpty();
+    }
+
+    /**
+     * Returns the sum of durations of all tracks in the queue.
+     * @return Total duration in milliseconds.
+     */
+    long getTotalDuration() {
+        return this.totalDuration;
+    }
+
+    List<QueueEntry> toList() {
+        return new ArrayList<>(this.entries);
+    }
+}
@@ -17,9 +17,7 @@ import org.jetbrains.annotations.NotNull;
 import javax.annotation.Nullable;
 import java.awt.*;
 import java.util.List;
-import java.util.*;
 import java.util.concurrent.TimeUnit;
-import java.util.stream.Collectors;
 
 import static music.MusicUtils.formatNowPlaying;
 
@@ -69,12 +67,12 @@ public class TrackScheduler extends AudioEventAdapter {
         void playTrack(AudioTrack track);
     }
 
-    private final Deque<QueueEntry> queue;
+    private final TrackQueue queue;
 
     private final SchedulerGateway gateway;
 
     public TrackScheduler(SchedulerGateway gateway) {
-        this.queue = new ArrayDeque<>();
+        this.queue = new TrackQueue();
         this.gateway = gateway;
     }
 
@@ -82,21 +80,11 @@ public class TrackScheduler extends AudioEventAdapter {
      * Shuffles the queue. Retains the position of the current playing track (first element in the queue).
      */
     void shuffleQueue() {
-        QueueEntry first = this.queue.poll();
-        List<QueueEntry> others = new ArrayList<>(this.queue);
-        Collections.shuffle(others);
-        this.queue.clear();
-        this.queue.add(first);
-        this.queue.addAll(others);
-    }
-
-    private static boolean hasDuplicate(Deque<QueueEntry> queue, QueueEntry toQueue) {
-        Set<String> URLs = queue.stream().map(q -> q.getTrack().getInfo().uri).collect(Collectors.toSet());
-        return URLs.contains(toQueue.getTrack().getInfo().uri);
+        this.queue.shuffleExceptFirst();
     }
 
     void enqueue(QueueEntry entry) throws DuplicateTrackException, QueueFullException {
-        if (hasDuplicate(this.queue, entry)) {
+        if (this.queue.containsUrl(entry.getTrack().getInfo().uri)) {
             throw new DuplicateTrackException("The current queue contains a duplicate track!");
         }
         if (QUEUE_LIMIT <= this.queue.size()) {
@@ -121,9 +109,7 @@ public class TrackScheduler extends AudioEventAdapter {
             return;
         }
 
-        QueueEntry first = this.queue.poll();
-        this.queue.clear();
-        this.queue.add(first);
+        this.queue.retainFirst();
     }
 
     void clearQueue() {
@@ -131,11 +117,11 @@ public class TrackScheduler extends AudioEventAdapter {
     }
 
     List<QueueEntry> getCurrentQueue() {
-        return new ArrayList<>(this.queue);
+        return this.queue.toList();
     }
 
     long getQueueLength() {
-        return this.queue.stream().mapToLong(q -> q.getTrack().getDuration()).sum();
+        return this.queue.getTotalDuration();
     }
 
     @Override
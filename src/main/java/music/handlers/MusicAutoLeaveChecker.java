@@ -14,10 +14,10 @@ import net.dv8tion.jda.api.sharding.ShardManager;
 import utils.MinecraftColor;
 
 import java.util.ArrayList;
-import java.util.Iterator;
 import java.util.List;
 import java.util.Map;
-import java.util.concurrent.TimeUnit;
+import java.util.concurrent.*;
+import java.util.stream.Collectors;
 
 public class MusicAutoLeaveChecker {
     private final Map<Long, MusicState> states;
@@ -28,8 +28,16 @@ public class MusicAutoLeaveChecker {
 
     private final MusicPlayHandler playHandler;
 
+    // runs shutdown I/O (closing audio connections, saving queues and settings) of removed guilds
+    private final ExecutorService shutdownWorkers;
+
     public MusicAutoLeaveChecker(Bot bot, Map<Long, MusicState> states, MusicPlayHandler playHandler) {
         this.states = states;
+        this.shutdownWorkers = Executors.newFixedThreadPool(SHUTDOWN_WORKERS, r -> {
+            Thread t = new Thread(r, "music-shutdown-worker");
+            t.setDaemon(true);
+            return t;
+        });
         this.manager = bot.getManager();
         this.logger = bot.getLogger();
         this.interruptedGuildRepository = bot.getDatabase().getMusicInterruptedGuildRepository();
@@ -37,6 +45,7 @@ public class MusicAutoLeaveChecker {
     }
 
     private final static long TIME_TILL_LEAVE = TimeUnit.MINUTES.toMillis(3);
+    private final static int SHUTDOWN_WORKERS = 4;
 
     /**
      * Checks if the bot can safely leave the voice channel.
@@ -80,36 +89,49 @@ public class MusicAutoLeaveChecker {
         }
     }
 
-    void checkAllGuilds() {
-        synchronized (states) {
-            for (Iterator<Map.Entry<Long, MusicState>> iterator = states.entrySet().iterator(); iterator.hasNext(); ) {
-                Map.Entry<Long, MusicState> entry = iterator.next();
-                long guildId = entry.getKey();
-                MusicState state = entry.getValue();
+    /**
+     * Shuts down the player of an inactive guild, and notifies the bound channel.
+     * The state must already be removed from the states map.
+     * @param state Music state.
+     */
+    private void leaveInactiveGuild(MusicState state) {
+        TextChannel channel = this.manager.getTextChannelById(state.getBoundChannelId());
+        if (channel == null) {
+            this.logger.log(0, "Music auto leave: Failed to retrieve channel for ID: " + state.getBoundChannelId());
+        }
 
-                if (!canSafelyLeave(guildId, state)) {
-                    continue;
-                }
+        shutdownGuild(state);
 
-                TextChannel channel = this.manager.getTextChannelById(state.getBoundChannelId());
-                if (channel == null) {
-                    this.logger.log(0, "Music auto leave: Failed to retrieve channel for ID: " + state.getBoundChannelId());
-                }
+        if (channel != null) {
+            try {
+                channel.sendMessage(new EmbedBuilder()
+                        .setColor(MinecraftColor.RED.getColor())
+                        .setDescription("Left the voice channel due to inactivity.")
+                        .build()).queue();
+            } catch (Exception e) {
+                e.printStackTrace();
+            }
+        }
+    }
 
-                shutdownGuild(state);
+    void checkAllGuilds() {
+        // Snapshot candidates, iterating the concurrent map doesn't block music commands
+        List<MusicState> toLeave = new ArrayList<>();
+        for (Map.Entry<Long, MusicState> entry : states.entrySet()) {
+            if (canSafelyLeave(entry.getKey(), entry.getValue())) {
+                toLeave.add(entry.getValue());
+            }
+        }
 
-                if (channel != null) {
-                    try {
-                        channel.sendMessage(new EmbedBuilder()
-                                .setColor(MinecraftColor.RED.getColor())
-                                .setDescription("Left the voice channel due to inactivity.")
-                                .build()).queue();
-                    } catch (Exception e) {
-                        e.printStackTrace();
-                    }
-                }
-
-                iterator.remove();
+        for (MusicState state : toLeave) {
+            // The guild might have left or re-joined in the meantime
+            if (!this.playHandler.removeState(state)) {
+                continue;
+            }
+            try {
+                this.shutdownWorkers.execute(() -> leaveInactiveGuild(state));
+            } catch (RejectedExecutionException e) {
+                this.logger.logException("Music auto leave: Failed to submit shutdown task", e);
             }
         }
     }
@@ -119,25 +141,37 @@ public class MusicAutoLeaveChecker {
      * To be used on bot shutdown.
      */
     public void forceShutdownAllGuilds() {
-        synchronized (states) {
-            List<MusicInterruptedGuild> toSave = new ArrayList<>(states.size());
-
-            for (Map.Entry<Long, MusicState> entry : states.entrySet()) {
-                long guildId = entry.getKey();
-
-                MusicState state = entry.getValue();
+        List<MusicState> removed = new ArrayList<>(states.size());
+        for (MusicState state : new ArrayList<>(states.values())) {
+            if (this.playHandler.removeState(state)) {
+                removed.add(state);
+            }
+        }
 
+        // Shut down players in parallel, and wait for all of them
+        List<Future<?>> futures = new ArrayList<>(removed.size());
+        for (MusicState state : removed) {
+            try {
+                futures.add(this.shutdownWorkers.submit(() -> shutdownGuild(state)));
+            } catch (RejectedExecutionException e) {
                 shutdownGuild(state);
-
-                toSave.add(new MusicInterruptedGuild(guildId, state.getBoundChannelId(), state.getVoiceChannelId()));
             }
-
-            boolean res = this.interruptedGuildRepository.createAll(toSave);
-            if (!res) {
-                this.logger.log(0, "Music leave: Failed to insert into interrupted guilds");
+        }
+        for (Future<?> f : futures) {
+            try {
+                f.get();
+            } catch (InterruptedException | ExecutionException e) {
+                this.logger.logException("Music leave: Failed to wait for player shutdown", e);
             }
-
-            states.clear();
+        }
+        this.shutdownWorkers.shutdown();
+
+        List<MusicInterruptedGuild> toSave = removed.stream()
+                .map(state -> new MusicInterruptedGuild(state.getGuildId(), state.getBoundChannelId(), state.getVoiceChannelId()))
+                .collect(Collectors.toList());
+        boolean res = this.interruptedGuildRepository.createAll(toSave);
+        if (!res) {
+            this.logger.log(0, "Music leave: Failed to insert into interrupted guilds");
         }
     }
 }
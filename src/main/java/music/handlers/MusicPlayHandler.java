@@ -5,9 +5,12 @@ import com.sedmelluq.discord.lavaplayer.player.AudioLoadResultHandler;
 import com.sedmelluq.discord.lavaplayer.player.AudioPlayer;
 import com.sedmelluq.discord.lavaplayer.player.AudioPlayerManager;
 import com.sedmelluq.discord.lavaplayer.tools.FriendlyException;
+import com.sedmelluq.discord.lavaplayer.tools.io.MessageInput;
+import com.sedmelluq.discord.lavaplayer.tools.io.MessageOutput;
 import com.sedmelluq.discord.lavaplayer.track.AudioPlaylist;
 import com.sedmelluq.discord.lavaplayer.track.AudioTrack;
 import com.sedmelluq.discord.lavaplayer.track.AudioTrackInfo;
+import com.sedmelluq.discord.lavaplayer.track.DecodedTrackHolder;
 import db.model.musicInterruptedGuild.MusicInterruptedGuild;
 import db.model.musicQueue.MusicQueueEntry;
 import db.model.musicSetting.MusicSetting;
@@ -30,16 +33,30 @@ import update.response.Response;
 import update.response.ResponseManager;
 import utils.MinecraftColor;
 
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
 import java.util.*;
 import java.util.concurrent.*;
-import java.util.stream.Collectors;
+import java.util.concurrent.locks.ReentrantLock;
 
 import static commands.base.BotCommand.*;
 import static music.MusicUtils.formatLength;
 import static music.MusicUtils.getThumbnailURL;
 
 public class MusicPlayHandler {
+    // Max number of saved queue tracks loading at once, among all guilds
+    private static final int GLOBAL_TRACK_LOADS = 8;
+    // Max number of saved queue tracks loading at once, per guild
+    private static final int GUILD_TRACK_LOADS = 3;
+    // Max number of guilds re-joining at once after restart
+    private static final int REJOIN_WORKERS = 4;
+    private static final long TRACK_LOAD_TIMEOUT = TimeUnit.SECONDS.toMillis(30);
+
     private final Map<Long, MusicState> states;
+    // guild id to lock, serializing join and leave of each guild.
+    // Only exists while the guild has a music state or someone is holding it.
+    private final Map<Long, ReentrantLock> guildLocks;
     private final AudioPlayerManager playerManager;
 
     private final ShardManager manager;
@@ -49,8 +66,11 @@ public class MusicPlayHandler {
     private final MusicInterruptedGuildRepository interruptedGuildRepository;
     private final ResponseManager responseManager;
 
+    private final ExecutorService trackLoadExecutor;
+
     public MusicPlayHandler(Bot bot, Map<Long, MusicState> states, AudioPlayerManager playerManager) {
         this.states = states;
+        this.guildLocks = new ConcurrentHashMap<>();
         this.playerManager = playerManager;
         this.manager = bot.getManager();
         this.logger = bot.getLogger();
@@ -58,6 +78,7 @@ public class MusicPlayHandler {
         this.musicQueueRepository = bot.getDatabase().getMusicQueueRepository();
         this.interruptedGuildRepository = bot.getDatabase().getMusicInterruptedGuildRepository();
         this.responseManager = bot.getResponseManager();
+        this.trackLoadExecutor = SavedQueueLoader.createLoadExecutor(GLOBAL_TRACK_LOADS);
     }
 
     /**
@@ -78,6 +99,42 @@ public class MusicPlayHandler {
         return voiceState.getChannel();
     }
 
+    /**
+     * Acquires the lock of the guild, to be held while setting up or removing its music state.
+     * Never held while shutting down a player, so that slow I/O doesn't block other commands.
+     * Release with {@link #unlockGuild(long, ReentrantLock)}.
+     * @param guildId Guild ID.
+     * @return Acquired lock.
+     */
+    @NotNull
+    private ReentrantLock lockGuild(long guildId) {
+        while (true) {
+            ReentrantLock lock = this.guildLocks.computeIfAbsent(guildId, k -> new ReentrantLock());
+            lock.lock();
+            if (this.guildLocks.get(guildId) == lock) {
+                return lock;
+            }
+            // Discarded while waiting for it, retry with the current one
+            lock.unlock();
+        }
+    }
+
+    /**
+     * Releases the lock of the guild.
+     * The lock is discarded if the guild no longer has a music state, so that locks don't pile up for every guild.
+     * @param guildId Guild ID.
+     * @param lock Lock acquired by {@link #lockGuild(long)}.
+     */
+    private void unlockGuild(long guildId, @NotNull ReentrantLock lock) {
+        try {
+            if (!states.containsKey(guildId)) {
+                this.guildLocks.remove(guildId, lock);
+            }
+        } finally {
+            lock.unlock();
+        }
+    }
+
     /**
      * Get music setting for the guild.
      * @param guildId Guild ID.
@@ -94,6 +151,7 @@ public class MusicPlayHandler {
 
     /**
      * Rejoin to all interrupted guilds.
+     * Guilds are re-joined in parallel in the background, a few at a time.
      */
     public void rejoinInterruptedGuilds() {
         List<MusicInterruptedGuild> guilds = this.interruptedGuildRepository.findAll();
@@ -101,20 +159,40 @@ public class MusicPlayHandler {
             return;
         }
         this.interruptedGuildRepository.deleteAll();
+        if (guilds.isEmpty()) {
+            return;
+        }
 
+        ExecutorService rejoinExecutor = Executors.newFixedThreadPool(Math.min(REJOIN_WORKERS, guilds.size()), r -> {
+            Thread t = new Thread(r, "music-rejoin");
+            t.setDaemon(true);
+            return t;
+        });
         for (MusicInterruptedGuild guild : guilds) {
-            long guildId = guild.getGuildId();
-            long channelId = guild.getChannelId();
-            long vcId = guild.getVoiceChannelId();
+            rejoinExecutor.execute(() -> rejoinInterruptedGuild(guild));
+        }
+        // Threads exit after all queued guilds are done
+        rejoinExecutor.shutdown();
+    }
 
-            TextChannel channel = this.manager.getTextChannelById(channelId);
-            VoiceChannel vc = this.manager.getVoiceChannelById(vcId);
-            if (channel == null || vc == null) {
-                this.logger.log(0, String.format(
-                        "Music rejoin: Failed to retrieve text channel or voice channel for ID: %d, %d", channelId, vcId));
-                continue;
-            }
+    private void rejoinInterruptedGuild(MusicInterruptedGuild guild) {
+        long guildId = guild.getGuildId();
+        long channelId = guild.getChannelId();
+        long vcId = guild.getVoiceChannelId();
 
+        TextChannel channel = this.manager.getTextChannelById(channelId);
+        VoiceChannel vc = this.manager.getVoiceChannelById(vcId);
+        if (channel == null || vc == null) {
+            this.logger.log(0, String.format(
+                    "Music rejoin: Failed to retrieve text channel or voice channel for ID: %d, %d", channelId, vcId));
+            return;
+        }
+
+        ReentrantLock lock = lockGuild(guildId);
+        try {
+            if (states.containsKey(guildId)) {
+                return;
+            }
             MusicState state = prepareMusicState(channel, vc.getIdLong());
 
             try {
@@ -126,16 +204,17 @@ public class MusicPlayHandler {
             } catch (InsufficientPermissionException e) {
                 respondException(channel, "The bot couldn't join your voice channel. " +
                         "Please make sure the bot has sufficient permissions to do so!");
-                synchronized (states) {
-                    states.remove(guildId);
-                }
+                states.remove(guildId, state);
             }
+        } finally {
+            unlockGuild(guildId, lock);
         }
     }
 
     /**
      * Prepares music state for the guild.
      * (Sets up audio players, but does not join the VC)
+     * Must be called while holding the guild lock.
      * @param channel Guild text channel.
      * @param voiceChannelId Voice channel ID. For data cache.
      * @return Music state
@@ -181,10 +260,7 @@ public class MusicPlayHandler {
 
             @Override
             public void setLastInteract() {
-                MusicState state;
-                synchronized (states) {
-                    state = states.getOrDefault(guildId, null);
-                }
+                MusicState state = states.get(guildId);
                 if (state != null) {
                     state.setLastInteract(System.currentTimeMillis());
                 }
@@ -198,9 +274,7 @@ public class MusicPlayHandler {
         player.addListener(scheduler);
 
         MusicState state = new MusicState(player, scheduler, setting, guildId, channelId, voiceChannelId);
-        synchronized (states) {
-            states.put(guildId, state);
-        }
+        states.put(guildId, state);
 
         Guild guild = channel.getGuild();
         this.logger.log(3, String.format("Preparing music player (%s) for guild %s (%s members, ID: %s)",
@@ -213,6 +287,7 @@ public class MusicPlayHandler {
 
     /**
      * Enqueues all saved previous queue.
+     * The previously playing track is loaded first, and the rest are loaded progressively in the background.
      * @param guildId Guild ID.
      * @param state State.
      */
@@ -223,83 +298,126 @@ public class MusicPlayHandler {
             return;
         }
 
-        List<Future<Void>> futures = new ArrayList<>(queue.size());
-
-        String firstURL = queue.get(0).getUrl();
         long position = queue.get(0).getPosition();
 
-        Map<String, MusicQueueEntry> urlMap = queue.stream().collect(Collectors.toMap(MusicQueueEntry::getUrl, q -> q));
-
-        for (MusicQueueEntry e : queue) {
-            Future<Void> f = playerManager.loadItemOrdered(state.getPlayer(), e.getUrl(), new AudioLoadResultHandler() {
-                @Override
-                public void trackLoaded(AudioTrack audioTrack) {
-                    // If it's the first one, set the position
-                    AudioTrackInfo info = audioTrack.getInfo();
-                    if (info.uri.equals(firstURL)) {
-                        audioTrack.setPosition(position);
-                    }
-                    MusicQueueEntry e = urlMap.getOrDefault(info.uri, null);
-                    try {
-                        state.enqueue(new QueueEntry(audioTrack, e != null ? e.getUserId() : 0L));
-                    } catch (DuplicateTrackException | QueueFullException ex) {
-                        ex.printStackTrace();
-                    }
-                }
-
-                @Override
-                public void playlistLoaded(AudioPlaylist audioPlaylist) {
-                    // Should probably not be reached because we're supplying a URL for each song
-                    for (AudioTrack track : audioPlaylist.getTracks()) {
-                        try {
-                            AudioTrackInfo info = track.getInfo();
-                            MusicQueueEntry e = urlMap.getOrDefault(info.uri, null);
-                            state.enqueue(new QueueEntry(track, e != null ? e.getUserId() : 0L));
-                        } catch (DuplicateTrackException | QueueFullException ex) {
-                            ex.printStackTrace();
-                        }
-                    }
-                }
-
-                @Override
-                public void noMatches() {
-                    logger.debug("Music: Loading old queue: No match for URL " + e.getUrl());
+        SavedQueueLoader loader = new SavedQueueLoader(queue.size(), index -> {
+            MusicQueueEntry e = queue.get(index);
+            // Decode the saved track locally, and only resolve the URL if it fails
+            AudioTrack decoded = e.getTrack() != null ? decodeTrack(e.getTrack()) : null;
+            if (decoded != null) {
+                return Collections.singletonList(decoded);
+            }
+            return loadTracks(e.getUrl());
+        }, (index, tracks) -> {
+            MusicQueueEntry e = queue.get(index);
+            // If it's the first one, set the position
+            if (index == 0 && !tracks.isEmpty()) {
+                tracks.get(0).setPosition(position);
+            }
+            for (AudioTrack track : tracks) {
+                try {
+                    state.enqueue(new QueueEntry(track, e.getUserId()));
+                } catch (DuplicateTrackException | QueueFullException ex) {
+                    logger.debug("Music: Loading old queue: " + ex.getMessage());
                 }
+            }
+        }, this.trackLoadExecutor, GUILD_TRACK_LOADS);
+        loader.start();
 
-                @Override
-                public void loadFailed(FriendlyException e) {
-                    logger.debug("Music: Loading old queue: Load failed :" + e.getMessage());
-                }
-            });
-            futures.add(f);
-        }
+        loader.getFinished().thenRun(() -> this.logger.log(3, String.format(
+                "Music: Restored %s song%s for guild ID %s, time to first audio: %s ms",
+                queue.size(), queue.size() == 1 ? "" : "s", guildId, loader.getTimeToFirstTrack())));
 
         // Use asynchronous logic to cancel loading in case the user wants it
         String desc = String.format("Loading `%s` song%s from the previous queue...",
                 queue.size(), queue.size() == 1 ? "" : "s");
 
-        CompletableFuture<Void> all = CompletableFuture.runAsync(() -> {
-            for (Future<Void> f : futures) {
-                try {
-                    f.get();
-                } catch (InterruptedException | ExecutionException e) {
-                    e.printStackTrace();
-                }
-            }
-        });
-
+        state.setOnStopLoadingCache(loader::cancel);
         respond(channel,
                 new EmbedBuilder()
                 .setColor(MinecraftColor.DARK_GREEN.getColor())
                 .setDescription(desc + "\nThis might take a while. `m purge` or `m clear` to stop loading.")
                 .build(),
-                message -> sendFinishEnqueueSaved(message, state, futures, all, desc)
+                message -> sendFinishEnqueueSaved(message, state, loader, desc)
         );
     }
 
-    private void sendFinishEnqueueSaved(Message message, MusicState state, List<Future<Void>> futures,
-                                        CompletableFuture<Void> all, String desc) {
-        all.thenRun(() -> message.editMessage(
+    /**
+     * Encodes the track to be saved.
+     * @param track Track.
+     * @return Base64 encoded track. null if failed.
+     */
+    @Nullable
+    private String encodeTrack(@NotNull AudioTrack track) {
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        try {
+            playerManager.encodeTrack(new MessageOutput(out), track);
+        } catch (IOException e) {
+            this.logger.debug("Music: Failed to encode track " + track.getInfo().uri + ": " + e.getMessage());
+            return null;
+        }
+        return Base64.getEncoder().encodeToString(out.toByteArray());
+    }
+
+    /**
+     * Decodes the saved track, without resolving the URL.
+     * @param encoded Base64 encoded track.
+     * @return Decoded track. null if failed (e.g. the source is no longer supported).
+     */
+    @Nullable
+    private AudioTrack decodeTrack(@NotNull String encoded) {
+        try {
+            byte[] bytes = Base64.getDecoder().decode(encoded);
+            DecodedTrackHolder holder = playerManager.decodeTrack(new MessageInput(new ByteArrayInputStream(bytes)));
+            return holder != null ? holder.decodedTrack : null;
+        } catch (IOException | IllegalArgumentException e) {
+            this.logger.debug("Music: Failed to decode saved track: " + e.getMessage());
+            return null;
+        }
+    }
+
+    /**
+     * Loads tracks for the URL, blocking until loaded.
+     * @param url URL.
+     * @return Loaded tracks. null if failed or no match.
+     */
+    @Nullable
+    private List<AudioTrack> loadTracks(String url) {
+        List<AudioTrack> tracks = new ArrayList<>();
+        Future<Void> f = playerManager.loadItem(url, new AudioLoadResultHandler() {
+            @Override
+            public void trackLoaded(AudioTrack audioTrack) {
+                tracks.add(audioTrack);
+            }
+
+            @Override
+            public void playlistLoaded(AudioPlaylist audioPlaylist) {
+                // Should probably not be reached because we're supplying a URL for each song
+                tracks.addAll(audioPlaylist.getTracks());
+            }
+
+            @Override
+            public void noMatches() {
+                logger.debug("Music: Loading old queue: No match for URL " + url);
+            }
+
+            @Override
+            public void loadFailed(FriendlyException e) {
+                logger.debug("Music: Loading old queue: Load failed :" + e.getMessage());
+            }
+        });
+        try {
+            f.get(TRACK_LOAD_TIMEOUT, TimeUnit.MILLISECONDS);
+        } catch (InterruptedException | ExecutionException | TimeoutException e) {
+            f.cancel(true);
+            this.logger.debug("Music: Loading old queue: Failed to load URL " + url + ": " + e);
+            return null;
+        }
+        return tracks.isEmpty() ? null : tracks;
+    }
+
+    private void sendFinishEnqueueSaved(Message message, MusicState state, SavedQueueLoader loader, String desc) {
+        loader.getFinished().thenRun(() -> message.editMessage(
                 new EmbedBuilder()
                 .setColor(MinecraftColor.DARK_GREEN.getColor())
                 .setDescription(desc + "\nFinished loading!")
@@ -307,14 +425,9 @@ public class MusicPlayHandler {
         ).queue());
 
         state.setOnStopLoadingCache(() -> {
-            if (all.isDone()) {
+            if (!loader.cancel()) {
                 return;
             }
-            all.cancel(false);
-            futures.forEach(f -> {
-                if (f.isDone()) return;
-                f.cancel(false);
-            });
             message.editMessage(
                     new EmbedBuilder()
                     .setColor(MinecraftColor.RED.getColor())
@@ -326,6 +439,7 @@ public class MusicPlayHandler {
 
     /**
      * Tries to connect to the VC the user is in.
+     * Must be called while holding the guild lock.
      * @param event Event.
      * @return {@code true} if success.
      */
@@ -347,9 +461,7 @@ public class MusicPlayHandler {
             audioManager.setSendingHandler(new AudioPlayerSendHandler(state.getPlayer()));
         } catch (InsufficientPermissionException e) {
             respondException(event, "The bot couldn't join your voice channel. Please make sure the bot has sufficient permissions to do so!");
-            synchronized (states) {
-                states.remove(event.getGuild().getIdLong());
-            }
+            states.remove(event.getGuild().getIdLong(), state);
             return false;
         }
 
@@ -365,8 +477,14 @@ public class MusicPlayHandler {
     @Nullable
     private MusicState getStateOrConnect(MessageReceivedEvent event) {
         long guildId = event.getGuild().getIdLong();
-        synchronized (states) {
-            MusicState state = states.getOrDefault(guildId, null);
+        // fast path without locking, for guilds already playing
+        MusicState state = states.get(guildId);
+        if (state != null) {
+            return state;
+        }
+        ReentrantLock lock = lockGuild(guildId);
+        try {
+            state = states.get(guildId);
             if (state != null) {
                 return state;
             }
@@ -375,6 +493,8 @@ public class MusicPlayHandler {
                 return null;
             }
             return states.get(guildId);
+        } finally {
+            unlockGuild(guildId, lock);
         }
     }
 
@@ -383,15 +503,19 @@ public class MusicPlayHandler {
      * @param event Event.
      */
     public void handleJoin(MessageReceivedEvent event) {
-        synchronized (states) {
-            if (states.containsKey(event.getGuild().getIdLong())) {
+        long guildId = event.getGuild().getIdLong();
+        ReentrantLock lock = lockGuild(guildId);
+        try {
+            if (states.containsKey(guildId)) {
                 respond(event, "This guild already has a music player set up!");
                 return;
             }
-        }
 
-        if (!connect(event)) {
-            return;
+            if (!connect(event)) {
+                return;
+            }
+        } finally {
+            unlockGuild(guildId, lock);
         }
 
         respond(event, new EmbedBuilder()
@@ -407,6 +531,12 @@ public class MusicPlayHandler {
      * @param saveQueue {@code true} if the bot should save the current queue, and use it next time.
      */
     public void handleLeave(@NotNull MessageReceivedEvent event, @NotNull MusicState state, boolean saveQueue) {
+        // Remove first, so that the player is shut down only once
+        if (!removeState(state)) {
+            respond(event, "This guild doesn't seem to have a music player set up.");
+            return;
+        }
+
         try {
             this.shutdownPlayer(saveQueue, state);
         } catch (RuntimeException e) {
@@ -414,18 +544,32 @@ public class MusicPlayHandler {
             return;
         }
 
-        synchronized (states) {
-            states.remove(state.getGuildId());
-        }
-
         respond(event, new EmbedBuilder()
                 .setDescription(String.format("Player stopped. (%s)",
                         saveQueue ? "Saved the queue" : "Queue cleared"))
                 .build());
     }
 
+    /**
+     * Removes the music state of the guild, if it is still the current one.
+     * Only the caller that succeeded in removing the state should shut down its player.
+     * Must not be called while holding the guild lock, as this discards the lock.
+     * @param state Music state.
+     * @return {@code true} if removed.
+     */
+    boolean removeState(@NotNull MusicState state) {
+        long guildId = state.getGuildId();
+        ReentrantLock lock = lockGuild(guildId);
+        try {
+            return states.remove(guildId, state);
+        } finally {
+            unlockGuild(guildId, lock);
+        }
+    }
+
     /**
      * Shuts down the music player for the guild.
+     * Must not be called while holding the guild lock, as this does slow I/O.
      * @param saveQueue If the bot should save the current queue.
      * @param state Music state.
      * @throws RuntimeException If something went wrong.
@@ -499,7 +643,8 @@ public class MusicPlayHandler {
                     track.getUserId(),
                     track.getTrack().getInfo().uri,
                     i == 0 ? queue.getPosition() : 0L,
-                    new Date(now)
+                    new Date(now),
+                    encodeTrack(track.getTrack())
             ));
         }
         return this.musicQueueRepository.saveGuildMusicQueue(toSave);
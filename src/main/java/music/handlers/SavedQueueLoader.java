@@ -0,0 +1,214 @@
+package music.handlers;
+
+import com.sedmelluq.discord.lavaplayer.track.AudioTrack;
+import org.jetbrains.annotations.NotNull;
+import org.jetbrains.annotations.Nullable;
+
+import java.util.List;
+import java.util.concurrent.*;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Restores a saved queue of a guild progressively.
+ * The first (previously playing) track is loaded alone with a higher priority, so that the audio starts as soon as possible.
+ * The rest are then loaded with a bounded number of loads in flight per guild, and handed to the consumer in the saved order.
+ * Loads of all guilds share one bounded executor, see {@link #createLoadExecutor(int)}.
+ */
+class SavedQueueLoader {
+    private static final int PRIORITY_FIRST = 0;
+    private static final int PRIORITY_REST = 1;
+
+    interface TrackLoader {
+        /**
+         * Loads tracks of the saved queue entry. Called from a load executor thread, may block.
+         * @param index Index in the saved queue.
+         * @return Loaded tracks. null if failed or no match.
+         */
+        @Nullable
+        List<AudioTrack> load(int index);
+    }
+
+    interface TrackConsumer {
+        /**
+         * Receives loaded tracks, in the saved order.
+         * @param index Index in the saved queue.
+         * @param tracks Loaded tracks.
+         */
+        void accept(int index, @NotNull List<AudioTrack> tracks);
+    }
+
+    /**
+     * Load task ordered by priority, then by submission order.
+     */
+    private static class LoadTask implements Runnable, Comparable<LoadTask> {
+        private static final AtomicLong sequence = new AtomicLong();
+
+        private final int priority;
+        private final long seq;
+        private final Runnable task;
+
+        private LoadTask(int priority, Runnable task) {
+            this.priority = priority;
+            this.seq = sequence.getAndIncrement();
+            this.task = task;
+        }
+
+        @Override
+        public void run() {
+            this.task.run();
+        }
+
+        @Override
+        public int compareTo(@NotNull LoadTask o) {
+            if (this.priority != o.priority) {
+                return Integer.compare(this.priority, o.priority);
+            }
+            return Long.compare(this.seq, o.seq);
+        }
+    }
+
+    /**
+     * Creates an executor for loading tracks, shared among all guilds.
+     * The number of threads bounds the number of loads in flight globally,
+     * and the first track of each guild is loaded before the rest of any guild.
+     * @param threads Number of threads.
+     * @return Executor.
+     */
+    static ExecutorService createLoadExecutor(int threads) {
+        return new ThreadPoolExecutor(threads, threads, 0L, TimeUnit.MILLISECONDS,
+                new PriorityBlockingQueue<>(), r -> {
+            Thread t = new Thread(r, "music-queue-loader");
+            t.setDaemon(true);
+            return t;
+        });
+    }
+
+    private final int size;
+    private final TrackLoader loader;
+    private final TrackConsumer consumer;
+    private final Executor executor;
+    private final int maxInFlight;
+
+    private final long startedAt;
+    private final CompletableFuture<Void> finished;
+
+    // fields below are guarded by this
+    private final List<AudioTrack>[] loaded;
+    private final boolean[] done;
+    private int nextLoad;
+    private int nextConsume;
+    private int inFlight;
+    private long timeToFirstTrack;
+
+    /**
+     * Creates a loader. Call {@link #start()} to start loading.
+     * @param size Number of entries in the saved queue.
+     * @param loader Track loader.
+     * @param consumer Consumer of loaded tracks.
+     * @param executor Executor created by {@link #createLoadExecutor(int)}.
+     * @param maxInFlight Max number of loads in flight for this queue.
+     */
+    @SuppressWarnings("unchecked")
+    SavedQueueLoader(int size, TrackLoader loader, TrackConsumer consumer, Executor executor, int maxInFlight) {
+        this.size = size;
+        this.loader = loader;
+        this.consumer = consumer;
+        this.executor = executor;
+        this.maxInFlight = maxInFlight;
+        this.startedAt = System.currentTimeMillis();
+        this.finished = new CompletableFuture<>();
+        this.loaded = new List[size];
+        this.done = new boolean[size];
+        this.timeToFirstTrack = -1L;
+    }
+
+    /**
+     * Starts loading the first track.
+     */
+    synchronized void start() {
+        if (this.size == 0) {
+            this.finished.complete(null);
+            return;
+        }
+        this.submit(0, PRIORITY_FIRST);
+    }
+
+    /**
+     * Cancels loading. Loads in flight are discarded, and the remaining are not started.
+     * @return {@code true} if cancelled, {@code false} if already finished.
+     */
+    synchronized boolean cancel() {
+        return this.finished.cancel(false);
+    }
+
+    /**
+     * Returns a future completed when all tracks were loaded and consumed.
+     * @return Future.
+     */
+    CompletableFuture<Void> getFinished() {
+        return this.finished;
+    }
+
+    /**
+     * Returns the time from the creation of this loader until the first track was handed to the consumer.
+     * @return Time in milliseconds. -1 if the first track has not been consumed.
+     */
+    synchronized long getTimeToFirstTrack() {
+        return this.timeToFirstTrack;
+    }
+
+    private void submit(int index, int priority) {
+        this.nextLoad = index + 1;
+        this.inFlight++;
+        try {
+            this.executor.execute(new LoadTask(priority, () -> this.load(index)));
+        } catch (RejectedExecutionException e) {
+            this.inFlight--;
+            this.finished.completeExceptionally(e);
+        }
+    }
+
+    private void load(int index) {
+        if (this.finished.isDone()) {
+            return;
+        }
+        List<AudioTrack> tracks = null;
+        try {
+            tracks = this.loader.load(index);
+        } catch (RuntimeException e) {
+            e.printStackTrace();
+        }
+        this.onLoaded(index, tracks);
+    }
+
+    private synchronized void onLoaded(int index, @Nullable List<AudioTrack> tracks) {
+        this.inFlight--;
+        if (this.finished.isDone()) {
+            return;
+        }
+        this.loaded[index] = tracks;
+        this.done[index] = true;
+
+        // Hand contiguous loaded tracks to the consumer, to keep the saved order
+        while (this.nextConsume < this.size && this.done[this.nextConsume]) {
+            List<AudioTrack> ready = this.loaded[this.nextConsume];
+            this.loaded[this.nextConsume] = null;
+            if (ready != null) {
+                this.consumer.accept(this.nextConsume, ready);
+                if (this.timeToFirstTrack == -1L) {
+                    this.timeToFirstTrack = System.currentTimeMillis() - this.startedAt;
+                }
+            }
+            this.nextConsume++;
+        }
+        if (this.nextConsume == this.size) {
+            this.finished.complete(null);
+            return;
+        }
+
+        // The rest are loaded after the first track
+        while (this.inFlight < this.maxInFlight && this.nextLoad < this.size) {
+            this.submit(this.nextLoad, PRIORITY_REST);
+        }
+    }
+}
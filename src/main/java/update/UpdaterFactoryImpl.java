@@ -4,15 +4,21 @@ import update.reaction.ReactionManager;
 import update.reaction.ReactionManagerImpl;
 import update.response.ResponseManager;
 import update.response.ResponseManagerImpl;
+import utils.TimingWheel;
+
+import java.util.concurrent.TimeUnit;
 
 public class UpdaterFactoryImpl implements UpdaterFactory {
+    // shared by all managers to expire their handlers
+    private final TimingWheel expiryWheel = new TimingWheel("handler-expiry", 1, TimeUnit.SECONDS, 512);
+
     @Override
     public ReactionManager getReactionManager() {
-        return new ReactionManagerImpl();
+        return new ReactionManagerImpl(this.expiryWheel);
     }
 
     @Override
     public ResponseManager getResponseManager() {
-        return new ResponseManagerImpl();
+        return new ResponseManagerImpl(this.expiryWheel);
     }
 }
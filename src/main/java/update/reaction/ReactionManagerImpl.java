@@ -1,99 +1,253 @@
 package update.reaction;
 
 import net.dv8tion.jda.api.events.message.react.MessageReactionAddEvent;
+import org.jetbrains.annotations.TestOnly;
 import update.multipage.MultipageHandler;
+import utils.TimingWheel;
 
 import java.util.*;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentSkipListMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
 import java.util.concurrent.TimeUnit;
-import java.util.function.Predicate;
 
 public class ReactionManagerImpl implements ReactionManager {
+    private static final int DEFAULT_WORKERS = 10;
+
     // message id to reaction response handler
-    private final Map<Long, ReactionResponse> messageHandlers;
-
-    private final Object lock;
-
-    public ReactionManagerImpl() {
-        this.messageHandlers = new HashMap<>();
-        this.lock = new Object();
-
-        long delay = TimeUnit.MINUTES.toMillis(10);
-        ReactionManagerImpl manager = this;
-        new Timer().scheduleAtFixedRate(
-                new TimerTask() {
-                    @Override
-                    public void run() {
-                        manager.clearUp();
-                    }
-                },
-                delay,
-                delay
-        );
+    private final Map<Long, HandlerEntry> messageHandlers;
+    // (user id, channel id) to multipage handlers of the user in the channel, sorted by message id
+    private final Map<UserChannel, NavigableMap<Long, HandlerEntry>> multipageHandlers;
+
+    // runs handlers (e.g. page rendering) outside of the event thread
+    private final ExecutorService workers;
+
+    // schedules expiry of each handler
+    private final TimingWheel expiryWheel;
+
+    /**
+     * Reaction response handler and its pending tasks.
+     * Tasks of one handler are run one at a time, in the order they were submitted.
+     */
+    private static class HandlerEntry {
+        private final ReactionResponse response;
+        private final Queue<Runnable> tasks;
+        private boolean running;
+        private volatile TimingWheel.Timeout expiry;
+
+        private HandlerEntry(ReactionResponse response) {
+            this.response = response;
+            this.tasks = new ArrayDeque<>();
+        }
+    }
+
+    private static class UserChannel {
+        private final long userId;
+        private final long channelId;
+
+        private UserChannel(long userId, long channelId) {
+            this.userId = userId;
+            this.channelId = channelId;
+        }
+
+        @Override
+        public boolean equals(Object o) {
+            if (this == o) return true;
+            if (o == null || getClass() != o.getClass()) return false;
+            UserChannel that = (UserChannel) o;
+            return userId == that.userId && channelId == that.channelId;
+        }
+
+        @Override
+        public int hashCode() {
+            return Objects.hash(userId, channelId);
+        }
+    }
+
+    public ReactionManagerImpl(TimingWheel expiryWheel) {
+        this(expiryWheel, DEFAULT_WORKERS);
+    }
+
+    ReactionManagerImpl(TimingWheel expiryWheel, int workers) {
+        this.messageHandlers = new ConcurrentHashMap<>();
+        this.multipageHandlers = new ConcurrentHashMap<>();
+        this.workers = Executors.newFixedThreadPool(workers, r -> {
+            Thread t = new Thread(r, "reaction-worker");
+            t.setDaemon(true);
+            return t;
+        });
+        this.expiryWheel = expiryWheel;
     }
 
     @Override
     public void addEventListener(ReactionResponse botResponse) {
-        synchronized (this.lock) {
-            this.messageHandlers.put(botResponse.getMessageId(), botResponse);
+        HandlerEntry entry = new HandlerEntry(botResponse);
+        // index first, so that the handler is never removed before being indexed
+        if (botResponse instanceof MultipageHandler) {
+            this.multipageHandlers.compute(getUserChannel(botResponse), (k, handlers) -> {
+                if (handlers == null) {
+                    handlers = new ConcurrentSkipListMap<>();
+                }
+                handlers.put(botResponse.getMessageId(), entry);
+                return handlers;
+            });
+        }
+        HandlerEntry prev = this.messageHandlers.put(botResponse.getMessageId(), entry);
+        if (prev != null) {
+            if (prev.expiry != null) {
+                prev.expiry.cancel();
+            }
+            this.removeIndex(prev);
         }
+        this.scheduleExpiry(entry, botResponse.getMaxLive());
     }
 
     @Override
     public void handle(MessageReactionAddEvent event) {
-        long messageId = event.getMessageIdLong();
+        this.handle(event.getMessageIdLong(), event.getUserIdLong(), event);
+    }
+
+    void handle(long messageId, long userId, MessageReactionAddEvent event) {
+        HandlerEntry entry = this.messageHandlers.get(messageId);
+        if (entry == null) {
+            return;
+        }
+
+        ReactionResponse botResponse = entry.response;
+        if (botResponse.isUserPrivate() && botResponse.getUserId() != userId) {
+            return;
+        }
+
+        this.submit(entry, () -> {
+            // the handler might have been discarded while this task was waiting
+            if (this.messageHandlers.get(messageId) != entry) {
+                return;
+            }
+
+            boolean res = botResponse.handle(event);
+
+            if (res) {
+                this.remove(entry);
+            }
+        });
+    }
 
-        synchronized (this.lock) {
-            if (!this.messageHandlers.containsKey(messageId)) {
+    /**
+     * Submits a task of the handler to the worker pool.
+     * @param entry Handler entry.
+     * @param task Task to run.
+     */
+    private void submit(HandlerEntry entry, Runnable task) {
+        synchronized (entry) {
+            entry.tasks.add(task);
+            if (entry.running) {
+                // the worker currently running this handler will pick up the task
                 return;
             }
+            entry.running = true;
+        }
+        this.workers.execute(() -> runTasks(entry));
+    }
 
-            ReactionResponse botResponse = this.messageHandlers.get(messageId);
-            if (botResponse.isUserPrivate()) {
-                long userId = event.getUserIdLong();
-                if (botResponse.getUserId() != userId) {
+    private static void runTasks(HandlerEntry entry) {
+        while (true) {
+            Runnable task;
+            synchronized (entry) {
+                task = entry.tasks.poll();
+                if (task == null) {
+                    entry.running = false;
                     return;
                 }
             }
 
-            boolean res = botResponse.handle(event);
+            try {
+                task.run();
+            } catch (RuntimeException e) {
+                e.printStackTrace();
+            }
+        }
+    }
 
-            if (res) {
-                this.messageHandlers.remove(messageId);
-                botResponse.onDestroy();
+    /**
+     * Removes the handler from this manager, and calls its on destroy handler if it was still registered.
+     * @param entry Handler entry.
+     */
+    private void remove(HandlerEntry entry) {
+        if (this.messageHandlers.remove(entry.response.getMessageId(), entry)) {
+            TimingWheel.Timeout expiry = entry.expiry;
+            if (expiry != null) {
+                expiry.cancel();
             }
+            this.removeIndex(entry);
+            entry.response.onDestroy();
         }
     }
 
+    private static UserChannel getUserChannel(ReactionResponse response) {
+        return new UserChannel(response.getUserId(), response.getChannelId());
+    }
+
+    /**
+     * Removes the handler from the multipage handler index.
+     * @param entry Handler entry.
+     */
+    private void removeIndex(HandlerEntry entry) {
+        if (!(entry.response instanceof MultipageHandler)) {
+            return;
+        }
+        this.multipageHandlers.computeIfPresent(getUserChannel(entry.response), (k, handlers) -> {
+            handlers.remove(entry.response.getMessageId(), entry);
+            return handlers.isEmpty() ? null : handlers;
+        });
+    }
+
+    private void scheduleExpiry(HandlerEntry entry, long delay) {
+        entry.expiry = this.expiryWheel.schedule(
+                () -> this.submit(entry, () -> this.checkExpiry(entry)),
+                delay, TimeUnit.MILLISECONDS
+        );
+    }
+
     /**
-     * Clears reaction handlers that hasn't been used for more than `maxLive` attribute of each object.
+     * Clears the reaction handler if it hasn't been used for more than its `maxLive` attribute.
+     * If it has been used since the expiry was scheduled, reschedules the expiry to the new time.
+     * @param entry Handler entry.
      */
-    private void clearUp() {
-        long now = System.currentTimeMillis();
-        Predicate<ReactionResponse> removeIf = r -> (now - r.getUpdatedAt()) > r.getMaxLive();
-
-        synchronized (this.lock) {
-            this.messageHandlers.values().stream()
-                    .filter(removeIf)
-                    .forEach(ReactionResponse::onDestroy);
-            this.messageHandlers.values().removeIf(removeIf);
+    private void checkExpiry(HandlerEntry entry) {
+        if (this.messageHandlers.get(entry.response.getMessageId()) != entry) {
+            return;
+        }
+
+        ReactionResponse r = entry.response;
+        long remaining = r.getUpdatedAt() + r.getMaxLive() - System.currentTimeMillis();
+        if (remaining < 0) {
+            this.remove(entry);
+        } else {
+            this.scheduleExpiry(entry, remaining + 1);
         }
     }
 
+    /**
+     * Returns the number of (user id, channel id) keys in the multipage handler index.
+     * @return Number of keys.
+     */
+    @TestOnly
+    int getMultipageIndexSize() {
+        return this.multipageHandlers.size();
+    }
+
     @Override
     public boolean setPage(long userId, long channelId, int newPage) {
-        MultipageHandler handler = this.messageHandlers.values().stream()
-                .filter(h -> h.getUserId() == userId)
-                .filter(h -> h.getChannelId() == channelId)
-                .filter(h -> h instanceof MultipageHandler)
-                .map(h -> (MultipageHandler) h)
-                .max(Comparator.comparingLong(ReactionResponse::getMessageId))
-                .orElse(null);
-
-        if (handler == null) {
+        NavigableMap<Long, HandlerEntry> handlers = this.multipageHandlers.get(new UserChannel(userId, channelId));
+        Map.Entry<Long, HandlerEntry> newest = handlers != null ? handlers.lastEntry() : null;
+        if (newest == null) {
             return false;
         }
 
-        handler.setPageAndUpdate(newPage);
+        HandlerEntry entry = newest.getValue();
+        MultipageHandler handler = (MultipageHandler) entry.response;
+        this.submit(entry, () -> handler.setPageAndUpdate(newPage));
         return true;
     }
 }
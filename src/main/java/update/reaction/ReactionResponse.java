@@ -17,7 +17,7 @@ public class ReactionResponse implements UserResponseListener<MessageReactionAdd
     // Called when this instance is discarded by manager
     private Runnable onDestroy;
 
-    private long updatedAt;
+    private volatile long updatedAt;
     private final long maxLive;
 
     protected ReactionResponse(long messageId, long channelId, long userId, boolean userPrivate,
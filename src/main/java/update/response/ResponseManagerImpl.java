@@ -1,88 +1,125 @@
 package update.response;
 
 import net.dv8tion.jda.api.events.message.MessageReceivedEvent;
+import utils.TimingWheel;
 
-import java.util.*;
+import java.util.ArrayDeque;
+import java.util.Deque;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
 import java.util.concurrent.TimeUnit;
-import java.util.function.Predicate;
 
 public class ResponseManagerImpl implements ResponseManager {
-    private final Map<Long, List<Response>> waitingResponses;
-
-    private final Object lock;
-
-    public ResponseManagerImpl() {
-        this.waitingResponses = new HashMap<>();
-        this.lock = new Object();
-
-        long delay = TimeUnit.MINUTES.toMillis(10);
-        ResponseManagerImpl manager = this;
-        new Timer().scheduleAtFixedRate(
-                new TimerTask() {
-                    @Override
-                    public void run() {
-                        manager.clearUp();
-                    }
-                },
-                delay,
-                delay
-        );
+    // user id to waiting responses, each deque is guarded by itself
+    private final Map<Long, Deque<Response>> waitingResponses;
+
+    // schedules expiry of each response
+    private final TimingWheel expiryWheel;
+
+    public ResponseManagerImpl(TimingWheel expiryWheel) {
+        this.waitingResponses = new ConcurrentHashMap<>();
+        this.expiryWheel = expiryWheel;
     }
 
     @Override
     public void addEventListener(Response botResponse) {
-        synchronized (this.lock) {
-            long userId = botResponse.getUserId();
-            if (!this.waitingResponses.containsKey(userId)) {
-                this.waitingResponses.put(userId, new ArrayList<>());
+        long userId = botResponse.getUserId();
+        while (true) {
+            Deque<Response> responses = this.waitingResponses.computeIfAbsent(userId, k -> new ArrayDeque<>());
+            synchronized (responses) {
+                // the deque was emptied and removed in the meantime; retry with a new one
+                if (this.waitingResponses.get(userId) != responses) {
+                    continue;
+                }
+                responses.add(botResponse);
+                break;
             }
-
-            this.waitingResponses.get(userId).add(botResponse);
         }
+
+        this.scheduleExpiry(botResponse, botResponse.getMaxLive());
     }
 
     @Override
     public void handle(MessageReceivedEvent event) {
-        long userId = event.getAuthor().getIdLong();
+        this.handle(event.getAuthor().getIdLong(), event.getChannel().getIdLong(), event);
+    }
 
-        synchronized (this.lock) {
-            if (!this.waitingResponses.containsKey(userId)) {
+    void handle(long userId, long channelId, MessageReceivedEvent event) {
+        // most messages come from users with no waiting responses
+        Deque<Response> responses = this.waitingResponses.get(userId);
+        if (responses == null) {
+            return;
+        }
+
+        Response destroyed = null;
+        synchronized (responses) {
+            if (this.waitingResponses.get(userId) != responses) {
                 return;
             }
 
-            long channelId = event.getChannel().getIdLong();
-
-            List<Response> responses = this.waitingResponses.get(userId);
-            for (Iterator<Response> it = responses.iterator(); it.hasNext(); ) {
-                Response r = it.next();
-
+            Response matched = null;
+            for (Response r : responses) {
                 if (r.getChannelId() == channelId) {
-                    boolean res = r.handle(event);
-                    if (res) {
-                        it.remove();
-                        r.onDestroy();
-                    }
+                    matched = r;
                     break;
                 }
             }
+            if (matched == null) {
+                return;
+            }
 
-            if (responses.isEmpty()) {
-                this.waitingResponses.remove(userId);
+            boolean res = matched.handle(event);
+            if (res) {
+                responses.remove(matched);
+                destroyed = matched;
+                this.removeIfEmpty(userId, responses);
             }
         }
+
+        if (destroyed != null) {
+            destroyed.onDestroy();
+        }
+    }
+
+    /**
+     * Removes the deque from the map if it is empty. Must be called while holding the deque's lock.
+     * @param userId User id.
+     * @param responses Waiting responses of the user.
+     */
+    private void removeIfEmpty(long userId, Deque<Response> responses) {
+        if (responses.isEmpty()) {
+            this.waitingResponses.remove(userId, responses);
+        }
+    }
+
+    private void scheduleExpiry(Response response, long delay) {
+        this.expiryWheel.schedule(() -> this.checkExpiry(response), delay, TimeUnit.MILLISECONDS);
     }
 
-    private void clearUp() {
-        long now = System.currentTimeMillis();
-        Predicate<Response> removeIf = r -> (now - r.getUpdatedAt()) > r.getMaxLive();
-
-        synchronized (this.lock) {
-            this.waitingResponses.values().stream()
-                    .flatMap(Collection::stream)
-                    .filter(removeIf)
-                    .forEach(Response::onDestroy);
-            this.waitingResponses.values().forEach(l -> l.removeIf(removeIf));
-            this.waitingResponses.entrySet().removeIf(e -> e.getValue().isEmpty());
+    /**
+     * Clears the response if it hasn't been used for more than its `maxLive` attribute.
+     * Reschedules the expiry if it has been updated since the expiry was scheduled.
+     * @param response Response.
+     */
+    private void checkExpiry(Response response) {
+        long remaining = response.getUpdatedAt() + response.getMaxLive() - System.currentTimeMillis();
+        if (remaining >= 0) {
+            this.scheduleExpiry(response, remaining + 1);
+            return;
+        }
+
+        long userId = response.getUserId();
+        Deque<Response> responses = this.waitingResponses.get(userId);
+        if (responses == null) {
+            return;
+        }
+        synchronized (responses) {
+            // already discarded by the handler
+            if (!responses.remove(response)) {
+                return;
+            }
+            this.removeIfEmpty(userId, responses);
         }
+        response.onDestroy();
     }
 }
@@ -1,15 +1,27 @@
 package utils;
 
+import org.apache.http.Header;
+import org.apache.http.HttpClientConnection;
 import org.apache.http.HttpEntity;
+import org.apache.http.HttpHeaders;
+import org.apache.http.HttpHost;
+import org.apache.http.HttpResponse;
+import org.apache.http.HttpStatus;
 import org.apache.http.client.ClientProtocolException;
 import org.apache.http.client.ResponseHandler;
 import org.apache.http.client.config.RequestConfig;
 import org.apache.http.client.methods.HttpGet;
 import org.apache.http.client.methods.HttpPost;
+import org.apache.http.conn.ConnectionPoolTimeoutException;
+import org.apache.http.conn.ConnectionRequest;
+import org.apache.http.conn.routing.HttpRoute;
 import org.apache.http.entity.ContentType;
 import org.apache.http.entity.StringEntity;
 import org.apache.http.impl.client.CloseableHttpClient;
+import org.apache.http.impl.client.DefaultConnectionKeepAliveStrategy;
 import org.apache.http.impl.client.HttpClients;
+import org.apache.http.impl.conn.PoolingHttpClientConnectionManager;
+import org.apache.http.pool.PoolStats;
 import org.apache.http.util.EntityUtils;
 import org.jetbrains.annotations.NotNull;
 
@@ -18,23 +30,241 @@ import java.io.IOException;
 import java.io.UnsupportedEncodingException;
 import java.net.URLEncoder;
 import java.nio.charset.StandardCharsets;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.concurrent.ExecutionException;
 import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.LongAdder;
 
 public class HttpUtils {
-    private static final int TIMEOUT_DEFAULT = (int) TimeUnit.SECONDS.toMillis(10);
-
-    private static final CloseableHttpClient client;
+    private static volatile CloseableHttpClient client;
+    private static volatile MeteredConnectionManager connectionManager;
 
     static {
-        RequestConfig config = RequestConfig.custom()
-                // couldn't find a doc saying the arg is in milliseconds, assuming it is
-                .setConnectionRequestTimeout(TIMEOUT_DEFAULT)
-                .setConnectTimeout(TIMEOUT_DEFAULT)
-                .setSocketTimeout(TIMEOUT_DEFAULT)
+        configure(new Config());
+    }
+
+    /**
+     * HTTP client and connection pool configuration.
+     */
+    public static class Config {
+        // PoolingHttpClientConnectionManager alone allows only 2 connections per route and 20 in total
+        private static final int MAX_CONNECTIONS_PER_HOST = 10;
+        private static final int MAX_CONNECTIONS_TOTAL = 50;
+        private static final int CONNECT_TIMEOUT = (int) TimeUnit.SECONDS.toMillis(5);
+        private static final int SOCKET_TIMEOUT = (int) TimeUnit.SECONDS.toMillis(10);
+        private static final int CONNECTION_REQUEST_TIMEOUT = (int) TimeUnit.SECONDS.toMillis(10);
+        private static final long IDLE_CONNECTION_TIMEOUT = TimeUnit.SECONDS.toMillis(30);
+        private static final long KEEP_ALIVE = TimeUnit.SECONDS.toMillis(30);
+
+        private final int maxConnectionsPerHost;
+        private final int maxConnectionsTotal;
+        private final Map<String, Integer> hostMaxConnections;
+        private final int connectTimeout;
+        private final int socketTimeout;
+        private final int connectionRequestTimeout;
+        private final long idleConnectionTimeout;
+        private final long keepAlive;
+
+        /**
+         * Creates the default config.
+         */
+        public Config() {
+            this(MAX_CONNECTIONS_PER_HOST, MAX_CONNECTIONS_TOTAL, new HashMap<>(),
+                    CONNECT_TIMEOUT, SOCKET_TIMEOUT, CONNECTION_REQUEST_TIMEOUT,
+                    IDLE_CONNECTION_TIMEOUT, KEEP_ALIVE);
+        }
+
+        /**
+         * Creates a config.
+         * @param maxConnectionsPerHost Default max number of pooled connections per host.
+         * @param maxConnectionsTotal Max number of pooled connections in total.
+         * @param hostMaxConnections Max number of pooled connections of specific hosts, overriding the default.
+         * @param connectTimeout Timeout in milliseconds until a connection is established.
+         * @param socketTimeout Timeout in milliseconds of waiting for data from an established connection.
+         * @param connectionRequestTimeout Timeout in milliseconds of waiting for a connection from the pool.
+         * @param idleConnectionTimeout Pooled connections idle for longer than this (in milliseconds) are closed.
+         * @param keepAlive Max time in milliseconds to keep a connection alive,
+         *                  if the server did not specify a shorter one by "Keep-Alive" header.
+         */
+        public Config(int maxConnectionsPerHost, int maxConnectionsTotal,
+                      @NotNull Map<String, Integer> hostMaxConnections,
+                      int connectTimeout, int socketTimeout, int connectionRequestTimeout,
+                      long idleConnectionTimeout, long keepAlive) {
+            this.maxConnectionsPerHost = maxConnectionsPerHost;
+            this.maxConnectionsTotal = maxConnectionsTotal;
+            this.hostMaxConnections = hostMaxConnections;
+            this.connectTimeout = connectTimeout;
+            this.socketTimeout = socketTimeout;
+            this.connectionRequestTimeout = connectionRequestTimeout;
+            this.idleConnectionTimeout = idleConnectionTimeout;
+            this.keepAlive = keepAlive;
+        }
+    }
+
+    /**
+     * Replaces the HTTP client with a new one built from the given config.
+     * Should be called on startup before any request is sent, as requests in flight on the old client are aborted.
+     * @param config Config.
+     */
+    public static synchronized void configure(@NotNull Config config) {
+        MeteredConnectionManager manager = new MeteredConnectionManager();
+        manager.setMaxTotal(config.maxConnectionsTotal);
+        manager.setDefaultMaxPerRoute(config.maxConnectionsPerHost);
+        for (Map.Entry<String, Integer> e : config.hostMaxConnections.entrySet()) {
+            manager.setMaxPerRoute(new HttpRoute(new HttpHost(e.getKey(), 80, "http")), e.getValue());
+            manager.setMaxPerRoute(new HttpRoute(new HttpHost(e.getKey(), 443, "https"), null, true), e.getValue());
+        }
+
+        RequestConfig requestConfig = RequestConfig.custom()
+                .setConnectTimeout(config.connectTimeout)
+                .setSocketTimeout(config.socketTimeout)
+                .setConnectionRequestTimeout(config.connectionRequestTimeout)
                 .build();
-        client = HttpClients.custom()
-                .setDefaultRequestConfig(config)
+        long keepAlive = config.keepAlive;
+        CloseableHttpClient newClient = HttpClients.custom()
+                .setConnectionManager(manager)
+                .setDefaultRequestConfig(requestConfig)
+                // content compression is enabled by default;
+                // sends "Accept-Encoding: gzip,deflate" and transparently decodes the response
+                // honor the server's "Keep-Alive: timeout=n" header, up to the configured time
+                .setKeepAliveStrategy((response, context) -> {
+                    long duration = DefaultConnectionKeepAliveStrategy.INSTANCE.getKeepAliveDuration(response, context);
+                    return duration > 0 ? Math.min(duration, keepAlive) : keepAlive;
+                })
+                // background thread closing connections closed by the server or idle for too long
+                .evictExpiredConnections()
+                .evictIdleConnections(config.idleConnectionTimeout, TimeUnit.MILLISECONDS)
                 .build();
+
+        CloseableHttpClient oldClient = client;
+        client = newClient;
+        connectionManager = manager;
+        if (oldClient != null) {
+            try {
+                oldClient.close();
+            } catch (IOException e) {
+                e.printStackTrace();
+            }
+        }
+    }
+
+    /**
+     * Connection manager recording time spent waiting for a connection to be leased from the pool.
+     */
+    private static class MeteredConnectionManager extends PoolingHttpClientConnectionManager {
+        private final LongAdder leases = new LongAdder();
+        private final LongAdder leaseWaitNanos = new LongAdder();
+        private final LongAdder leaseTimeouts = new LongAdder();
+
+        @Override
+        public ConnectionRequest requestConnection(HttpRoute route, Object state) {
+            ConnectionRequest request = super.requestConnection(route, state);
+            return new ConnectionRequest() {
+                @Override
+                public HttpClientConnection get(long timeout, TimeUnit timeUnit)
+                        throws InterruptedException, ExecutionException, ConnectionPoolTimeoutException {
+                    long start = System.nanoTime();
+                    try {
+                        return request.get(timeout, timeUnit);
+                    } catch (ConnectionPoolTimeoutException e) {
+                        leaseTimeouts.increment();
+                        throw e;
+                    } finally {
+                        leases.increment();
+                        leaseWaitNanos.add(System.nanoTime() - start);
+                    }
+                }
+
+                @Override
+                public boolean cancel() {
+                    return request.cancel();
+                }
+            };
+        }
+    }
+
+    /**
+     * Returns the current state of the connection pool.
+     * Lease counters are cumulative since the client was configured.
+     * @return Pool metrics.
+     */
+    @NotNull
+    public static PoolMetrics getPoolMetrics() {
+        MeteredConnectionManager manager = connectionManager;
+        PoolStats stats = manager.getTotalStats();
+        return new PoolMetrics(stats.getLeased(), stats.getAvailable(), stats.getPending(), stats.getMax(),
+                manager.leases.sum(), manager.leaseWaitNanos.sum(), manager.leaseTimeouts.sum());
+    }
+
+    /**
+     * Snapshot of the connection pool state.
+     */
+    public static class PoolMetrics {
+        private final int leased;
+        private final int available;
+        private final int pending;
+        private final int max;
+        private final long leases;
+        private final long leaseWaitNanos;
+        private final long leaseTimeouts;
+
+        private PoolMetrics(int leased, int available, int pending, int max,
+                            long leases, long leaseWaitNanos, long leaseTimeouts) {
+            this.leased = leased;
+            this.available = available;
+            this.pending = pending;
+            this.max = max;
+            this.leases = leases;
+            this.leaseWaitNanos = leaseWaitNanos;
+            this.leaseTimeouts = leaseTimeouts;
+        }
+
+        /**
+         * Returns the number of connections currently in use.
+         */
+        public int getLeased() {
+            return leased;
+        }
+
+        /**
+         * Returns the number of idle connections kept alive in the pool.
+         */
+        public int getAvailable() {
+            return available;
+        }
+
+        /**
+         * Returns the number of requests currently waiting for a connection.
+         */
+        public int getPending() {
+            return pending;
+        }
+
+        public int getMax() {
+            return max;
+        }
+
+        /**
+         * Returns the number of connection leases, including timed out ones.
+         */
+        public long getLeases() {
+            return leases;
+        }
+
+        /**
+         * Returns the total time spent waiting for connections to be leased, in nanoseconds.
+         */
+        public long getLeaseWaitNanos() {
+            return leaseWaitNanos;
+        }
+
+        /**
+         * Returns the number of leases that timed out waiting for a connection.
+         */
+        public long getLeaseTimeouts() {
+            return leaseTimeouts;
+        }
     }
 
     /**
@@ -51,6 +281,96 @@ public class HttpUtils {
         return client.execute(request, responseHandler(expectedStatusCodes));
     }
 
+    /**
+     * Sends conditional GET request to specified URL, with the validators of the last response if any.
+     * @param url URL string.
+     * @param etag ETag of the last response, sent as "If-None-Match" header.
+     * @param lastModified Last-Modified of the last response, sent as "If-Modified-Since" header.
+     * @return Response.
+     * @throws IOException On connection issues & status code other than 2xx or 304 was returned.
+     */
+    @NotNull
+    public static ConditionalResponse getConditional(String url, @Nullable String etag, @Nullable String lastModified) throws IOException {
+        HttpGet request = new HttpGet(url);
+        if (etag != null) {
+            request.setHeader(HttpHeaders.IF_NONE_MATCH, etag);
+        }
+        if (lastModified != null) {
+            request.setHeader(HttpHeaders.IF_MODIFIED_SINCE, lastModified);
+        }
+        return client.execute(request, response -> {
+            int status = response.getStatusLine().getStatusCode();
+            if (status == HttpStatus.SC_NOT_MODIFIED) {
+                // validators may be omitted in 304 response
+                String newETag = getHeader(response, HttpHeaders.ETAG);
+                String newLastModified = getHeader(response, HttpHeaders.LAST_MODIFIED);
+                return new ConditionalResponse(true, null,
+                        newETag != null ? newETag : etag,
+                        newLastModified != null ? newLastModified : lastModified);
+            } else if (status >= 200 && status < 300) {
+                HttpEntity entity = response.getEntity();
+                return new ConditionalResponse(false, entity != null ? EntityUtils.toString(entity) : null,
+                        getHeader(response, HttpHeaders.ETAG),
+                        getHeader(response, HttpHeaders.LAST_MODIFIED));
+            } else {
+                throw new ClientProtocolException("Unexpected response status: " + status);
+            }
+        });
+    }
+
+    @Nullable
+    private static String getHeader(HttpResponse response, String name) {
+        Header header = response.getFirstHeader(name);
+        return header != null ? header.getValue() : null;
+    }
+
+    /**
+     * Response of a conditional GET request.
+     */
+    public static class ConditionalResponse {
+        private final boolean notModified;
+        @Nullable
+        private final String body;
+        @Nullable
+        private final String etag;
+        @Nullable
+        private final String lastModified;
+
+        private ConditionalResponse(boolean notModified, @Nullable String body, @Nullable String etag, @Nullable String lastModified) {
+            this.notModified = notModified;
+            this.body = body;
+            this.etag = etag;
+            this.lastModified = lastModified;
+        }
+
+        /**
+         * Returns if the server returned 304 Not Modified.
+         * @return {@code true} if the resource has not been modified since the last response.
+         */
+        public boolean isNotModified() {
+            return notModified;
+        }
+
+        /**
+         * Returns response body.
+         * @return Body. null if the server returned 304 Not Modified, or the body was empty.
+         */
+        @Nullable
+        public String getBody() {
+            return body;
+        }
+
+        @Nullable
+        public String getETag() {
+            return etag;
+        }
+
+        @Nullable
+        public String getLastModified() {
+            return lastModified;
+        }
+    }
+
     /**
      * Sends POST request to specified URL.
      * @param url URL string.
@@ -0,0 +1,170 @@
+package utils;
+
+import com.fasterxml.jackson.core.JsonFactory;
+import com.fasterxml.jackson.core.JsonParser;
+import com.fasterxml.jackson.core.JsonToken;
+import org.jetbrains.annotations.NotNull;
+
+import javax.annotation.Nullable;
+import java.io.IOException;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Keeps the last parsed response of a GET resource, to skip parsing it again while it has not changed.
+ * Sends conditional requests if the server provided ETag / Last-Modified validators,
+ * and otherwise compares the fingerprint of the raw body with the last one.
+ * @param <T> Parsed type.
+ */
+public class ParsedResource<T> {
+    public interface Parser<T> {
+        @NotNull
+        T parse(@NotNull String body) throws Exception;
+    }
+
+    public interface Fingerprinter {
+        long fingerprint(@NotNull String body) throws IOException;
+    }
+
+    private static final JsonFactory jsonFactory = new JsonFactory();
+
+    private static final AtomicLong totalSkippedParses = new AtomicLong();
+
+    private final String url;
+    private final Parser<T> parser;
+    private final Fingerprinter fingerprinter;
+    private final AtomicLong skippedParses;
+
+    // last response, guarded by this
+    @Nullable
+    private T last;
+    private long lastFingerprint;
+    @Nullable
+    private String etag;
+    @Nullable
+    private String lastModified;
+
+    public ParsedResource(String url, Parser<T> parser) {
+        this(url, parser, ParsedResource::fingerprint);
+    }
+
+    /**
+     * Creates a resource with a custom fingerprint.
+     * @param url URL.
+     * @param parser Body parser.
+     * @param fingerprinter Computes the fingerprint of the part of the body which the parsed instance depends on.
+     *                      Parts changing on every response, such as a response timestamp, should be left out.
+     */
+    public ParsedResource(String url, Parser<T> parser, Fingerprinter fingerprinter) {
+        this.url = url;
+        this.parser = parser;
+        this.fingerprinter = fingerprinter;
+        this.skippedParses = new AtomicLong();
+    }
+
+    /**
+     * Requests the resource, and parses the body if it has changed since the last call.
+     * @return Parsed instance. The same instance as the last call if the resource has not changed.
+     * @throws Exception On connection issues, status code other than 2xx or 304, or parse exception.
+     */
+    @NotNull
+    public synchronized T get() throws Exception {
+        HttpUtils.ConditionalResponse res = this.last == null
+                ? HttpUtils.getConditional(this.url, null, null)
+                : HttpUtils.getConditional(this.url, this.etag, this.lastModified);
+
+        if (res.isNotModified()) {
+            if (this.last == null) {
+                throw new IOException("Received 304 Not Modified without a previous response");
+            }
+            return this.skipParse(res);
+        }
+
+        String body = res.getBody();
+        if (body == null) throw new IOException("returned body was null");
+
+        long fingerprint = this.fingerprinter.fingerprint(body);
+        if (this.last != null && fingerprint == this.lastFingerprint) {
+            return this.skipParse(res);
+        }
+
+        T parsed = this.parser.parse(body);
+        this.last = parsed;
+        this.lastFingerprint = fingerprint;
+        this.etag = res.getETag();
+        this.lastModified = res.getLastModified();
+        return parsed;
+    }
+
+    @NotNull
+    private T skipParse(HttpUtils.ConditionalResponse res) {
+        this.etag = res.getETag();
+        this.lastModified = res.getLastModified();
+        this.skippedParses.incrementAndGet();
+        totalSkippedParses.incrementAndGet();
+        assert this.last != null;
+        return this.last;
+    }
+
+    /**
+     * Returns the number of responses this resource skipped parsing because they had not changed.
+     * @return Number of skipped parses.
+     */
+    public long getSkippedParses() {
+        return this.skippedParses.get();
+    }
+
+    /**
+     * Returns the number of responses all resources skipped parsing because they had not changed.
+     * @return Number of skipped parses.
+     */
+    public static long getTotalSkippedParses() {
+        return totalSkippedParses.get();
+    }
+
+    /**
+     * Computes 64-bit FNV-1a hash of the body.
+     * Collisions are unlikely enough among successive responses of the same resource.
+     * @param body Body.
+     * @return Fingerprint.
+     */
+    static long fingerprint(@NotNull String body) {
+        return fingerprint(0xcbf29ce484222325L, body, 0, body.length());
+    }
+
+    private static long fingerprint(long hash, @NotNull String body, int from, int to) {
+        for (int i = from; i < to; i++) {
+            hash ^= body.charAt(i);
+            hash *= 0x100000001b3L;
+        }
+        return hash;
+    }
+
+    /**
+     * Computes the fingerprint of a JSON object body, leaving out the given top-level field.
+     * The body is only tokenized to find the field, which is much cheaper than binding it.
+     * @param body JSON object body.
+     * @param ignoredField Top-level field name to leave out, e.g. "request" holding the response timestamp.
+     * @return Fingerprint.
+     * @throws IOException If the body is not a valid JSON.
+     */
+    public static long fingerprintExcept(@NotNull String body, @NotNull String ignoredField) throws IOException {
+        long hash = 0xcbf29ce484222325L;
+        int from = 0;
+        try (JsonParser parser = jsonFactory.createParser(body)) {
+            if (parser.nextToken() != JsonToken.START_OBJECT) {
+                return fingerprint(body);
+            }
+            while (parser.nextToken() == JsonToken.FIELD_NAME) {
+                int fieldStart = (int) parser.getTokenLocation().getCharOffset();
+                boolean ignored = ignoredField.equals(parser.getCurrentName());
+                parser.nextToken();
+                parser.skipChildren();
+                if (ignored) {
+                    hash = fingerprint(hash, body, from, fieldStart);
+                    from = (int) parser.getCurrentLocation().getCharOffset();
+                }
+            }
+        }
+        return fingerprint(hash, body, from, body.length());
+    }
+}
@@ -0,0 +1,128 @@
+package utils;
+
+import org.jetbrains.annotations.NotNull;
+
+import java.util.ArrayList;
+import java.util.Iterator;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Hashed timing wheel, runs tasks after the given delays with the precision of one tick.
+ * Scheduling and cancelling a task is O(1). A single daemon thread advances the wheel every tick,
+ * and only looks at the tasks in the bucket of the current tick.
+ * Tasks are run on the wheel thread, so they should be short or hand off their work to another thread.
+ */
+public class TimingWheel {
+    public static class Timeout {
+        private final Runnable task;
+        private final long deadlineTick;
+        private volatile boolean cancelled;
+
+        private Timeout(Runnable task, long deadlineTick) {
+            this.task = task;
+            this.deadlineTick = deadlineTick;
+        }
+
+        /**
+         * Cancels this timeout. The task will not be run if it has not run yet.
+         */
+        public void cancel() {
+            this.cancelled = true;
+        }
+
+        public boolean isCancelled() {
+            return cancelled;
+        }
+    }
+
+    private final long tickMillis;
+    private final int mask;
+    private final List<Timeout>[] buckets;
+
+    private final Object lock;
+    // number of ticks the wheel has advanced
+    private long currentTick;
+
+    /**
+     * Creates a new timing wheel and starts its thread.
+     * @param name Name of the wheel thread.
+     * @param tickDuration Duration of one tick.
+     * @param unit Time unit of the tick duration.
+     * @param wheelSize Number of buckets, rounded up to a power of two.
+     */
+    @SuppressWarnings("unchecked")
+    public TimingWheel(@NotNull String name, long tickDuration, @NotNull TimeUnit unit, int wheelSize) {
+        this.tickMillis = Math.max(1, unit.toMillis(tickDuration));
+        int size = Integer.highestOneBit(Math.max(wheelSize, 1) * 2 - 1);
+        this.mask = size - 1;
+        this.buckets = new List[size];
+        for (int i = 0; i < size; i++) {
+            this.buckets[i] = new ArrayList<>();
+        }
+        this.lock = new Object();
+
+        Thread thread = new Thread(this::run, name);
+        thread.setDaemon(true);
+        thread.start();
+    }
+
+    /**
+     * Schedules the task to be run after the delay.
+     * @param task Task to run.
+     * @param delay Delay.
+     * @param unit Time unit of the delay.
+     * @return Timeout handle, which can be used to cancel the task.
+     */
+    @NotNull
+    public Timeout schedule(@NotNull Runnable task, long delay, @NotNull TimeUnit unit) {
+        // round up, so that the task never runs before the delay
+        long ticks = Math.max(1, (unit.toMillis(delay) + this.tickMillis - 1) / this.tickMillis);
+        synchronized (this.lock) {
+            Timeout timeout = new Timeout(task, this.currentTick + ticks);
+            this.buckets[(int) (timeout.deadlineTick & this.mask)].add(timeout);
+            return timeout;
+        }
+    }
+
+    private void run() {
+        long start = System.currentTimeMillis();
+        while (true) {
+            long tick;
+            synchronized (this.lock) {
+                tick = this.currentTick + 1;
+            }
+            long sleep = start + tick * this.tickMillis - System.currentTimeMillis();
+            if (sleep > 0) {
+                try {
+                    Thread.sleep(sleep);
+                } catch (InterruptedException e) {
+                    return;
+                }
+            }
+
+            List<Timeout> expired = new ArrayList<>();
+            synchronized (this.lock) {
+                this.currentTick = tick;
+                for (Iterator<Timeout> it = this.buckets[(int) (tick & this.mask)].iterator(); it.hasNext(); ) {
+                    Timeout timeout = it.next();
+                    if (timeout.cancelled) {
+                        it.remove();
+                    } else if (timeout.deadlineTick <= tick) {
+                        it.remove();
+                        expired.add(timeout);
+                    }
+                }
+            }
+
+            for (Timeout timeout : expired) {
+                if (timeout.cancelled) continue;
+                try {
+                    timeout.task.run();
+                } catch (RuntimeException e) {
+                    e.printStackTrace();
+                }
+            }
+        }
+    }
+}
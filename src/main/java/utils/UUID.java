@@ -2,30 +2,100 @@ package utils;
 
 import org.jetbrains.annotations.NotNull;
 
+import javax.annotation.Nullable;
 import java.util.Arrays;
-import java.util.Objects;
 
 /**
  * Represents Minecraft username UUID (Universal Unique Identifier).
+ * Stored as two longs, the same way as the 16 bytes of binary form in big-endian order.
  */
 
 public class UUID {
-    private final byte[] data;
+    private final long mostSigBits;
+    private final long leastSigBits;
+
+    public UUID(long mostSigBits, long leastSigBits) {
+        this.mostSigBits = mostSigBits;
+        this.leastSigBits = leastSigBits;
+    }
 
     public UUID(byte[] data) {
         if (data.length != 16) {
             throw new IllegalArgumentException("Length of the given data (" + data.length + ") is not correct (want 16).");
         }
 
-        this.data = data;
+        long msb = 0;
+        long lsb = 0;
+        for (int i = 0; i < 8; i++) {
+            msb = (msb << 8) | (data[i] & 0xFF);
+        }
+        for (int i = 8; i < 16; i++) {
+            lsb = (lsb << 8) | (data[i] & 0xFF);
+        }
+        this.mostSigBits = msb;
+        this.leastSigBits = lsb;
     }
 
-    public UUID(@NotNull String uuid) {
-        if (!isUUID(uuid)) {
+    public UUID(@NotNull CharSequence uuid) {
+        UUID parsed = parse(uuid);
+        if (parsed == null) {
             throw new IllegalArgumentException("Given argument (" + uuid + ") is not a valid UUID.");
         }
+        this.mostSigBits = parsed.mostSigBits;
+        this.leastSigBits = parsed.leastSigBits;
+    }
 
-        this.data = convertUUID(uuid.replace("-", ""));
+    /**
+     * Validates and parses the UUID in a single pass.
+     * @param uuid Possible UUID string. Can be either with hyphens or not.
+     * @return Parsed UUID. null if it was not a valid UUID.
+     */
+    @Nullable
+    public static UUID parse(@NotNull CharSequence uuid) {
+        int length = uuid.length();
+        boolean hyphens = length == 36;
+        if (length != 32 && !hyphens) return null;
+
+        long msb = 0;
+        long lsb = 0;
+        int read = 0;
+        for (int i = 0; i < length; i++) {
+            char c = uuid.charAt(i);
+            if (hyphens && isHyphenIndex(i)) {
+                if (c != '-') return null;
+                continue;
+            }
+            int digit = hexDigit(c);
+            if (digit == -1) return null;
+            if (read < 16) {
+                msb = (msb << 4) | digit;
+            } else {
+                lsb = (lsb << 4) | digit;
+            }
+            read++;
+        }
+        return new UUID(msb, lsb);
+    }
+
+    public long getMostSignificantBits() {
+        return mostSigBits;
+    }
+
+    public long getLeastSignificantBits() {
+        return leastSigBits;
+    }
+
+    /**
+     * Returns 16 bytes binary form of this UUID, as stored in {@code BINARY(16)} columns.
+     * @return Byte array data of the UUID.
+     */
+    public byte[] toBytes() {
+        byte[] data = new byte[16];
+        for (int i = 0; i < 8; i++) {
+            data[i] = (byte) (mostSigBits >>> (8 * (7 - i)));
+            data[i + 8] = (byte) (leastSigBits >>> (8 * (7 - i)));
+        }
+        return data;
     }
 
     private final static char[] hexArray = "0123456789abcdef".toCharArray();
@@ -35,12 +105,9 @@ public class UUID {
      * @return Example `123e4567e89b12d3a456426655440000`
      */
     public String toString() {
-        char[] hexChars = new char[data.length * 2];
-        for ( int j = 0; j < data.length; j++ ) {
-            int v = data[j] & 0xFF;
-            hexChars[j * 2] = hexArray[v >>> 4];
-            hexChars[j * 2 + 1] = hexArray[v & 0x0F];
-        }
+        char[] hexChars = new char[32];
+        writeHex(hexChars, 0, mostSigBits, 16);
+        writeHex(hexChars, 16, leastSigBits, 16);
         return new String(hexChars);
     }
 
@@ -49,23 +116,40 @@ public class UUID {
      * @return Example `123e4567-e89b-12d3-a456-426655440000`
      */
     public String toStringWithHyphens() {
-        String str = this.toString();
-        String hy = "-";
-        return str.substring(0, 8) + hy
-                + str.substring(8, 12) + hy
-                + str.substring(12, 16) + hy
-                + str.substring(16, 20) + hy
-                + str.substring(20, 32);
+        char[] hexChars = new char[36];
+        writeHex(hexChars, 0, mostSigBits >>> 32, 8);
+        hexChars[8] = '-';
+        writeHex(hexChars, 9, mostSigBits >>> 16, 4);
+        hexChars[13] = '-';
+        writeHex(hexChars, 14, mostSigBits, 4);
+        hexChars[18] = '-';
+        writeHex(hexChars, 19, leastSigBits >>> 48, 4);
+        hexChars[23] = '-';
+        writeHex(hexChars, 24, leastSigBits, 12);
+        return new String(hexChars);
+    }
+
+    /**
+     * Writes the lowest digits of the value in hex.
+     */
+    private static void writeHex(char[] dest, int offset, long value, int digits) {
+        for (int i = offset + digits - 1; i >= offset; i--) {
+            dest[i] = hexArray[(int) (value & 0x0F)];
+            value >>>= 4;
+        }
     }
 
     @Override
     public boolean equals(Object obj) {
-        return obj instanceof UUID && Arrays.equals(data, ((UUID) obj).data);
+        if (!(obj instanceof UUID)) return false;
+        UUID other = (UUID) obj;
+        return mostSigBits == other.mostSigBits && leastSigBits == other.leastSigBits;
     }
 
     @Override
     public int hashCode() {
-        return Objects.hash(Arrays.hashCode(data));
+        long bits = mostSigBits ^ leastSigBits;
+        return (int) (bits >> 32) ^ (int) bits;
     }
 
     /**
@@ -74,34 +158,40 @@ public class UUID {
      * @param possibleUUID Possible UUID string. Can be either with hyphens or not.
      * @return True if it was a valid UUID.
      */
-    public static boolean isUUID(@NotNull String possibleUUID) {
-        return isTrimmedUUID(possibleUUID) || isUUIDWithHyphens(possibleUUID);
+    public static boolean isUUID(@NotNull CharSequence possibleUUID) {
+        int length = possibleUUID.length();
+        boolean hyphens = length == 36;
+        if (length != 32 && !hyphens) return false;
+
+        for (int i = 0; i < length; i++) {
+            char c = possibleUUID.charAt(i);
+            if (hyphens && isHyphenIndex(i)) {
+                if (c != '-') return false;
+            } else if (hexDigit(c) == -1) {
+                return false;
+            }
+        }
+        return true;
     }
 
-    private static boolean isTrimmedUUID(@NotNull String possibleUUID) {
-        return possibleUUID.matches("[0-9a-f]{32}");
+    private static boolean isHyphenIndex(int i) {
+        return i == 8 || i == 13 || i == 18 || i == 23;
     }
 
-    private static boolean isUUIDWithHyphens(@NotNull String possibleUUID) {
-        return possibleUUID.matches("[0-9a-f]{8}-[0-9a-f]{4}-[0-9a-f]{4}-[0-9a-f]{4}-[0-9a-f]{12}");
+    private final static byte[] hexDigits = new byte[128];
+
+    static {
+        Arrays.fill(hexDigits, (byte) -1);
+        for (int i = 0; i < hexArray.length; i++) {
+            hexDigits[hexArray[i]] = (byte) i;
+        }
     }
 
     /**
-     * Convert String UUID to byte array data, to save memory space.
-     * @param s Trimmed UUID (i.e. without hyphens).
-     * @return Byte array data of the UUID.
+     * Returns the value of a lower-case hex digit.
+     * @return Digit value, or -1 if not a digit.
      */
-    private static byte[] convertUUID(String s) {
-        if (!isTrimmedUUID(s)) {
-            throw new IllegalArgumentException("Given argument (" + s + ") is not a valid UUID.");
-        }
-
-        int len = s.length();
-        byte[] data = new byte[len / 2];
-        for (int i = 0; i < len; i += 2) {
-            data[i / 2] = (byte) ((Character.digit(s.charAt(i), 16) << 4)
-                    + Character.digit(s.charAt(i+1), 16));
-        }
-        return data;
+    private static int hexDigit(char c) {
+        return c < 128 ? hexDigits[c] : -1;
     }
 }
@@ -0,0 +1,232 @@
+package utils.cache;
+
+import log.Logger;
+import org.jetbrains.annotations.NotNull;
+
+import java.io.*;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+/**
+ * On-disk snapshot of in-memory caches, to warm them up on restart.
+ * Each section is stored with its name and length, so that unknown or broken sections can be skipped.
+ * Records keep their original created time, so that they expire as if the process had not restarted.
+ */
+public class CacheSnapshot {
+    private static final int MAGIC = 0x6d626373;
+    private static final int FORMAT_VERSION = 1;
+
+    /**
+     * A named part of the snapshot.
+     */
+    public interface Section {
+        @NotNull
+        String getName();
+
+        /**
+         * Writes the current state.
+         */
+        void write(DataOutputStream out) throws IOException;
+
+        /**
+         * Restores the state written by {@link #write(DataOutputStream)}.
+         */
+        void read(DataInputStream in) throws IOException;
+    }
+
+    public interface Encoder<T> {
+        void write(DataOutputStream out, @NotNull T value) throws IOException;
+    }
+
+    public interface Decoder<T> {
+        @NotNull
+        T read(DataInputStream in) throws IOException;
+    }
+
+    private final Path path;
+    private final Logger logger;
+    private final Map<String, Section> sections;
+
+    public CacheSnapshot(Path path, Logger logger) {
+        this.path = path;
+        this.logger = logger;
+        this.sections = new LinkedHashMap<>();
+    }
+
+    public synchronized void register(@NotNull Section section) {
+        this.sections.put(section.getName(), section);
+    }
+
+    /**
+     * Writes all sections to the snapshot file.
+     * Writes to a temporary file first, and replaces the file with it.
+     * @return {@code true} if success.
+     */
+    public synchronized boolean save() {
+        long start = System.nanoTime();
+        Path tmp = this.path.resolveSibling(this.path.getFileName() + ".tmp");
+        try {
+            Path parent = this.path.toAbsolutePath().getParent();
+            if (parent != null) {
+                Files.createDirectories(parent);
+            }
+
+            try (DataOutputStream out = new DataOutputStream(new BufferedOutputStream(Files.newOutputStream(tmp)))) {
+                out.writeInt(MAGIC);
+                out.writeInt(FORMAT_VERSION);
+                out.writeInt(this.sections.size());
+                for (Section section : this.sections.values()) {
+                    ByteArrayOutputStream payload = new ByteArrayOutputStream();
+                    try (DataOutputStream sectionOut = new DataOutputStream(payload)) {
+                        section.write(sectionOut);
+                    }
+                    writeString(out, section.getName());
+                    out.writeInt(payload.size());
+                    payload.writeTo(out);
+                }
+            }
+            Files.move(tmp, this.path, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+        } catch (IOException e) {
+            this.logger.logException("Cache snapshot: failed to save to " + this.path, e);
+            return false;
+        }
+        long end = System.nanoTime();
+        this.logger.debug(String.format("Cache snapshot: saved %s sections, took %s ms.",
+                this.sections.size(), (double) (end - start) / 1_000_000d));
+        return true;
+    }
+
+    /**
+     * Restores all registered sections from the snapshot file, if exists.
+     * @return {@code true} if the snapshot was loaded.
+     */
+    public synchronized boolean load() {
+        if (!Files.exists(this.path)) {
+            this.logger.log(-1, "Cache snapshot: no snapshot found at " + this.path);
+            return false;
+        }
+
+        long start = System.nanoTime();
+        int loaded = 0;
+        try (DataInputStream in = new DataInputStream(new BufferedInputStream(Files.newInputStream(this.path)))) {
+            if (in.readInt() != MAGIC || in.readInt() != FORMAT_VERSION) {
+                this.logger.log(0, "Cache snapshot: ignoring snapshot of unknown format at " + this.path);
+                return false;
+            }
+            int count = in.readInt();
+            for (int i = 0; i < count; i++) {
+                String name = readString(in);
+                byte[] payload = readBytes(in);
+
+                Section section = this.sections.get(name);
+                if (section == null) {
+                    continue;
+                }
+                try (DataInputStream sectionIn = new DataInputStream(new ByteArrayInputStream(payload))) {
+                    section.read(sectionIn);
+                    loaded++;
+                } catch (IOException | RuntimeException e) {
+                    this.logger.logException("Cache snapshot: failed to restore section " + name, e);
+                }
+            }
+        } catch (IOException e) {
+            this.logger.logException("Cache snapshot: failed to load from " + this.path, e);
+            return false;
+        }
+        long end = System.nanoTime();
+        this.logger.log(-1, String.format("Cache snapshot: restored %s sections, took %s ms.",
+                loaded, (double) (end - start) / 1_000_000d));
+        return true;
+    }
+
+    /**
+     * Creates a section of a cache keyed by strings.
+     * @param name Section name.
+     * @param cache Cache to write.
+     * @param encoder Value encoder.
+     * @param decoder Value decoder.
+     * @param restore Called with each restored record, usually adds the record to the cache.
+     * @param <T> Value type.
+     * @return Section.
+     */
+    public static <T> Section cacheSection(@NotNull String name,
+                                           @NotNull DataCache<String, T> cache,
+                                           @NotNull Encoder<T> encoder,
+                                           @NotNull Decoder<T> decoder,
+                                           @NotNull DataCache.RecordConsumer<String, T> restore) {
+        return new Section() {
+            @Override
+            public @NotNull String getName() {
+                return name;
+            }
+
+            @Override
+            public void write(DataOutputStream out) throws IOException {
+                ByteArrayOutputStream records = new ByteArrayOutputStream();
+                DataOutputStream recordsOut = new DataOutputStream(records);
+                int[] count = new int[1];
+                try {
+                    cache.forEach((key, value, createdAt) -> {
+                        try {
+                            writeString(recordsOut, key);
+                            recordsOut.writeLong(createdAt);
+                            recordsOut.writeBoolean(value != null);
+                            if (value != null) {
+                                encoder.write(recordsOut, value);
+                            }
+                        } catch (IOException e) {
+                            throw new UncheckedIOException(e);
+                        }
+                        count[0]++;
+                    });
+                } catch (UncheckedIOException e) {
+                    throw e.getCause();
+                }
+                recordsOut.flush();
+
+                out.writeInt(count[0]);
+                records.writeTo(out);
+            }
+
+            @Override
+            public void read(DataInputStream in) throws IOException {
+                int count = in.readInt();
+                for (int i = 0; i < count; i++) {
+                    String key = readString(in);
+                    long createdAt = in.readLong();
+                    T value = in.readBoolean() ? decoder.read(in) : null;
+                    restore.accept(key, value, createdAt);
+                }
+            }
+        };
+    }
+
+    public static void writeString(DataOutputStream out, @NotNull String s) throws IOException {
+        writeBytes(out, s.getBytes(StandardCharsets.UTF_8));
+    }
+
+    @NotNull
+    public static String readString(DataInputStream in) throws IOException {
+        return new String(readBytes(in), StandardCharsets.UTF_8);
+    }
+
+    public static void writeBytes(DataOutputStream out, @NotNull byte[] b) throws IOException {
+        out.writeInt(b.length);
+        out.write(b);
+    }
+
+    @NotNull
+    public static byte[] readBytes(DataInputStream in) throws IOException {
+        int length = in.readInt();
+        if (length < 0) {
+            throw new IOException("Negative length: " + length);
+        }
+        byte[] b = new byte[length];
+        in.readFully(b);
+        return b;
+    }
+}
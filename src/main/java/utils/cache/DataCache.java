@@ -3,9 +3,26 @@ package utils.cache;
 import javax.annotation.Nullable;
 
 public interface DataCache<K, T> {
+    interface RecordConsumer<K, T> {
+        void accept(K key, @Nullable T value, long createdAt);
+    }
+
     void add(K key, @Nullable T value);
+    /**
+     * Adds a record created at the given time, such as one restored from a snapshot.
+     * The record is not added if it has already expired.
+     * @param key Key.
+     * @param value Value.
+     * @param createdAt Created time in unix millis.
+     */
+    void add(K key, @Nullable T value, long createdAt);
     boolean exists(K key);
     @Nullable
     T get(K key);
     void delete(K key);
+    /**
+     * Iterates over a copy of the current records.
+     * @param consumer Consumer of each record.
+     */
+    void forEach(RecordConsumer<K, T> consumer);
 }
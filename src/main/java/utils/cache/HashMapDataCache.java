@@ -45,10 +45,19 @@ public class HashMapDataCache<K, T> implements DataCache<K, T> {
     }
 
     public void add(K key, @Nullable T value) {
+        this.add(key, value, System.currentTimeMillis());
+    }
+
+    @Override
+    public void add(K key, @Nullable T value, long createdAt) {
+        if (System.currentTimeMillis() - createdAt > this.maxHoldTime) {
+            return;
+        }
+
         boolean clearUp = false;
 
         synchronized (this.dataLock) {
-            this.dataMap.put(key, new Record<>(value, System.currentTimeMillis()));
+            this.dataMap.put(key, new Record<>(value, createdAt));
             if (this.dataMap.size() > this.maxRecords) {
                 clearUp = true;
             }
@@ -82,6 +91,15 @@ public class HashMapDataCache<K, T> implements DataCache<K, T> {
         }
     }
 
+    @Override
+    public void forEach(RecordConsumer<K, T> consumer) {
+        Map<K, Record<T>> copy;
+        synchronized (this.dataLock) {
+            copy = new HashMap<>(this.dataMap);
+        }
+        copy.forEach((k, r) -> consumer.accept(k, r.data, r.createdAt));
+    }
+
     private void clearUpExceedingData() {
         synchronized (this.dataLock) {
             int toDelete = this.dataMap.size() - this.maxRecords;
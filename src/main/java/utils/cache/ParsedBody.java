@@ -0,0 +1,28 @@
+package utils.cache;
+
+import org.jetbrains.annotations.NotNull;
+
+/**
+ * Parsed value cached together with the raw body it was parsed from.
+ * The body is kept for the cache snapshot, and is evicted along with the value.
+ * @param <T> Parsed type.
+ */
+public class ParsedBody<T> {
+    private final T value;
+    private final byte[] body;
+
+    public ParsedBody(@NotNull T value, @NotNull byte[] body) {
+        this.value = value;
+        this.body = body;
+    }
+
+    @NotNull
+    public T getValue() {
+        return value;
+    }
+
+    @NotNull
+    public byte[] getBody() {
+        return body;
+    }
+}
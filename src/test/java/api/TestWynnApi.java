@@ -16,9 +16,16 @@ class TestWynnApi {
 
     @Test
     void testGetOnlinePlayers() {
-        OnlinePlayers players = getWynnApi().mustGetOnlinePlayers();
+        WynnApi wynnApi = getWynnApi();
+        OnlineSnapshot players = wynnApi.mustGetOnlineSnapshot();
         assert players != null;
         assert players.getWorlds().entrySet().size() > 0;
+        assert wynnApi.getOnlineSnapshot() == players;
+
+        players.getWorlds().forEach((world, names) -> names.forEach(name -> {
+            assert world.equals(players.findWorld(name));
+            assert world.equals(wynnApi.findPlayer(name));
+        }));
     }
 
     @Test
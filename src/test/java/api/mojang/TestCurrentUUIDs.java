@@ -0,0 +1,110 @@
+package api.mojang;
+
+import api.mojang.structs.NullableUUID;
+import com.sun.net.httpserver.HttpServer;
+import org.jetbrains.annotations.TestOnly;
+import org.junit.jupiter.api.Test;
+import utils.TestUtils;
+import utils.rateLimit.WaitableRateLimiter;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.net.InetSocketAddress;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+class TestCurrentUUIDs {
+    private static final long LATENCY_MILLIS = 200;
+
+    /**
+     * Starts a local stub of the names to UUIDs endpoint, responding after the latency.
+     * Names starting with "unknown" are not returned.
+     * Records the max number of requests in flight at once.
+     */
+    @TestOnly
+    private static HttpServer startStub(AtomicInteger requests, AtomicInteger maxInFlight) throws IOException {
+        AtomicInteger inFlight = new AtomicInteger();
+        HttpServer server = HttpServer.create(new InetSocketAddress("127.0.0.1", 0), 0);
+        server.setExecutor(Executors.newCachedThreadPool());
+        server.createContext("/profiles/minecraft", exchange -> {
+            requests.incrementAndGet();
+            maxInFlight.accumulateAndGet(inFlight.incrementAndGet(), Math::max);
+            String body;
+            try (InputStream in = exchange.getRequestBody()) {
+                body = new String(in.readAllBytes(), StandardCharsets.UTF_8);
+            }
+            List<String> entries = new ArrayList<>();
+            Matcher m = Pattern.compile("\"([^\"]+)\"").matcher(body);
+            while (m.find()) {
+                String name = m.group(1);
+                if (name.startsWith("unknown")) continue;
+                String id = String.format("%032x", Math.abs(name.hashCode()));
+                entries.add(String.format("{\"id\":\"%s\",\"name\":\"%s\"}", id, name));
+            }
+            byte[] res = ("[" + String.join(",", entries) + "]").getBytes(StandardCharsets.UTF_8);
+
+            try {
+                Thread.sleep(LATENCY_MILLIS);
+            } catch (InterruptedException e) {
+                e.printStackTrace();
+            }
+            inFlight.decrementAndGet();
+            exchange.getResponseHeaders().add("Content-Type", "application/json");
+            exchange.sendResponseHeaders(200, res.length);
+            try (OutputStream out = exchange.getResponseBody()) {
+                out.write(res);
+            }
+        });
+        server.start();
+        return server;
+    }
+
+    @Test
+    void testConcurrentChunks() throws IOException {
+        AtomicInteger requests = new AtomicInteger();
+        AtomicInteger maxInFlight = new AtomicInteger();
+        HttpServer server = startStub(requests, maxInFlight);
+        try {
+            String url = "http://127.0.0.1:" + server.getAddress().getPort() + "/profiles/minecraft";
+            CurrentUUIDs currentUUIDs = new CurrentUUIDs(
+                    new WaitableRateLimiter("Test", TimeUnit.SECONDS.toMillis(1), 5), TestUtils.getLogger(), url);
+
+            // 5 chunks, as many as the rate limiter allows at once
+            List<String> names = new ArrayList<>();
+            for (int i = 0; i < 45; i++) {
+                names.add("concurrent" + i);
+            }
+            for (int i = 0; i < 5; i++) {
+                names.add("unknown" + i);
+            }
+
+            Map<String, NullableUUID> res = currentUUIDs.getUUIDsIterative(names);
+
+            assert res != null;
+            assert res.size() == names.size();
+            for (int i = 0; i < 45; i++) {
+                assert res.get("concurrent" + i).getUuid() != null;
+            }
+            for (int i = 0; i < 5; i++) {
+                assert res.get("unknown" + i).getUuid() == null;
+            }
+            assert requests.get() == 5;
+            // chunks are requested concurrently
+            assert maxInFlight.get() > 1;
+
+            // all are served from the cache
+            assert currentUUIDs.getUUIDsIterative(names) != null;
+            assert requests.get() == 5;
+        } finally {
+            server.stop(0);
+        }
+    }
+}
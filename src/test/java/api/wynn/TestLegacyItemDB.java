@@ -0,0 +1,101 @@
+package api.wynn;
+
+import api.wynn.structs.ItemDB;
+import com.sun.net.httpserver.HttpServer;
+import org.jetbrains.annotations.TestOnly;
+import org.junit.jupiter.api.Test;
+import utils.TestUtils;
+import utils.rateLimit.WaitableRateLimiter;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.net.InetSocketAddress;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.*;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+
+class TestLegacyItemDB {
+    private static final String BODY = "{\"items\":[],\"request\":{\"timestamp\":1,\"version\":\"1\"}}";
+
+    /**
+     * Starts a local stub of the item DB endpoint, responding after 200 ms.
+     * Responds with 500 if failing is set.
+     */
+    @TestOnly
+    private static HttpServer startStub(AtomicInteger requests, AtomicBoolean failing) throws IOException {
+        HttpServer server = HttpServer.create(new InetSocketAddress("127.0.0.1", 0), 0);
+        server.setExecutor(Executors.newCachedThreadPool());
+        server.createContext("/public_api.php", exchange -> {
+            requests.incrementAndGet();
+            try {
+                Thread.sleep(200);
+            } catch (InterruptedException e) {
+                e.printStackTrace();
+            }
+            if (failing.get()) {
+                exchange.sendResponseHeaders(500, -1);
+                exchange.close();
+                return;
+            }
+            byte[] res = BODY.getBytes(StandardCharsets.UTF_8);
+            exchange.sendResponseHeaders(200, res.length);
+            try (OutputStream out = exchange.getResponseBody()) {
+                out.write(res);
+            }
+        });
+        server.start();
+        return server;
+    }
+
+    @Test
+    void testLoadOnceAndKeepOnFailure() throws Exception {
+        AtomicInteger requests = new AtomicInteger();
+        AtomicBoolean failing = new AtomicBoolean();
+        HttpServer server = startStub(requests, failing);
+        ExecutorService callers = Executors.newFixedThreadPool(5);
+        try {
+            // the item DB is shared, and may have been loaded by other tests
+            LegacyItemDB.reset();
+            LegacyItemDB itemDB = new LegacyItemDB(
+                    "http://127.0.0.1:" + server.getAddress().getPort(),
+                    new WaitableRateLimiter("Test", 10, 5), TestUtils.getLogger());
+
+            // concurrent first callers share one download
+            List<Future<ItemDB>> futures = new ArrayList<>();
+            for (int i = 0; i < 5; i++) {
+                futures.add(callers.submit(() -> itemDB.mustGetItemDB(false)));
+            }
+            ItemDB first = null;
+            for (Future<ItemDB> f : futures) {
+                ItemDB db = f.get(10, TimeUnit.SECONDS);
+                assert db != null;
+                if (first == null) first = db;
+                assert db == first;
+            }
+            assert requests.get() == 1;
+
+            // served from memory afterwards
+            assert itemDB.mustGetItemDB(false) == first;
+            assert requests.get() == 1;
+
+            // failed refresh keeps the last one
+            failing.set(true);
+            assert !itemDB.refresh();
+            assert itemDB.mustGetItemDB(false) == first;
+
+            failing.set(false);
+            assert itemDB.refresh();
+            ItemDB refreshed = itemDB.mustGetItemDB(false);
+            assert refreshed != null && refreshed != first;
+            assert requests.get() == 3;
+        } finally {
+            // do not leave the stub item DB to other tests
+            LegacyItemDB.reset();
+            callers.shutdown();
+            server.stop(0);
+        }
+    }
+}
@@ -0,0 +1,87 @@
+package api.wynn.structs;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.junit.jupiter.api.Test;
+
+import java.util.*;
+
+class TestItemIndex {
+    private static final ObjectMapper mapper = new ObjectMapper();
+
+    private static Item item(String name) throws JsonProcessingException {
+        return mapper.readValue(mapper.writeValueAsString(Collections.singletonMap("name", name)), Item.class);
+    }
+
+    private static List<Item> generateItems(int n) throws JsonProcessingException {
+        Random random = new Random(317);
+        String[] words = {"Bob's", "Mythic", "Sword", "Helmet", "Leggings", "Boots", "Ring", "Bracelet",
+                "Necklace", "Dagger", "Relik", "Bow", "Wand", "Spear", "of", "the", "Ancient", "Storm"};
+        List<Item> items = new ArrayList<>();
+        items.add(item("Cataclysm"));
+        items.add(item("Cat"));
+        items.add(item("Stardew"));
+        for (int i = 0; i < n; i++) {
+            int len = 1 + random.nextInt(4);
+            StringBuilder sb = new StringBuilder();
+            for (int j = 0; j < len; j++) {
+                if (j > 0) sb.append(' ');
+                sb.append(words[random.nextInt(words.length)]);
+            }
+            sb.append(' ').append(i);
+            items.add(item(sb.toString()));
+        }
+        return items;
+    }
+
+    // The linear scan the item commands used before the index
+    private static List<Item> scan(String input, List<Item> items) {
+        input = input.toLowerCase();
+
+        List<Item> prefixMatch = new ArrayList<>();
+        List<Item> partialMatch = new ArrayList<>();
+        for (Item item : items) {
+            String itemName = item.getName().toLowerCase();
+            if (input.equals(itemName)) {
+                return new ArrayList<>(Collections.singletonList(item));
+            }
+            if (itemName.startsWith(input)) {
+                prefixMatch.add(item);
+                partialMatch.add(item);
+            } else if (itemName.contains(input)) {
+                partialMatch.add(item);
+            }
+        }
+        return prefixMatch.isEmpty() ? partialMatch : prefixMatch;
+    }
+
+    @Test
+    void testSearch() throws JsonProcessingException {
+        List<Item> items = generateItems(5000);
+        ItemIndex index = new ItemIndex(items);
+
+        assert index.search("cat").size() == 1;
+        assert index.search("CAT").get(0).getName().equals("Cat");
+        assert index.search("cata").get(0).getName().equals("Cataclysm");
+        assert index.exact("stardew") != null;
+        assert index.exact("stardust") == null;
+
+        String[] inputs = {"cat", "ca", "c", "", "mythic", "sword 1", "storm", "ring 42", "the anc", "xyz", "'s m", "99"};
+        for (String input : inputs) {
+            assert scan(input, items).equals(index.search(input)) : input;
+        }
+
+        List<Item> candidates = index.candidates("cat", 10);
+        assert candidates.get(0).getName().equals("Cat");
+        assert candidates.get(1).getName().equals("Cataclysm");
+
+        // prefix matches first, then the other substring matches
+        List<Item> expected = new ArrayList<>();
+        items.stream().filter(i -> i.getName().toLowerCase().startsWith("storm")).forEach(expected::add);
+        items.stream().filter(i -> !i.getName().toLowerCase().startsWith("storm")
+                && i.getName().toLowerCase().contains("storm")).forEach(expected::add);
+        assert expected.size() > 10;
+        assert expected.equals(index.candidates("storm", Integer.MAX_VALUE));
+        assert expected.subList(0, 10).equals(index.candidates("storm", 10));
+    }
+}
@@ -65,6 +65,16 @@ class TestGuildLeaderboardRepository {
         assert repo.getLevelRank("Kingdom Foxes") == 1;
         assert repo.getLevelRank("Imperial") == 2;
 
+        // Oldest and newest entries of each guild
+        List<GuildLeaderboard> endpoints = repo.findOldestAndNewestOfEachGuild();
+        assert endpoints != null;
+        assert endpoints.size() == 3;
+        List<GuildLeaderboard> history = repo.findAllOfGuild("Kingdom Foxes");
+        assert history != null;
+        assert history.size() == 2;
+        assert history.get(0).getXp() == 30000000000L;
+        assert history.get(1).getXp() == 30609497711L;
+
         assert repo.delete(g1);
 
         assert repo.count() == 2;
@@ -59,6 +59,25 @@ class TestGuildXpLeaderboardRepository {
         assert repo.count() == 1;
     }
 
+    @Test
+    void testReplaceAll() {
+        clearTable();
+        GuildXpLeaderboardRepository repo = getRepository();
+
+        GuildXpLeaderboard g1 = new GuildXpLeaderboard("Kingdom Foxes", "Fox", 79, 32027567867L, 500_000L, new Date(), new Date());
+        GuildXpLeaderboard g2 = new GuildXpLeaderboard("Imperial", "Imp", 75, 22384594269L, 1_000_000L, new Date(), new Date());
+        assert repo.create(g1);
+
+        List<GuildXpLeaderboard> list = new ArrayList<>();
+        list.add(g2);
+        assert repo.replaceAll(list);
+
+        assert repo.count() == 1;
+        assert !repo.exists(g1);
+        assert repo.exists(g2);
+        assert repo.getXPRank("Imperial") == 1;
+    }
+
     @Test
     void testNonIdFields() {
         clearTable();
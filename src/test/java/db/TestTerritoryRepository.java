@@ -5,8 +5,10 @@ import db.repository.base.TerritoryRepository;
 import org.jetbrains.annotations.TestOnly;
 import org.junit.jupiter.api.Test;
 
+import java.util.Arrays;
 import java.util.Date;
 import java.util.List;
+import java.util.Map;
 
 class TestTerritoryRepository {
     @TestOnly
@@ -57,6 +59,12 @@ class TestTerritoryRepository {
         assert e1.getGuild().equals("Salted Test");
         assert e1.getAcquired().getTime() == now.getTime();
 
+        Map<String, Integer> counts = repo.countGuildTerritories(Arrays.asList("Salted Test", "Grian Test", "Nobody Test"));
+        assert counts != null;
+        assert counts.get("Salted Test") == 1;
+        assert counts.get("Grian Test") == 1;
+        assert !counts.containsKey("Nobody Test");
+
         assert repo.delete(e1);
         assert repo.delete(e2);
         assert repo.count() == 0;
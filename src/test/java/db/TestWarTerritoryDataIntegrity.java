@@ -101,15 +101,21 @@ class TestWarTerritoryDataIntegrity {
                 null,
                 new Territory.Location(100, 100, 200, 200)
         ));
-        assert territoryRepository.updateAll(territories);
+        List<TerritoryLog> generatedLogs = territoryRepository.updateAllAndGetLogs(territories);
+        assert generatedLogs != null && generatedLogs.size() == 1;
 
         assert territoryLogRepository.count() == 1;
 
         int territoryLogLastId = territoryLogRepository.lastInsertId();
         assert territoryLogLastId != -1;
+        assert generatedLogs.get(0).getId() == territoryLogLastId;
         TerritoryLog territoryLog = territoryLogRepository.findOne(() -> territoryLogLastId);
         assert territoryLog != null;
 
+        // no logs are generated if nothing changed
+        List<TerritoryLog> noLogs = territoryRepository.updateAllAndGetLogs(territories);
+        assert noLogs != null && noLogs.isEmpty();
+
         assert "Detlas".equals(territoryLog.getTerritoryName());
         assert "Kingdom Foxes".equals(territoryLog.getOldGuildName());
         assert "HackForums".equals(territoryLog.getNewGuildName());
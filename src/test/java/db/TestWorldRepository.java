@@ -2,6 +2,7 @@ package db;
 
 import db.model.world.World;
 import db.model.world.WorldId;
+import db.model.world.WorldSnapshot;
 import db.repository.base.WorldRepository;
 import org.jetbrains.annotations.TestOnly;
 import org.junit.jupiter.api.Test;
@@ -47,18 +48,16 @@ class TestWorldRepository {
         assert repo.exists(wc1);
         assert repo.exists(lobby1);
 
-        List<World> mainWorlds = repo.findAllMainWorlds();
-        assert mainWorlds != null;
-        assert mainWorlds.size() == 1;
         List<World> all = repo.findAll();
         assert all != null && all.size() == 2;
+        assert new WorldSnapshot(all).getMainWorlds().size() == 1;
 
         assert repo.delete(wc1);
 
         assert repo.count() == 1;
-        mainWorlds = repo.findAllMainWorlds();
-        assert mainWorlds != null;
-        assert mainWorlds.size() == 0;
+        all = repo.findAll();
+        assert all != null;
+        assert new WorldSnapshot(all).getMainWorlds().size() == 0;
     }
 
     @Test
@@ -0,0 +1,70 @@
+package db.structs;
+
+import db.model.dateFormat.CustomFormat;
+import org.junit.jupiter.api.Test;
+
+import java.text.DateFormat;
+import java.util.ArrayList;
+import java.util.Date;
+import java.util.List;
+import java.util.Random;
+import java.util.TimeZone;
+import java.util.concurrent.*;
+
+class TestCustomFormat {
+    private static final String[] ZONES = {
+            "UTC", "Asia/Tokyo", "America/New_York", "Europe/London",
+            "Australia/Sydney", "Asia/Kolkata", "America/Los_Angeles", "Pacific/Auckland"
+    };
+
+    @Test
+    void testFormat() {
+        Date date = new Date(1_600_000_000_000L);
+        TimeZone utc = TimeZone.getTimeZone("UTC");
+        assert "2020/09/13 12:26:40".equals(CustomFormat.TWENTY_FOUR_HOUR.formatSecond(date, utc));
+        assert "2020/09/13 12:26".equals(CustomFormat.TWENTY_FOUR_HOUR.formatMinute(date, utc));
+        assert CustomFormat.TWENTY_FOUR_HOUR.getSecondFormat() != CustomFormat.TWENTY_FOUR_HOUR.getSecondFormat();
+    }
+
+    @Test
+    void testConcurrentFormat() throws Exception {
+        int threads = ZONES.length;
+        int iterations = 20_000;
+        ExecutorService executor = Executors.newFixedThreadPool(threads);
+        CountDownLatch start = new CountDownLatch(1);
+        try {
+            List<Future<Integer>> futures = new ArrayList<>();
+            for (int t = 0; t < threads; t++) {
+                TimeZone timeZone = TimeZone.getTimeZone(ZONES[t]);
+                long seed = t;
+                futures.add(executor.submit(() -> {
+                    // thread-confined reference formats
+                    DateFormat expectedSecond = CustomFormat.TWELVE_HOUR.getSecondFormat();
+                    expectedSecond.setTimeZone(timeZone);
+                    DateFormat expectedMinute = CustomFormat.TWENTY_FOUR_HOUR.getMinuteFormat();
+                    expectedMinute.setTimeZone(timeZone);
+
+                    Random random = new Random(seed);
+                    start.await();
+                    int mismatches = 0;
+                    for (int i = 0; i < iterations; i++) {
+                        Date date = new Date(Math.floorMod(random.nextLong(), 4_000_000_000_000L));
+                        if (!expectedSecond.format(date).equals(CustomFormat.TWELVE_HOUR.formatSecond(date, timeZone))) {
+                            mismatches++;
+                        }
+                        if (!expectedMinute.format(date).equals(CustomFormat.TWENTY_FOUR_HOUR.formatMinute(date, timeZone))) {
+                            mismatches++;
+                        }
+                    }
+                    return mismatches;
+                }));
+            }
+            start.countDown();
+            for (Future<Integer> f : futures) {
+                assert f.get(60, TimeUnit.SECONDS) == 0;
+            }
+        } finally {
+            executor.shutdown();
+        }
+    }
+}
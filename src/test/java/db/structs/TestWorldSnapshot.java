@@ -0,0 +1,50 @@
+package db.structs;
+
+import db.model.world.World;
+import db.model.world.WorldSnapshot;
+import org.junit.jupiter.api.Test;
+
+import java.sql.Timestamp;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+
+class TestWorldSnapshot {
+    @Test
+    void testPartition() {
+        Timestamp now = new Timestamp(System.currentTimeMillis());
+        List<World> worlds = new ArrayList<>(Arrays.asList(
+                new World("WC1", 30, now, now),
+                new World("EU2", 20, now, now),
+                new World("WAR10", 5, now, now),
+                new World("lobby1", 10, now, now)
+        ));
+        WorldSnapshot snapshot = new WorldSnapshot(worlds);
+
+        assert snapshot.getWorlds().size() == 4;
+        assert snapshot.getMainWorlds().size() == 2;
+        assert snapshot.getWarWorlds().size() == 1;
+        assert "WAR10".equals(snapshot.getWarWorlds().get(0).getName());
+        assert now.equals(snapshot.getUpdatedAt());
+
+        // independent of the given list
+        worlds.clear();
+        assert snapshot.getWorlds().size() == 4;
+
+        boolean thrown = false;
+        try {
+            snapshot.getMainWorlds().add(new World("WC2", 0, now, now));
+        } catch (UnsupportedOperationException e) {
+            thrown = true;
+        }
+        assert thrown;
+    }
+
+    @Test
+    void testEmpty() {
+        WorldSnapshot snapshot = new WorldSnapshot(Collections.emptyList());
+        assert snapshot.getWorlds().isEmpty();
+        assert snapshot.getUpdatedAt() == null;
+    }
+}
@@ -0,0 +1,107 @@
+package log;
+
+import org.jetbrains.annotations.TestOnly;
+import org.junit.jupiter.api.Test;
+
+import java.util.Random;
+
+class TestDiscordSpamChecker {
+    @Test
+    void testCoolDown() {
+        DiscordSpamChecker checker = new DiscordSpamChecker();
+        long now = System.currentTimeMillis();
+
+        assert !checker.isSpam(1L, now, now + 1000);
+        assert checker.isSpam(1L, now + 500, now + 1500);
+        assert !checker.isSpam(2L, now + 500, now + 1500);
+        // expired
+        assert !checker.isSpam(1L, now + 1000, now + 2000);
+
+        assert checker.nextCoolDownExpire(100L) == 0;
+    }
+
+    @Test
+    void testExpiry() {
+        DiscordSpamChecker checker = new DiscordSpamChecker();
+        long now = System.currentTimeMillis();
+
+        Random random = new Random(0);
+        int users = 10_000;
+        for (int i = 0; i < users; i++) {
+            assert !checker.isSpam(random.nextLong() | 1L, now, now + 1000);
+        }
+        assert checker.size() == users;
+
+        // expired cool-downs are swept as new cool-downs are registered
+        for (int i = 0; i < users; i++) {
+            assert !checker.isSpam(random.nextLong() | 1L, now + 2000, now + 1_000_000);
+        }
+        assert checker.size() < users * 2;
+        assert checker.size() >= users;
+    }
+
+    /**
+     * Returns user IDs which all fall into the same stripe.
+     */
+    @TestOnly
+    private static long[] sameStripeUsers(int n, long seed) {
+        Random random = new Random(seed);
+        long[] users = new long[n];
+        for (int i = 0; i < n; ) {
+            long user = random.nextLong() | 1L;
+            if (DiscordSpamChecker.stripeIndex(user) == 0) {
+                users[i++] = user;
+            }
+        }
+        return users;
+    }
+
+    @Test
+    void testBackwardShiftDelete() {
+        DiscordSpamChecker checker = new DiscordSpamChecker();
+        long now = 1_000_000L;
+
+        // every other user expires early, leaving holes in the probe sequences
+        long[] users = sameStripeUsers(200, 0);
+        for (int i = 0; i < users.length; i++) {
+            assert !checker.isSpam(users[i], now, now + (i % 2 == 0 ? 10 : 1000));
+        }
+        assert checker.size() == users.length;
+
+        // reading expired cool-downs removes them
+        for (int i = 0; i < users.length; i += 2) {
+            assert checker.nextCoolDownExpire(users[i], now + 20) == 0;
+        }
+        assert checker.size() == users.length / 2;
+
+        // the remaining users are still found after the entries were shifted back
+        for (int i = 1; i < users.length; i += 2) {
+            assert checker.nextCoolDownExpire(users[i], now + 20) == 980;
+        }
+        assert checker.size() == users.length / 2;
+    }
+
+    @Test
+    void testSweepBound() {
+        DiscordSpamChecker checker = new DiscordSpamChecker();
+        long now = 1_000_000L;
+
+        long[] users = sameStripeUsers(200, 1);
+        for (long user : users) {
+            assert !checker.isSpam(user, now, now + 10);
+        }
+        assert checker.size() == users.length;
+
+        // one registration removes at most a few expired cool-downs
+        long[] newUsers = sameStripeUsers(5000, 2);
+        assert !checker.isSpam(newUsers[0], now + 20, now + 21);
+        assert checker.size() >= users.length + 1 - 8;
+        assert checker.size() <= users.length + 1;
+
+        // with one registration per millisecond, expired cool-downs do not pile up
+        for (int i = 1; i < newUsers.length; i++) {
+            assert !checker.isSpam(newUsers[i], now + 20 + i, now + 21 + i);
+        }
+        assert checker.size() < 100;
+    }
+}
@@ -0,0 +1,87 @@
+package log;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+
+class TestLogRingBuffer {
+    @Test
+    void testOfferPoll() {
+        LogRingBuffer<Integer> buffer = new LogRingBuffer<>(4);
+        assert buffer.poll() == null;
+
+        for (int i = 0; i < 4; i++) {
+            assert buffer.offer(i);
+        }
+        // full
+        assert !buffer.offer(4);
+        assert buffer.getDropped() == 1;
+
+        for (int i = 0; i < 4; i++) {
+            Integer e = buffer.poll();
+            assert e != null && e == i;
+        }
+        assert buffer.poll() == null;
+
+        // next lap
+        assert buffer.offer(5);
+        Integer e = buffer.poll();
+        assert e != null && e == 5;
+    }
+
+    @Test
+    void testConcurrentProducers() throws InterruptedException {
+        LogRingBuffer<Integer> buffer = new LogRingBuffer<>(1024);
+        int producers = 8;
+        int perProducer = 100_000;
+
+        List<Thread> threads = new ArrayList<>();
+        for (int p = 0; p < producers; p++) {
+            int base = p * perProducer;
+            threads.add(new Thread(() -> {
+                for (int i = 0; i < perProducer; i++) {
+                    buffer.offer(base + i);
+                }
+            }));
+        }
+        threads.forEach(Thread::start);
+
+        // single consumer
+        int[] lastSeen = new int[producers];
+        Arrays.fill(lastSeen, -1);
+        long received = 0;
+        while (threads.stream().anyMatch(Thread::isAlive) || received + buffer.getDropped() < (long) producers * perProducer) {
+            Integer e = buffer.poll();
+            if (e == null) {
+                Thread.yield();
+                continue;
+            }
+            int producer = e / perProducer;
+            // elements of one producer keep their order
+            assert e % perProducer > lastSeen[producer];
+            lastSeen[producer] = e % perProducer;
+            received++;
+        }
+        for (Thread t : threads) {
+            t.join();
+        }
+
+        assert received + buffer.getDropped() == (long) producers * perProducer;
+    }
+
+    @Test
+    void testPackMessages() {
+        List<String> packed = DiscordLogger.packMessages(Arrays.asList("aaa", "bbb", "ccc"), 7);
+        assert packed.equals(Arrays.asList("aaa\nbbb", "ccc"));
+
+        // long lines are split
+        String longLine = String.join("", Collections.nCopies(25, "x"));
+        packed = DiscordLogger.packMessages(Arrays.asList("a", longLine), 10);
+        assert packed.equals(Arrays.asList("a", "xxxxxxxxxx", "xxxxxxxxxx", "xxxxx"));
+
+        assert DiscordLogger.packMessages(new ArrayList<>(), 10).isEmpty();
+    }
+}
@@ -0,0 +1,83 @@
+package music;
+
+import com.sedmelluq.discord.lavaplayer.track.AudioTrack;
+import com.sedmelluq.discord.lavaplayer.track.AudioTrackInfo;
+import org.jetbrains.annotations.TestOnly;
+import org.junit.jupiter.api.Test;
+
+import java.lang.reflect.Proxy;
+import java.util.List;
+
+class TestTrackQueue {
+    @TestOnly
+    private static QueueEntry entry(String url, long duration) {
+        AudioTrackInfo info = new AudioTrackInfo("title", "author", duration, url, false, url);
+        AudioTrack track = (AudioTrack) Proxy.newProxyInstance(
+                AudioTrack.class.getClassLoader(),
+                new Class<?>[]{AudioTrack.class},
+                (proxy, method, args) -> {
+                    switch (method.getName()) {
+                        case "getInfo":
+                            return info;
+                        case "getDuration":
+                            return duration;
+                        default:
+                            throw new UnsupportedOperationException(method.getName());
+                    }
+                });
+        return new QueueEntry(track, 0L);
+    }
+
+    @Test
+    void testUrlsAndDuration() {
+        TrackQueue queue = new TrackQueue();
+        queue.add(entry("a", 100));
+        queue.add(entry("b", 200));
+        queue.addFirst(entry("c", 300));
+        assert queue.size() == 3;
+        assert queue.getTotalDuration() == 600;
+        assert queue.containsUrl("a") && queue.containsUrl("b") && queue.containsUrl("c");
+
+        // repeat one / queue re-adds a clone of the same url
+        queue.add(entry("c", 300));
+        assert queue.getTotalDuration() == 900;
+
+        QueueEntry polled = queue.poll();
+        assert polled != null && "c".equals(polled.getTrack().getInfo().uri);
+        assert queue.containsUrl("c");
+        assert queue.getTotalDuration() == 600;
+
+        queue.shuffleExceptFirst();
+        assert queue.getTotalDuration() == 600;
+        assert queue.peek() != null && "a".equals(queue.peek().getTrack().getInfo().uri);
+
+        queue.retainFirst();
+        assert queue.size() == 1;
+        assert queue.containsUrl("a");
+        assert !queue.containsUrl("b") && !queue.containsUrl("c");
+        assert queue.getTotalDuration() == 100;
+
+        queue.clear();
+        assert queue.isEmpty();
+        assert !queue.containsUrl("a");
+        assert queue.getTotalDuration() == 0;
+        assert queue.poll() == null;
+    }
+
+    @Test
+    void testBulkEnqueue() {
+        int n = 300;
+        TrackQueue queue = new TrackQueue();
+        for (int i = 0; i < n; i++) {
+            assert !queue.containsUrl("url" + i);
+            queue.add(entry("url" + i, i));
+        }
+        assert queue.size() == n;
+        assert queue.getTotalDuration() == (long) n * (n - 1) / 2;
+
+        List<QueueEntry> list = queue.toList();
+        for (int i = 0; i < n; i++) {
+            assert ("url" + i).equals(list.get(i).getTrack().getInfo().uri);
+        }
+    }
+}
@@ -0,0 +1,113 @@
+package music.handlers;
+
+import org.jetbrains.annotations.TestOnly;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+class TestSavedQueueLoader {
+    private static final long LOAD_MILLIS = 20;
+
+    @TestOnly
+    private static void sleep(long millis) {
+        try {
+            Thread.sleep(millis);
+        } catch (InterruptedException e) {
+            e.printStackTrace();
+            assert false;
+        }
+    }
+
+    @Test
+    void testOrderAndBounds() throws Exception {
+        ExecutorService executor = SavedQueueLoader.createLoadExecutor(8);
+        int guilds = 10;
+        int tracks = 30;
+        int perGuild = 3;
+
+        AtomicInteger globalRunning = new AtomicInteger();
+        AtomicInteger globalMax = new AtomicInteger();
+        // guild of each load, in the order the loads were started
+        List<Integer> started = Collections.synchronizedList(new ArrayList<>());
+        List<SavedQueueLoader> loaders = new ArrayList<>();
+        List<List<Integer>> consumed = new ArrayList<>();
+        List<AtomicInteger> guildMax = new ArrayList<>();
+
+        for (int g = 0; g < guilds; g++) {
+            int guild = g;
+            List<Integer> order = Collections.synchronizedList(new ArrayList<>());
+            AtomicInteger running = new AtomicInteger();
+            AtomicInteger max = new AtomicInteger();
+            consumed.add(order);
+            guildMax.add(max);
+
+            SavedQueueLoader loader = new SavedQueueLoader(tracks, index -> {
+                if (index == 0) {
+                    started.add(guild);
+                } else {
+                    started.add(-1);
+                }
+                globalMax.accumulateAndGet(globalRunning.incrementAndGet(), Math::max);
+                max.accumulateAndGet(running.incrementAndGet(), Math::max);
+                // loads complete out of order
+                sleep(LOAD_MILLIS + (index * 7 & 7));
+                running.decrementAndGet();
+                globalRunning.decrementAndGet();
+                // some entries fail to load
+                return index % 10 == 7 ? null : Collections.emptyList();
+            }, (index, t) -> order.add(index), executor, perGuild);
+            loaders.add(loader);
+        }
+
+        loaders.forEach(SavedQueueLoader::start);
+        for (SavedQueueLoader loader : loaders) {
+            loader.getFinished().get(30, TimeUnit.SECONDS);
+        }
+
+        for (int g = 0; g < guilds; g++) {
+            int guild = g;
+            List<Integer> order = consumed.get(g);
+            // in saved order, skipping failed loads
+            for (int i = 1; i < order.size(); i++) {
+                assert order.get(i - 1) < order.get(i);
+            }
+            assert order.size() == tracks - 3;
+            assert order.get(0) == 0;
+            assert guildMax.get(g).get() <= perGuild;
+            assert loaders.get(g).getTimeToFirstTrack() >= 0;
+        }
+        assert globalMax.get() <= 8;
+
+        // first tracks of all guilds are loaded before the rest of any guild
+        assert started.size() == guilds * tracks;
+        for (int i = 0; i < guilds; i++) {
+            assert started.get(i) != -1;
+        }
+        assert started.subList(0, guilds).stream().distinct().count() == guilds;
+    }
+
+    @Test
+    void testCancel() throws InterruptedException {
+        ExecutorService executor = SavedQueueLoader.createLoadExecutor(2);
+        AtomicInteger consumed = new AtomicInteger();
+        SavedQueueLoader loader = new SavedQueueLoader(100, index -> {
+            sleep(LOAD_MILLIS);
+            return Collections.emptyList();
+        }, (index, t) -> consumed.incrementAndGet(), executor, 2);
+        loader.start();
+
+        sleep(LOAD_MILLIS * 5);
+        assert loader.cancel();
+        int afterCancel = consumed.get();
+        sleep(LOAD_MILLIS * 5);
+
+        assert loader.getFinished().isCancelled();
+        assert consumed.get() == afterCancel;
+        assert afterCancel < 100;
+    }
+}
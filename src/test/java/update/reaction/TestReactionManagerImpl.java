@@ -0,0 +1,253 @@
+package update.reaction;
+
+import net.dv8tion.jda.api.entities.Message;
+import net.dv8tion.jda.api.entities.MessageChannel;
+import org.jetbrains.annotations.TestOnly;
+import org.junit.jupiter.api.Test;
+import update.multipage.MultipageHandler;
+import utils.TimingWheel;
+
+import java.lang.reflect.Array;
+import java.lang.reflect.Proxy;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+class TestReactionManagerImpl {
+    @TestOnly
+    private static TimingWheel getWheel() {
+        return new TimingWheel("test-expiry", 1, TimeUnit.SECONDS, 64);
+    }
+
+    @TestOnly
+    private static void sleep(long millis) {
+        try {
+            Thread.sleep(millis);
+        } catch (InterruptedException e) {
+            e.printStackTrace();
+            assert false;
+        }
+    }
+
+    /**
+     * Creates a stub of the interface. Methods in the given map return the mapped value,
+     * methods returning an interface return another stub, and others return the default value.
+     */
+    @TestOnly
+    @SuppressWarnings("unchecked")
+    private static <T> T stub(Class<T> type, Map<String, Object> returns) {
+        return (T) Proxy.newProxyInstance(type.getClassLoader(), new Class<?>[]{type}, (proxy, method, args) -> {
+            switch (method.getName()) {
+                case "equals":
+                    return proxy == args[0];
+                case "hashCode":
+                    return System.identityHashCode(proxy);
+                case "toString":
+                    return type.getSimpleName();
+            }
+            if (returns.containsKey(method.getName())) {
+                return returns.get(method.getName());
+            }
+            Class<?> ret = method.getReturnType();
+            if (ret.isInterface()) {
+                return stub(ret, Collections.emptyMap());
+            }
+            if (ret.isPrimitive() && ret != void.class) {
+                return Array.get(Array.newInstance(ret, 1), 0);
+            }
+            return null;
+        });
+    }
+
+    /**
+     * Multipage handler recording the pages it rendered as "message id:page".
+     */
+    private static class TestHandler extends MultipageHandler {
+        private final long maxLive;
+        private final CountDownLatch destroyed;
+
+        private TestHandler(long messageId, long channelId, long userId, long maxLive, BlockingQueue<String> rendered) {
+            super(stub(Message.class, Map.of(
+                    "getIdLong", messageId,
+                    "getChannel", stub(MessageChannel.class, Map.of("getIdLong", channelId))
+            )), userId, page -> {
+                rendered.add(messageId + ":" + page);
+                return null;
+            }, () -> 9);
+            this.maxLive = maxLive;
+            this.destroyed = new CountDownLatch(1);
+            // any reaction discards the handler
+            this.onReaction = e -> true;
+        }
+
+        @Override
+        public long getMaxLive() {
+            return this.maxLive;
+        }
+
+        @Override
+        public void onDestroy() {
+            super.onDestroy();
+            this.destroyed.countDown();
+        }
+    }
+
+    @Test
+    void testConcurrentPagination() throws InterruptedException {
+        int messages = 10;
+        ReactionManagerImpl manager = new ReactionManagerImpl(getWheel(), messages);
+
+        CountDownLatch entered = new CountDownLatch(messages);
+        CountDownLatch done = new CountDownLatch(messages);
+        for (int i = 0; i < messages; i++) {
+            manager.addEventListener(new ReactionResponse(i, 0, 0, false, e -> {
+                // every render waits for the others to start,
+                // so this only completes if distinct messages are handled in parallel
+                entered.countDown();
+                try {
+                    if (entered.await(10, TimeUnit.SECONDS)) {
+                        done.countDown();
+                    }
+                } catch (InterruptedException ex) {
+                    ex.printStackTrace();
+                }
+                return false;
+            }));
+        }
+
+        for (int i = 0; i < messages; i++) {
+            manager.handle(i, 0, null);
+        }
+        assert done.await(10, TimeUnit.SECONDS);
+    }
+
+    @Test
+    void testSerialPerHandler() throws InterruptedException {
+        ReactionManagerImpl manager = new ReactionManagerImpl(getWheel(), 10);
+
+        int reactions = 20;
+        AtomicInteger running = new AtomicInteger();
+        AtomicInteger maxRunning = new AtomicInteger();
+        List<Integer> order = Collections.synchronizedList(new ArrayList<>());
+        AtomicInteger counter = new AtomicInteger();
+        CountDownLatch done = new CountDownLatch(reactions);
+        manager.addEventListener(new ReactionResponse(1, 0, 0, false, e -> {
+            maxRunning.accumulateAndGet(running.incrementAndGet(), Math::max);
+            order.add(counter.getAndIncrement());
+            sleep(5);
+            running.decrementAndGet();
+            done.countDown();
+            return false;
+        }));
+
+        for (int i = 0; i < reactions; i++) {
+            manager.handle(1, 0, null);
+        }
+        assert done.await(10, TimeUnit.SECONDS);
+
+        assert maxRunning.get() == 1;
+        for (int i = 0; i < reactions; i++) {
+            assert order.get(i) == i;
+        }
+    }
+
+    @Test
+    void testDestroy() throws InterruptedException {
+        ReactionManagerImpl manager = new ReactionManagerImpl(getWheel(), 10);
+
+        AtomicInteger handled = new AtomicInteger();
+        CountDownLatch destroyed = new CountDownLatch(1);
+        ReactionResponse response = new ReactionResponse(1, 0, 100, true, e -> handled.incrementAndGet() >= 2);
+        response.setOnDestroy(destroyed::countDown);
+        manager.addEventListener(response);
+
+        // user private: other users are ignored
+        manager.handle(1, 200, null);
+        for (int i = 0; i < 5; i++) {
+            manager.handle(1, 100, null);
+        }
+        assert destroyed.await(10, TimeUnit.SECONDS);
+
+        // tasks queued after the handler was discarded are skipped
+        sleep(100);
+        assert handled.get() == 2;
+    }
+
+    @Test
+    void testSetPageNewestHandler() throws InterruptedException {
+        ReactionManagerImpl manager = new ReactionManagerImpl(getWheel(), 2);
+        BlockingQueue<String> rendered = new LinkedBlockingQueue<>();
+        long maxLive = TimeUnit.MINUTES.toMillis(10);
+
+        manager.addEventListener(new TestHandler(1, 10, 100, maxLive, rendered));
+        manager.addEventListener(new TestHandler(3, 10, 100, maxLive, rendered));
+        manager.addEventListener(new TestHandler(2, 10, 100, maxLive, rendered));
+        manager.addEventListener(new TestHandler(4, 10, 200, maxLive, rendered));
+        manager.addEventListener(new TestHandler(5, 20, 100, maxLive, rendered));
+
+        // the newest (largest message id) handler of the user in the channel
+        assert manager.setPage(100, 10, 5);
+        assert "3:5".equals(rendered.poll(10, TimeUnit.SECONDS));
+        assert manager.setPage(200, 10, 12);
+        assert "4:2".equals(rendered.poll(10, TimeUnit.SECONDS));
+        assert manager.setPage(100, 20, 0);
+        assert "5:0".equals(rendered.poll(10, TimeUnit.SECONDS));
+
+        // other users and channels are not matched
+        assert !manager.setPage(300, 10, 0);
+        assert !manager.setPage(100, 30, 0);
+        assert !manager.setPage(200, 20, 0);
+
+        sleep(100);
+        assert rendered.isEmpty();
+        assert manager.getMultipageIndexSize() == 3;
+    }
+
+    @Test
+    void testSetPageAfterRemove() throws InterruptedException {
+        ReactionManagerImpl manager = new ReactionManagerImpl(getWheel(), 2);
+        BlockingQueue<String> rendered = new LinkedBlockingQueue<>();
+        long maxLive = TimeUnit.MINUTES.toMillis(10);
+
+        TestHandler older = new TestHandler(1, 10, 100, maxLive, rendered);
+        TestHandler newer = new TestHandler(2, 10, 100, maxLive, rendered);
+        manager.addEventListener(older);
+        manager.addEventListener(newer);
+
+        // the older one takes over after the newer one was removed
+        manager.handle(2, 100, null);
+        assert newer.destroyed.await(10, TimeUnit.SECONDS);
+        assert manager.setPage(100, 10, 1);
+        assert "1:1".equals(rendered.poll(10, TimeUnit.SECONDS));
+
+        manager.handle(1, 100, null);
+        assert older.destroyed.await(10, TimeUnit.SECONDS);
+        assert !manager.setPage(100, 10, 1);
+
+        // the empty map of the key is cleaned up
+        assert manager.getMultipageIndexSize() == 0;
+        sleep(100);
+        assert rendered.isEmpty();
+    }
+
+    @Test
+    void testSetPageAfterExpiry() throws InterruptedException {
+        TimingWheel wheel = new TimingWheel("test-expiry", 10, TimeUnit.MILLISECONDS, 64);
+        ReactionManagerImpl manager = new ReactionManagerImpl(wheel, 2);
+        BlockingQueue<String> rendered = new LinkedBlockingQueue<>();
+
+        TestHandler handler = new TestHandler(1, 10, 100, 50, rendered);
+        manager.addEventListener(handler);
+        assert manager.getMultipageIndexSize() == 1;
+
+        assert handler.destroyed.await(10, TimeUnit.SECONDS);
+        assert !manager.setPage(100, 10, 1);
+        assert manager.getMultipageIndexSize() == 0;
+    }
+}
@@ -0,0 +1,82 @@
+package update.response;
+
+import org.jetbrains.annotations.TestOnly;
+import org.junit.jupiter.api.Test;
+import utils.TimingWheel;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+class TestResponseManagerImpl {
+    @TestOnly
+    private static ResponseManagerImpl getManager() {
+        return new ResponseManagerImpl(new TimingWheel("test-expiry", 1, TimeUnit.SECONDS, 64));
+    }
+
+    @Test
+    void testHandle() {
+        ResponseManagerImpl manager = getManager();
+
+        AtomicInteger handled = new AtomicInteger();
+        AtomicInteger destroyed = new AtomicInteger();
+        Response response = new Response(10, 1, e -> handled.incrementAndGet() >= 2);
+        response.setOnDestroy(destroyed::incrementAndGet);
+        manager.addEventListener(response);
+
+        // other users and other channels are ignored
+        manager.handle(2, 10, null);
+        manager.handle(1, 20, null);
+        assert handled.get() == 0;
+
+        manager.handle(1, 10, null);
+        assert handled.get() == 1 && destroyed.get() == 0;
+        manager.handle(1, 10, null);
+        assert handled.get() == 2 && destroyed.get() == 1;
+
+        // discarded
+        manager.handle(1, 10, null);
+        assert handled.get() == 2;
+    }
+
+    @Test
+    void testAddInsideHandler() {
+        ResponseManagerImpl manager = getManager();
+
+        AtomicInteger second = new AtomicInteger();
+        manager.addEventListener(new Response(10, 1, e -> {
+            manager.addEventListener(new Response(10, 1, e2 -> second.incrementAndGet() > 0));
+            return true;
+        }));
+
+        manager.handle(1, 10, null);
+        manager.handle(1, 10, null);
+        assert second.get() == 1;
+    }
+
+    @Test
+    void testConcurrentUsers() throws InterruptedException {
+        ResponseManagerImpl manager = getManager();
+
+        int users = 50;
+        int responsesPerUser = 100;
+        AtomicInteger handled = new AtomicInteger();
+        List<Thread> threads = new ArrayList<>();
+        for (int i = 0; i < users; i++) {
+            long userId = i;
+            threads.add(new Thread(() -> {
+                for (int j = 0; j < responsesPerUser; j++) {
+                    manager.addEventListener(new Response(10, userId, e -> handled.incrementAndGet() > 0));
+                    manager.handle(userId, 10, null);
+                }
+            }));
+        }
+        threads.forEach(Thread::start);
+        for (Thread t : threads) {
+            t.join();
+        }
+
+        assert handled.get() == users * responsesPerUser;
+    }
+}
@@ -0,0 +1,101 @@
+package utils;
+
+import com.sun.net.httpserver.HttpServer;
+import org.jetbrains.annotations.TestOnly;
+import org.junit.jupiter.api.Test;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.net.InetSocketAddress;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.concurrent.*;
+import java.util.concurrent.atomic.AtomicReference;
+import java.util.zip.GZIPOutputStream;
+
+class TestHttpUtils {
+    private static final String BODY = "{\"message\":\"hello\"}";
+
+    /**
+     * Starts a local server responding with gzip-compressed body after the delay,
+     * if the client accepts gzip encoding.
+     */
+    @TestOnly
+    private static HttpServer startStub(long delay, AtomicReference<String> acceptEncoding) throws IOException {
+        HttpServer server = HttpServer.create(new InetSocketAddress("127.0.0.1", 0), 0);
+        server.setExecutor(Executors.newCachedThreadPool());
+        server.createContext("/resource", exchange -> {
+            try {
+                Thread.sleep(delay);
+            } catch (InterruptedException e) {
+                e.printStackTrace();
+            }
+            String encoding = exchange.getRequestHeaders().getFirst("Accept-Encoding");
+            acceptEncoding.set(encoding);
+            byte[] res = BODY.getBytes(StandardCharsets.UTF_8);
+            if (encoding != null && encoding.contains("gzip")) {
+                exchange.getResponseHeaders().add("Content-Encoding", "gzip");
+                exchange.sendResponseHeaders(200, 0);
+                try (OutputStream out = new GZIPOutputStream(exchange.getResponseBody())) {
+                    out.write(res);
+                }
+            } else {
+                exchange.sendResponseHeaders(200, res.length);
+                try (OutputStream out = exchange.getResponseBody()) {
+                    out.write(res);
+                }
+            }
+        });
+        server.start();
+        return server;
+    }
+
+    @Test
+    void testGzip() throws IOException {
+        AtomicReference<String> acceptEncoding = new AtomicReference<>();
+        HttpServer server = startStub(0, acceptEncoding);
+        try {
+            String body = HttpUtils.get("http://127.0.0.1:" + server.getAddress().getPort() + "/resource");
+            assert BODY.equals(body);
+            assert acceptEncoding.get() != null && acceptEncoding.get().contains("gzip");
+        } finally {
+            server.stop(0);
+        }
+    }
+
+    @Test
+    void testLeaseWait() throws Exception {
+        HttpServer server = startStub(200, new AtomicReference<>());
+        ExecutorService callers = Executors.newFixedThreadPool(3);
+        try {
+            // one connection per host, so that concurrent requests wait for the pool
+            HttpUtils.configure(new HttpUtils.Config(1, 10, new HashMap<>(),
+                    1000, 1000, 5000, 30_000, 30_000));
+            HttpUtils.PoolMetrics before = HttpUtils.getPoolMetrics();
+
+            String url = "http://127.0.0.1:" + server.getAddress().getPort() + "/resource";
+            List<Future<String>> futures = new ArrayList<>();
+            for (int i = 0; i < 3; i++) {
+                futures.add(callers.submit(() -> HttpUtils.get(url)));
+            }
+            for (Future<String> f : futures) {
+                assert BODY.equals(f.get(10, TimeUnit.SECONDS));
+            }
+
+            HttpUtils.PoolMetrics after = HttpUtils.getPoolMetrics();
+            assert after.getLeases() - before.getLeases() == 3;
+            // the last request waits for the other two requests of 200 ms each
+            assert after.getLeaseWaitNanos() - before.getLeaseWaitNanos() >= TimeUnit.MILLISECONDS.toNanos(300);
+            assert after.getLeaseTimeouts() == 0;
+            assert after.getLeased() == 0;
+            // the connection is kept alive
+            assert after.getAvailable() == 1;
+        } finally {
+            HttpUtils.configure(new HttpUtils.Config());
+            callers.shutdown();
+            server.stop(0);
+        }
+    }
+}
@@ -0,0 +1,155 @@
+package utils;
+
+import com.sun.net.httpserver.HttpServer;
+import org.jetbrains.annotations.TestOnly;
+import org.junit.jupiter.api.Test;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.net.InetSocketAddress;
+import java.nio.charset.StandardCharsets;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicReference;
+
+class TestParsedResource {
+    /**
+     * Starts a local server responding with the current body.
+     * If ETag is given, responds with it and honors "If-None-Match" header.
+     */
+    @TestOnly
+    private static HttpServer startStub(AtomicReference<String> body, AtomicReference<String> etag,
+                                        AtomicInteger notModified) throws IOException {
+        HttpServer server = HttpServer.create(new InetSocketAddress("127.0.0.1", 0), 0);
+        server.createContext("/resource", exchange -> {
+            String currentETag = etag.get();
+            if (currentETag != null) {
+                exchange.getResponseHeaders().add("ETag", currentETag);
+                if (currentETag.equals(exchange.getRequestHeaders().getFirst("If-None-Match"))) {
+                    notModified.incrementAndGet();
+                    exchange.sendResponseHeaders(304, -1);
+                    exchange.close();
+                    return;
+                }
+            }
+            byte[] res = body.get().getBytes(StandardCharsets.UTF_8);
+            exchange.sendResponseHeaders(200, res.length);
+            try (OutputStream out = exchange.getResponseBody()) {
+                out.write(res);
+            }
+        });
+        server.start();
+        return server;
+    }
+
+    @Test
+    void testFingerprint() throws Exception {
+        AtomicReference<String> body = new AtomicReference<>("{\"a\":1}");
+        HttpServer server = startStub(body, new AtomicReference<>(), new AtomicInteger());
+        try {
+            AtomicInteger parses = new AtomicInteger();
+            ParsedResource<String> resource = new ParsedResource<>(
+                    "http://127.0.0.1:" + server.getAddress().getPort() + "/resource",
+                    b -> {
+                        parses.incrementAndGet();
+                        return new String(b);
+                    });
+
+            String first = resource.get();
+            assert "{\"a\":1}".equals(first);
+            assert resource.get() == first;
+            assert resource.get() == first;
+            assert parses.get() == 1;
+            assert resource.getSkippedParses() == 2;
+
+            body.set("{\"a\":2}");
+            String second = resource.get();
+            assert "{\"a\":2}".equals(second);
+            assert parses.get() == 2;
+            assert resource.getSkippedParses() == 2;
+        } finally {
+            server.stop(0);
+        }
+    }
+
+    @Test
+    void testETag() throws Exception {
+        AtomicReference<String> body = new AtomicReference<>("{\"a\":1}");
+        AtomicReference<String> etag = new AtomicReference<>("\"v1\"");
+        AtomicInteger notModified = new AtomicInteger();
+        HttpServer server = startStub(body, etag, notModified);
+        try {
+            AtomicInteger parses = new AtomicInteger();
+            ParsedResource<String> resource = new ParsedResource<>(
+                    "http://127.0.0.1:" + server.getAddress().getPort() + "/resource",
+                    b -> {
+                        parses.incrementAndGet();
+                        return new String(b);
+                    });
+
+            String first = resource.get();
+            assert resource.get() == first;
+            assert notModified.get() == 1;
+            assert parses.get() == 1;
+            assert resource.getSkippedParses() == 1;
+
+            body.set("{\"a\":2}");
+            etag.set("\"v2\"");
+            assert "{\"a\":2}".equals(resource.get());
+            assert parses.get() == 2;
+        } finally {
+            server.stop(0);
+        }
+    }
+
+    @Test
+    void testIgnoreRequestTimestamp() throws Exception {
+        AtomicReference<String> body = new AtomicReference<>(
+                "{\"WC1\":[\"a\"],\"request\":{\"timestamp\":1,\"version\":1}}");
+        HttpServer server = startStub(body, new AtomicReference<>(), new AtomicInteger());
+        try {
+            AtomicInteger parses = new AtomicInteger();
+            ParsedResource<String> resource = new ParsedResource<>(
+                    "http://127.0.0.1:" + server.getAddress().getPort() + "/resource",
+                    b -> {
+                        parses.incrementAndGet();
+                        return new String(b);
+                    },
+                    b -> ParsedResource.fingerprintExcept(b, "request"));
+
+            String first = resource.get();
+            // only the response timestamp changes
+            body.set("{\"WC1\":[\"a\"],\"request\":{\"timestamp\":2,\"version\":1}}");
+            assert resource.get() == first;
+            assert parses.get() == 1;
+            assert resource.getSkippedParses() == 1;
+
+            body.set("{\"WC1\":[\"a\",\"b\"],\"request\":{\"timestamp\":3,\"version\":1}}");
+            assert resource.get() != first;
+            assert parses.get() == 2;
+        } finally {
+            server.stop(0);
+        }
+    }
+
+    @Test
+    void testFingerprintExcept() throws Exception {
+        long a = ParsedResource.fingerprintExcept("{\"territories\":{\"t\":{}},\"request\":{\"timestamp\":1}}", "request");
+        long b = ParsedResource.fingerprintExcept("{\"territories\":{\"t\":{}},\"request\":{\"timestamp\":2}}", "request");
+        long c = ParsedResource.fingerprintExcept("{\"territories\":{\"u\":{}},\"request\":{\"timestamp\":1}}", "request");
+        // the field in the middle of the object
+        long d = ParsedResource.fingerprintExcept("{\"a\":1,\"request\":{\"timestamp\":1},\"b\":2}", "request");
+        long e = ParsedResource.fingerprintExcept("{\"a\":1,\"request\":{\"timestamp\":5},\"b\":2}", "request");
+        long f = ParsedResource.fingerprintExcept("{\"a\":1,\"request\":{\"timestamp\":5},\"b\":3}", "request");
+        assert a == b;
+        assert a != c;
+        assert d == e;
+        assert e != f;
+    }
+
+    @Test
+    void testFingerprintDiffers() {
+        assert ParsedResource.fingerprint("{\"a\":1}") == ParsedResource.fingerprint("{\"a\":1}");
+        assert ParsedResource.fingerprint("{\"a\":1}") != ParsedResource.fingerprint("{\"a\":2}");
+        assert ParsedResource.fingerprint("ab") != ParsedResource.fingerprint("ba");
+    }
+}
@@ -0,0 +1,49 @@
+package utils;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicLong;
+
+class TestTimingWheel {
+    @Test
+    void testSchedule() throws InterruptedException {
+        TimingWheel wheel = new TimingWheel("test-wheel", 10, TimeUnit.MILLISECONDS, 8);
+
+        // delays longer than one rotation of the wheel (80 ms) have to wait for their round
+        long start = System.currentTimeMillis();
+        AtomicLong shortRanAt = new AtomicLong();
+        AtomicLong longRanAt = new AtomicLong();
+        CountDownLatch done = new CountDownLatch(2);
+        wheel.schedule(() -> {
+            shortRanAt.set(System.currentTimeMillis());
+            done.countDown();
+        }, 30, TimeUnit.MILLISECONDS);
+        wheel.schedule(() -> {
+            longRanAt.set(System.currentTimeMillis());
+            done.countDown();
+        }, 200, TimeUnit.MILLISECONDS);
+
+        assert done.await(5, TimeUnit.SECONDS);
+        assert shortRanAt.get() - start >= 30;
+        assert longRanAt.get() - start >= 200;
+        assert shortRanAt.get() < longRanAt.get();
+    }
+
+    @Test
+    void testCancel() throws InterruptedException {
+        TimingWheel wheel = new TimingWheel("test-wheel", 10, TimeUnit.MILLISECONDS, 8);
+
+        AtomicBoolean ran = new AtomicBoolean();
+        TimingWheel.Timeout timeout = wheel.schedule(() -> ran.set(true), 20, TimeUnit.MILLISECONDS);
+        timeout.cancel();
+        assert timeout.isCancelled();
+
+        CountDownLatch after = new CountDownLatch(1);
+        wheel.schedule(after::countDown, 50, TimeUnit.MILLISECONDS);
+        assert after.await(5, TimeUnit.SECONDS);
+        assert !ran.get();
+    }
+}
@@ -0,0 +1,87 @@
+package utils;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.Random;
+
+class TestUUID {
+    @Test
+    void testParseAndFormat() {
+        String hyphens = "1d378fba-e8d2-44bc-b731-db5d42dfc791";
+        String trimmed = "1d378fbae8d244bcb731db5d42dfc791";
+
+        UUID a = new UUID(hyphens);
+        UUID b = new UUID(trimmed);
+        assert a.equals(b) && a.hashCode() == b.hashCode();
+        assert hyphens.equals(a.toStringWithHyphens());
+        assert trimmed.equals(a.toString());
+
+        java.util.UUID expected = java.util.UUID.fromString(hyphens);
+        assert a.getMostSignificantBits() == expected.getMostSignificantBits();
+        assert a.getLeastSignificantBits() == expected.getLeastSignificantBits();
+
+        byte[] data = a.toBytes();
+        assert data.length == 16;
+        assert (data[0] & 0xFF) == 0x1d && (data[15] & 0xFF) == 0x91;
+        assert a.equals(new UUID(data));
+
+        assert "00000000-0000-0000-0000-000000000000".equals(new UUID(0L, 0L).toStringWithHyphens());
+        assert "ffffffff-ffff-ffff-ffff-ffffffffffff".equals(new UUID(-1L, -1L).toStringWithHyphens());
+    }
+
+    @Test
+    void testRandomRoundTrip() {
+        Random random = new Random(42);
+        for (int i = 0; i < 10_000; i++) {
+            java.util.UUID expected = new java.util.UUID(random.nextLong(), random.nextLong());
+            UUID uuid = new UUID(expected.toString());
+            assert expected.toString().equals(uuid.toStringWithHyphens());
+            assert expected.toString().replace("-", "").equals(uuid.toString());
+            assert uuid.equals(new UUID(uuid.toBytes()));
+        }
+    }
+
+    @Test
+    void testIsUUID() {
+        assert UUID.isUUID("1d378fba-e8d2-44bc-b731-db5d42dfc791");
+        assert UUID.isUUID("1d378fbae8d244bcb731db5d42dfc791");
+
+        assert !UUID.isUUID("");
+        assert !UUID.isUUID("1d378fbae8d244bcb731db5d42dfc79");
+        assert !UUID.isUUID("1d378fbae8d244bcb731db5d42dfc7912");
+        assert !UUID.isUUID("1D378FBAE8D244BCB731DB5D42DFC791");
+        assert !UUID.isUUID("1d378fbae8d244bcb731db5d42dfc79g");
+        assert !UUID.isUUID("1d378fba-e8d2-44bc-b731db5d42dfc7911");
+        assert !UUID.isUUID("1d378fba-e8d244bc-b731-db5d42dfc791-");
+        assert !UUID.isUUID("1d378fba_e8d2_44bc_b731_db5d42dfc791");
+
+        assert UUID.isUUID(new StringBuilder("1d378fbae8d244bcb731db5d42dfc791"));
+        assert !UUID.isUUID("1d378fbae8d244bcb731db5d42dfc79\u0101");
+
+        boolean thrown = false;
+        try {
+            new UUID("not-a-uuid");
+        } catch (IllegalArgumentException e) {
+            thrown = true;
+        }
+        assert thrown;
+    }
+
+    @Test
+    void testParse() {
+        UUID expected = new UUID("1d378fbae8d244bcb731db5d42dfc791");
+        assert expected.equals(UUID.parse("1d378fba-e8d2-44bc-b731-db5d42dfc791"));
+        assert expected.equals(UUID.parse("1d378fbae8d244bcb731db5d42dfc791"));
+        assert expected.equals(UUID.parse(new StringBuilder("1d378fba-e8d2-44bc-b731-db5d42dfc791")));
+
+        assert UUID.parse("") == null;
+        assert UUID.parse("1d378fbae8d244bcb731db5d42dfc79") == null;
+        assert UUID.parse("1D378FBAE8D244BCB731DB5D42DFC791") == null;
+        assert UUID.parse("1d378fbae8d244bcb731db5d42dfc79g") == null;
+        assert UUID.parse("1d378fba-e8d244bc-b731-db5d42dfc791-") == null;
+        assert UUID.parse("1d378fba_e8d2_44bc_b731_db5d42dfc791") == null;
+        // player names
+        assert UUID.parse("motoki1") == null;
+        assert UUID.parse("Salted_") == null;
+    }
+}
@@ -0,0 +1,110 @@
+package utils.cache;
+
+import org.jetbrains.annotations.TestOnly;
+import org.junit.jupiter.api.Test;
+import utils.TestUtils;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Arrays;
+import java.util.concurrent.TimeUnit;
+
+class TestCacheSnapshot {
+    private static final long HOLD_TIME = TimeUnit.MINUTES.toMillis(10);
+
+    @TestOnly
+    private static CacheSnapshot.Section stringSection(String name, DataCache<String, String> cache) {
+        return CacheSnapshot.cacheSection(name, cache,
+                CacheSnapshot::writeString, CacheSnapshot::readString, cache::add);
+    }
+
+    @Test
+    void testRestoreKeepsCreatedTime() throws IOException {
+        Path dir = Files.createTempDirectory("cache-snapshot");
+        Path path = dir.resolve("snapshot.bin");
+        try {
+            long now = System.currentTimeMillis();
+            DataCache<String, String> cache = new HashMapDataCache<>(100, HOLD_TIME, HOLD_TIME);
+            cache.add("fresh", "v1", now - TimeUnit.MINUTES.toMillis(1));
+            cache.add("old", "v2", now - HOLD_TIME + 200);
+            cache.add("null", null, now);
+
+            CacheSnapshot snapshot = new CacheSnapshot(path, TestUtils.getLogger());
+            snapshot.register(stringSection("strings", cache));
+            snapshot.register(stringSection("removed", new HashMapDataCache<>(100, HOLD_TIME, HOLD_TIME)));
+            assert snapshot.save();
+
+            // "old" expires between save and load
+            try {
+                Thread.sleep(300);
+            } catch (InterruptedException e) {
+                e.printStackTrace();
+            }
+
+            DataCache<String, String> restored = new HashMapDataCache<>(100, HOLD_TIME, HOLD_TIME);
+            CacheSnapshot next = new CacheSnapshot(path, TestUtils.getLogger());
+            next.register(stringSection("strings", restored));
+            assert next.load();
+
+            assert "v1".equals(restored.get("fresh"));
+            assert !restored.exists("old");
+            assert restored.exists("null") && restored.get("null") == null;
+
+            long[] createdAt = new long[1];
+            restored.forEach((k, v, c) -> {
+                if ("fresh".equals(k)) createdAt[0] = c;
+            });
+            assert createdAt[0] == now - TimeUnit.MINUTES.toMillis(1);
+        } finally {
+            Files.deleteIfExists(path);
+            Files.deleteIfExists(dir);
+        }
+    }
+
+    @Test
+    void testMissingSnapshot() throws IOException {
+        Path dir = Files.createTempDirectory("cache-snapshot");
+        try {
+            CacheSnapshot snapshot = new CacheSnapshot(dir.resolve("snapshot.bin"), TestUtils.getLogger());
+            assert !snapshot.load();
+        } finally {
+            Files.deleteIfExists(dir);
+        }
+    }
+
+    @Test
+    void testLoadLargeSnapshot() throws IOException {
+        Path dir = Files.createTempDirectory("cache-snapshot");
+        Path path = dir.resolve("snapshot.bin");
+        try {
+            // 100 records of 100KB bodies
+            DataCache<String, byte[]> cache = new HashMapDataCache<>(100, HOLD_TIME, HOLD_TIME);
+            byte[] body = new byte[100 * 1024];
+            Arrays.fill(body, (byte) 'a');
+            for (int i = 0; i < 100; i++) {
+                cache.add("key" + i, body);
+            }
+            CacheSnapshot snapshot = new CacheSnapshot(path, TestUtils.getLogger());
+            snapshot.register(CacheSnapshot.cacheSection("bodies", cache,
+                    CacheSnapshot::writeBytes, CacheSnapshot::readBytes, cache::add));
+            assert snapshot.save();
+            assert Files.size(path) > 10_000_000;
+
+            DataCache<String, byte[]> restored = new HashMapDataCache<>(100, HOLD_TIME, HOLD_TIME);
+            CacheSnapshot next = new CacheSnapshot(path, TestUtils.getLogger());
+            next.register(CacheSnapshot.cacheSection("bodies", restored,
+                    CacheSnapshot::writeBytes, CacheSnapshot::readBytes, restored::add));
+
+            assert next.load();
+
+            for (int i = 0; i < 100; i++) {
+                byte[] b = restored.get("key" + i);
+                assert b != null && b.length == body.length;
+            }
+        } finally {
+            Files.deleteIfExists(path);
+            Files.deleteIfExists(dir);
+        }
+    }
+}